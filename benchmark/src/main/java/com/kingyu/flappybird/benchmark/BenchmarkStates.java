@@ -0,0 +1,55 @@
+package com.kingyu.flappybird.benchmark;
+
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+import com.kingyu.flappybird.engine.Autopilot;
+import com.kingyu.flappybird.engine.GameEngine;
+import com.kingyu.flappybird.engine.PipeCourse;
+import com.kingyu.flappybird.util.Constant;
+import com.kingyu.flappybird.util.GameUtil;
+
+/**
+ * 基准测试共用的游戏状态
+ *
+ * @author Kingyu
+ */
+final class BenchmarkStates {
+
+    private static final int MAX_WARM_UP_TICKS = 100_000; // 准备状态时最多推进的帧数
+    static final long SEED = 20200712L; // 固定的种子，使每次测试的赛道相同
+
+    private BenchmarkStates() {
+    }
+
+    // 与Game中原先的绘制方式相同格式的离屏图片
+    static BufferedImage newFrameImage() {
+        return new BufferedImage(Constant.FRAME_WIDTH, Constant.FRAME_HEIGHT, BufferedImage.TYPE_4BYTE_ABGR);
+    }
+
+    // 与屏幕兼容格式的离屏图片，对应BufferStrategy的后台缓冲区
+    static BufferedImage newCompatibleFrameImage() {
+        return GameUtil.createCompatibleImage(Constant.FRAME_WIDTH, Constant.FRAME_HEIGHT, Transparency.OPAQUE);
+    }
+
+    /**
+     * 由自动驾驶推进游戏，直到赛道上有FULL_PIPE根水管且小鸟存活
+     *
+     * @return 处于游戏中的引擎
+     */
+    static GameEngine fullCourse() {
+        GameEngine engine = new GameEngine(SEED);
+        Autopilot autopilot = new Autopilot();
+        for (int i = 0; i < MAX_WARM_UP_TICKS; i++) {
+            autopilot.control(engine);
+            engine.tick();
+            if (engine.getGameState() == GameEngine.STATE_OVER) {
+                engine.flapPressed(); // 重新开始
+            } else if (engine.getGameState() == GameEngine.GAME_START && !engine.getBird().isDead()
+                    && engine.getCourse().getPipes().size() >= PipeCourse.FULL_PIPE) {
+                return engine;
+            }
+        }
+        throw new IllegalStateException("未能在" + MAX_WARM_UP_TICKS + "帧内生成完整的水管赛道");
+    }
+}
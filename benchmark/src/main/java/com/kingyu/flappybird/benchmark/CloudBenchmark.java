@@ -0,0 +1,70 @@
+package com.kingyu.flappybird.benchmark;
+
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.kingyu.flappybird.component.GameForeground;
+import com.kingyu.flappybird.util.Constant;
+
+/**
+ * 云朵的缩放绘制，屏幕上有MAX_CLOUD_COUNT朵云时绘制一轮
+ *
+ * @author Kingyu
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class CloudBenchmark {
+
+    private GameForeground foreground;
+    private int spawned; // 已生成的云朵数量
+    private BufferedImage bufImg;
+    private Graphics bufG;
+
+    @Setup
+    public void setUp() {
+        foreground = new GameForeground();
+        for (int i = 0; i < Constant.MAX_CLOUD_COUNT; i++) {
+            addCloud(Constant.FRAME_WIDTH * i / Constant.MAX_CLOUD_COUNT);
+        }
+        bufImg = BenchmarkStates.newCompatibleFrameImage();
+        bufG = bufImg.getGraphics();
+    }
+
+    private void addCloud(int x) {
+        int i = spawned++ % Constant.MAX_CLOUD_COUNT;
+        foreground.addCloud(i % Constant.CLOUD_IMAGE_COUNT, x, Constant.TOP_BAR_HEIGHT + i * 20, 1.5);
+    }
+
+    @TearDown
+    public void tearDown() {
+        bufG.dispose();
+    }
+
+    // 飞出屏幕的云朵从右侧重新生成，与GameForeground的刷新方式相同
+    @Benchmark
+    public BufferedImage draw() {
+        foreground.moveClouds(GameForeground.CLOUD_SPEED);
+        foreground.drawClouds(bufG);
+        for (int n = foreground.recycleClouds(); n > 0; n--) {
+            addCloud(Constant.FRAME_WIDTH);
+        }
+        return bufImg;
+    }
+}
@@ -0,0 +1,65 @@
+package com.kingyu.flappybird.benchmark;
+
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.kingyu.flappybird.component.GameElementLayer;
+import com.kingyu.flappybird.engine.GameEngine;
+
+/**
+ * 游戏元素层：赛道上有PipeCourse.FULL_PIPE根水管时的绘制与碰撞检测
+ *
+ * @author Kingyu
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ElementLayerBenchmark {
+
+    private GameEngine engine;
+    private GameElementLayer layer;
+    private BufferedImage bufImg;
+    private Graphics bufG;
+
+    @Setup
+    public void setUp() {
+        engine = BenchmarkStates.fullCourse();
+        layer = new GameElementLayer();
+        bufImg = BenchmarkStates.newCompatibleFrameImage();
+        bufG = bufImg.getGraphics();
+    }
+
+    @TearDown
+    public void tearDown() {
+        bufG.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage draw() {
+        layer.draw(bufG, engine);
+        return bufImg;
+    }
+
+    // 小鸟存活且未与水管相交，会遍历所有水管
+    @Benchmark
+    public boolean isCollideBird() {
+        engine.getCourse().isCollideBird(engine.getBird());
+        return engine.getBird().isDead();
+    }
+}
@@ -0,0 +1,89 @@
+package com.kingyu.flappybird.benchmark;
+
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.kingyu.flappybird.app.GameRenderer;
+import com.kingyu.flappybird.engine.Autopilot;
+import com.kingyu.flappybird.engine.GameEngine;
+
+/**
+ * 完整的一帧：推进游戏逻辑并将所有层合成到离屏图片，与Game.update相同
+ *
+ * @author Kingyu
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class FrameBenchmark {
+
+    // 离屏图片的格式：image为原先的TYPE_4BYTE_ABGR，compatible为与屏幕兼容的格式
+    @Param({"image", "compatible"})
+    public String buffer;
+
+    private GameEngine engine;
+    private Autopilot autopilot;
+    private GameRenderer renderer;
+    private BufferedImage bufImg;
+    private Graphics bufG;
+
+    @Setup
+    public void setUp() {
+        engine = BenchmarkStates.fullCourse();
+        autopilot = new Autopilot();
+        renderer = new GameRenderer();
+        bufImg = "compatible".equals(buffer) ? BenchmarkStates.newCompatibleFrameImage()
+                : BenchmarkStates.newFrameImage();
+        bufG = bufImg.getGraphics();
+    }
+
+    @TearDown
+    public void tearDown() {
+        bufG.dispose();
+    }
+
+    // 推进一帧并绘制
+    @Benchmark
+    public BufferedImage tickAndRender() {
+        autopilot.control(engine);
+        engine.tick();
+        if (engine.getGameState() == GameEngine.STATE_OVER) {
+            engine.flapPressed(); // 重新开始
+        }
+        renderer.draw(bufG, engine);
+        return bufImg;
+    }
+
+    // 只合成画面，游戏状态不变
+    @Benchmark
+    public BufferedImage renderOnly() {
+        renderer.draw(bufG, engine);
+        return bufImg;
+    }
+
+    // 每帧获取新的画笔，与Game.update的写法相同
+    @Benchmark
+    public BufferedImage renderWithNewGraphics() {
+        Graphics g = bufImg.getGraphics();
+        renderer.draw(g, engine);
+        g.dispose();
+        return bufImg;
+    }
+}
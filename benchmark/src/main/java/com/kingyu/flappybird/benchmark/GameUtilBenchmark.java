@@ -0,0 +1,56 @@
+package com.kingyu.flappybird.benchmark;
+
+import java.awt.Color;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.kingyu.flappybird.component.ScoreRenderer;
+import com.kingyu.flappybird.util.Constant;
+import com.kingyu.flappybird.util.GameUtil;
+
+/**
+ * 分数文字的测量，对比每次测量字符串与使用预先绘制的数字图片
+ *
+ * @author Kingyu
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class GameUtilBenchmark {
+
+    @Param({"7", "128"})
+    public String score;
+
+    private ScoreRenderer scoreRenderer;
+    private long scoreValue;
+
+    @Setup
+    public void setUp() {
+        scoreRenderer = new ScoreRenderer(Constant.CURRENT_SCORE_FONT, Color.white);
+        scoreValue = Long.parseLong(score);
+    }
+
+    @Benchmark
+    public int getStringWidth() {
+        return GameUtil.getStringWidth(Constant.CURRENT_SCORE_FONT, score);
+    }
+
+    @Benchmark
+    public int scoreRendererWidth() {
+        return scoreRenderer.getWidth(scoreValue);
+    }
+}
@@ -0,0 +1,72 @@
+package com.kingyu.flappybird.benchmark;
+
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.kingyu.flappybird.component.Pipe;
+import com.kingyu.flappybird.engine.PipeCourse;
+import com.kingyu.flappybird.util.Constant;
+
+/**
+ * 单根水管的绘制，覆盖drawTopNormal和drawBottomNormal的拼接循环
+ *
+ * @author Kingyu
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class PipeBenchmark {
+
+    // 上方水管的可见高度，取值范围的两端和中间
+    @Param({"80", "240", "400"})
+    public int topHeight;
+
+    private Pipe pipe;
+    private int x;
+    private BufferedImage bufImg;
+    private Graphics bufG;
+
+    @Setup
+    public void setUp() {
+        pipe = new Pipe();
+        x = Constant.FRAME_WIDTH / 2;
+        bufImg = BenchmarkStates.newCompatibleFrameImage();
+        bufG = bufImg.getGraphics();
+    }
+
+    @TearDown
+    public void tearDown() {
+        bufG.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage drawTopNormal() {
+        pipe.draw(bufG, x, -Constant.TOP_PIPE_LENGTHENING, topHeight + Constant.TOP_PIPE_LENGTHENING,
+                PipeCourse.TYPE_TOP_NORMAL, 0);
+        return bufImg;
+    }
+
+    @Benchmark
+    public BufferedImage drawBottomNormal() {
+        pipe.draw(bufG, x, topHeight + PipeCourse.VERTICAL_INTERVAL,
+                Constant.FRAME_HEIGHT - topHeight - PipeCourse.VERTICAL_INTERVAL, PipeCourse.TYPE_BOTTOM_NORMAL, 0);
+        return bufImg;
+    }
+}
@@ -0,0 +1,192 @@
+package com.kingyu.flappybird.app;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.kingyu.flappybird.engine.Histogram;
+import com.kingyu.flappybird.engine.Replay;
+import com.kingyu.flappybird.engine.ReplayCorpus;
+import com.kingyu.flappybird.engine.ReplayRunner;
+
+/**
+ * 游戏入口
+ * 使用 --replay 录像库或录像文件... 参数运行时不打开窗口，全速重放录像并校验分数和游戏结束的帧序号
+ * 使用 --bench-render 帧数 [--seed 种子] 参数运行时不打开窗口，由自动驾驶操作并将每一帧合成到离屏图片，输出帧率、p99帧耗时和每帧分配的字节数
+ * 使用 --server [--port 端口] [--shards 分片数] [--seed 种子] 参数运行时启动多会话游戏服务器，每5秒输出一次统计
+ * 使用 --load-test 连接数 [--seconds 秒数] [--port 端口] 参数运行时通过本机回环地址压测服务器，未指定端口时在进程内启动服务器
+ * 
+ * @author Kingyu
+ *
+ */
+
+public class App {
+	public static void main(String[] args) {
+		if (args.length > 0 && "--replay".equals(args[0])) {
+			System.exit(replay(Arrays.copyOfRange(args, 1, args.length)) == 0 ? 0 : 1);
+		}
+		if (args.length > 0 && "--bench-render".equals(args[0])) {
+			System.exit(benchRender(args));
+		}
+		if (args.length > 0 && ("--server".equals(args[0]) || "--load-test".equals(args[0]))) {
+			System.exit(server(args));
+		}
+		new Game();
+	}
+
+	// 无窗口的绘制基准测试，参数错误时返回2
+	private static int benchRender(String[] args) {
+		int frames;
+		long seed = RenderBenchmark.DEFAULT_SEED;
+		try {
+			frames = Integer.parseInt(args[1]);
+			for (int i = 2; i < args.length; i += 2) {
+				if (!"--seed".equals(args[i])) {
+					throw new IllegalArgumentException(args[i]);
+				}
+				seed = Long.parseLong(args[i + 1]);
+			}
+			if (frames <= 0) {
+				throw new IllegalArgumentException(args[1]);
+			}
+		} catch (RuntimeException e) {
+			System.err.println("usage: --bench-render <frames> [--seed <seed>]");
+			return 2;
+		}
+		if (System.getProperty("java.awt.headless") == null) {
+			System.setProperty("java.awt.headless", "true"); // 在加载AWT之前设置，没有显示器的机器也能运行
+		}
+		RenderBenchmark benchmark = new RenderBenchmark(seed);
+		RenderBenchmark.Result result = benchmark.run(frames);
+		System.out.println("seed=" + seed + "  " + result);
+		GameRenderer renderer = benchmark.getRenderer();
+		for (int i = 0; i < GameRenderer.LAYER_COUNT; i++) {
+			Histogram layer = renderer.getLayerNanos(i);
+			System.out.println(String.format("  %-11s p50=%.1f us  p99=%.1f us  max=%.1f us", GameRenderer.LAYER_NAMES[i],
+					layer.getPercentile(50) / 1e3, layer.getPercentile(99) / 1e3, layer.getMax() / 1e3));
+		}
+		return 0;
+	}
+
+	// 多会话游戏服务器和压力测试，参数错误时返回2
+	private static int server(String[] args) {
+		boolean loadTest = "--load-test".equals(args[0]);
+		int port = -1;
+		int shards = Runtime.getRuntime().availableProcessors();
+		long seed = RenderBenchmark.DEFAULT_SEED;
+		int sessions = 0;
+		int seconds = 10;
+		try {
+			int i = 1;
+			if (loadTest) {
+				sessions = Integer.parseInt(args[i++]);
+			}
+			for (; i < args.length; i += 2) {
+				if ("--port".equals(args[i])) {
+					port = Integer.parseInt(args[i + 1]);
+				} else if ("--shards".equals(args[i]) && !loadTest) {
+					shards = Integer.parseInt(args[i + 1]);
+				} else if ("--seed".equals(args[i]) && !loadTest) {
+					seed = Long.parseLong(args[i + 1]);
+				} else if ("--seconds".equals(args[i]) && loadTest) {
+					seconds = Integer.parseInt(args[i + 1]);
+				} else {
+					throw new IllegalArgumentException(args[i]);
+				}
+			}
+			if (shards <= 0 || seconds <= 0 || loadTest && sessions <= 0 || port > 0xFFFF) {
+				throw new IllegalArgumentException();
+			}
+		} catch (RuntimeException e) {
+			System.err.println("usage: --server [--port <port>] [--shards <shards>] [--seed <seed>]");
+			System.err.println("       --load-test <sessions> [--seconds <seconds>] [--port <port>]");
+			return 2;
+		}
+		try {
+			if (!loadTest) {
+				GameServer server = new GameServer(shards, seed);
+				server.start(port < 0 ? GameServer.DEFAULT_PORT : port);
+				System.out.println("listening on 127.0.0.1:" + server.getPort() + ", " + shards + " shards");
+				while (true) {
+					Thread.sleep(5000);
+					System.out.println(server.report());
+				}
+			}
+			GameServer server = null;
+			if (port < 0) { // 在进程内启动服务器，端口由系统分配
+				server = new GameServer(shards, seed);
+				server.start(0);
+				port = server.getPort();
+				server.report(); // 从这里开始计算速率
+			}
+			try (LoadClient client = new LoadClient(port, sessions)) {
+				client.run(seconds);
+				if (server != null) {
+					System.out.println("server: " + server.report()); // 在断开连接之前统计
+					server.stop();
+				}
+				System.out.println("client: " + client);
+			}
+			return 0;
+		} catch (IOException e) {
+			System.err.println(e.getMessage());
+			return 1;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return 1;
+		}
+	}
+
+	// 重放录像，返回校验失败的录像数量，全部通过时为0
+	// 参数可以是单个录像文件(.replay)、录像库（不含后缀或以.idx结尾）或包含它们的目录，录像库使用所有CPU核心并行校验
+	private static int replay(String[] paths) {
+		List<File> files = new ArrayList<>();
+		for (String path : paths) {
+			File file = new File(path);
+			File[] children = file.listFiles((dir, name) -> name.endsWith(".replay")
+					|| name.endsWith(ReplayCorpus.INDEX_SUFFIX));
+			if (children != null) {
+				Arrays.sort(children);
+				files.addAll(Arrays.asList(children));
+			} else {
+				files.add(file);
+			}
+		}
+		int threads = Runtime.getRuntime().availableProcessors();
+		ReplayRunner runner = new ReplayRunner();
+		long failed = 0;
+		for (File file : files) {
+			String name = file.getPath();
+			try {
+				if (name.endsWith(".replay")) {
+					ReplayRunner.Result result = runner.run(Replay.load(file));
+					if (!result.isMatched()) {
+						failed++;
+					}
+					System.out.println(result + "  " + name);
+					continue;
+				}
+				if (name.endsWith(ReplayCorpus.INDEX_SUFFIX)) {
+					name = name.substring(0, name.length() - ReplayCorpus.INDEX_SUFFIX.length());
+				}
+				try (ReplayCorpus corpus = ReplayCorpus.open(new File(name))) {
+					ReplayRunner.Report report = ReplayRunner.verify(corpus, threads);
+					failed += report.getFailed();
+					for (long i : report.getFailures()) {
+						System.out.println("FAIL #" + i + " seed=" + corpus.getSeed(i) + " score=" + corpus.getScore(i));
+					}
+					System.out.println(report + ", " + threads + " threads  " + name);
+				}
+			} catch (IOException e) {
+				failed++;
+				System.out.println("FAIL " + name + ": " + e.getMessage());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return 1;
+			}
+		}
+		return (int) Math.min(failed, Integer.MAX_VALUE);
+	}
+}
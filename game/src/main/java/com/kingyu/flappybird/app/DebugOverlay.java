@@ -0,0 +1,110 @@
+package com.kingyu.flappybird.app;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics;
+
+import com.kingyu.flappybird.engine.EntityStore;
+import com.kingyu.flappybird.engine.GameEngine;
+import com.kingyu.flappybird.engine.Histogram;
+import com.kingyu.flappybird.engine.PipeCourse;
+import com.kingyu.flappybird.engine.Rect;
+
+/**
+ * 调试信息层，可随时开关，绘制各阶段耗时的p50/p99/max、计数器和所有碰撞矩形
+ * 文字每隔REFRESH_FRAMES帧更新一次，关闭时不产生任何开销
+ *
+ * @author Kingyu
+ */
+public class DebugOverlay {
+    private static final int REFRESH_FRAMES = 15; // 文字的更新间隔
+    private static final Font FONT = new Font(Font.MONOSPACED, Font.PLAIN, 11);
+    private static final Color BACKGROUND = new Color(0, 0, 0, 160);
+    private static final int LINE_HEIGHT = 13;
+    private static final int MARGIN = 4;
+
+    private final GameRenderer renderer;
+    private final GameLoop loop; // 游戏循环，没有时为null
+    private final Histogram inputLatency; // 从按键到画面显示的延迟，没有时为null
+    private final GcMonitor gc;
+
+    private volatile boolean visible;
+    private String[] lines = new String[0];
+    private int frames; // 距离上一次更新文字的帧数
+
+    public DebugOverlay(GameRenderer renderer, GameLoop loop, Histogram inputLatency, GcMonitor gc) {
+        this.renderer = renderer;
+        this.loop = loop;
+        this.inputLatency = inputLatency;
+        this.gc = gc;
+    }
+
+    // 开关调试信息，可在任意线程调用
+    public void toggle() {
+        visible = !visible;
+        frames = REFRESH_FRAMES;
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    public void draw(Graphics g, GameEngine engine) {
+        drawCollisionRects(g, engine);
+        if (++frames >= REFRESH_FRAMES) {
+            lines = format(engine);
+            frames = 0;
+        }
+        g.setFont(FONT);
+        g.setColor(BACKGROUND);
+        g.fillRect(0, 0, 280, lines.length * LINE_HEIGHT + MARGIN * 2);
+        g.setColor(Color.white);
+        for (int i = 0; i < lines.length; i++) {
+            g.drawString(lines[i], MARGIN, MARGIN + (i + 1) * LINE_HEIGHT - 2);
+        }
+    }
+
+    // 绘制小鸟和水管的碰撞矩形
+    private void drawCollisionRects(Graphics g, GameEngine engine) {
+        g.setColor(Color.red);
+        EntityStore pipes = engine.getCourse().getPipes();
+        for (int i = 0; i < pipes.size(); i++) {
+            g.drawRect(pipes.getX(i), pipes.getY(i) + pipes.getDealtY(i), pipes.getWidth(i), pipes.getHeight(i));
+        }
+        Rect bird = engine.getBird().getBirdCollisionRect();
+        g.setColor(Color.yellow);
+        g.drawRect(bird.x, bird.y, bird.width, bird.height);
+    }
+
+    // 调试信息的每一行
+    String[] format(GameEngine engine) {
+        PipeCourse course = engine.getCourse();
+        int stages = course.getStageNanos(0) == null ? 0 : PipeCourse.STAGE_COUNT;
+        String[] out = new String[2 + GameRenderer.LAYER_COUNT + stages + 5];
+        int n = 0;
+        out[n++] = String.format("%-11s %7s %7s %7s", "stage (us)", "p50", "p99", "max");
+        for (int i = 0; i < GameRenderer.LAYER_COUNT; i++) {
+            out[n++] = line(GameRenderer.LAYER_NAMES[i], renderer.getLayerNanos(i), 1000);
+        }
+        for (int i = 0; i < stages; i++) {
+            out[n++] = line(PipeCourse.STAGE_NAMES[i], course.getStageNanos(i), 1000);
+        }
+        out[n++] = inputLatency == null ? "" : line("input (ms)", inputLatency, 1_000_000);
+        EntityStore pipes = course.getPipes();
+        out[n++] = String.format("pipes spawned %d  free %d/%d  hits %d  misses %d", pipes.getSpawned(),
+                pipes.getFree(), pipes.getCapacity(), pipes.getHits(), pipes.getMisses());
+        out[n++] = String.format("gc %d  %d ms  frames with gc %d  max %d ms", gc.getCollections(),
+                gc.getPauseMillis(), gc.getFramesWithGc(), gc.getMaxFrameMillis());
+        out[n++] = String.format("frames %d  skipped %d", renderer.getFrames(), renderer.getSkippedFrames());
+        // 与导出的指标相同，晚执行、丢弃的逻辑帧和错过的画面帧分别计数
+        out[n++] = loop == null ? "" : String.format("ticks %d  late %d  dropped %d  missed frames %d",
+                loop.getTicks(), loop.getLateTicks(), loop.getDroppedTicks(), loop.getMissedFrames());
+        out[n++] = loop == null ? "" : String.format("max jitter %.1f ms", loop.getMaxJitterNanos() / 1e6);
+        return out;
+    }
+
+    private static String line(String name, Histogram h, double unit) {
+        return String.format("%-11s %7.1f %7.1f %7.1f", name, h.getPercentile(50) / unit, h.getPercentile(99) / unit,
+                h.getMax() / unit);
+    }
+}
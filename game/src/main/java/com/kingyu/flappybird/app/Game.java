@@ -0,0 +1,334 @@
+package com.kingyu.flappybird.app;
+
+import com.kingyu.flappybird.component.ScoreCounter;
+import com.kingyu.flappybird.engine.FlightEvents;
+import com.kingyu.flappybird.engine.GameEngine;
+import com.kingyu.flappybird.engine.GameListener;
+import com.kingyu.flappybird.engine.Histogram;
+import com.kingyu.flappybird.engine.InputQueue;
+import com.kingyu.flappybird.engine.ReplayCorpusWriter;
+import com.kingyu.flappybird.engine.ReplayRecorder;
+import com.kingyu.flappybird.engine.ReplayStore;
+import com.kingyu.flappybird.util.MusicUtil;
+
+import static com.kingyu.flappybird.util.Constant.FRAME_HEIGHT;
+import static com.kingyu.flappybird.util.Constant.FRAME_WIDTH;
+import static com.kingyu.flappybird.util.Constant.FRAME_X;
+import static com.kingyu.flappybird.util.Constant.FRAME_Y;
+import static com.kingyu.flappybird.util.Constant.GAME_TITLE;
+import static com.kingyu.flappybird.util.Constant.MAX_CATCH_UP_TICKS;
+import static com.kingyu.flappybird.util.Constant.METRICS_PORT;
+import static com.kingyu.flappybird.util.Constant.RECORD_REPLAYS;
+import static com.kingyu.flappybird.util.Constant.RENDER_RATE;
+import static com.kingyu.flappybird.util.Constant.REPLAY_CORPUS_PATH;
+import static com.kingyu.flappybird.util.Constant.SEED;
+import static com.kingyu.flappybird.util.Constant.TICK_RATE;
+
+import java.awt.Frame;
+import java.awt.Graphics;
+import java.awt.Toolkit;
+import java.awt.event.*;
+import java.awt.image.BufferStrategy;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+
+/**
+ * 游戏主体，管理模拟引擎、游戏的组件和窗口绘制
+ *
+ * @author Kingyu
+ */
+
+public class Game extends Frame {
+    private static final long serialVersionUID = 1L; // 保持版本的兼容性
+
+    // 游戏会话，持有模拟引擎、输入队列和计分器；创建计分器时读取最高纪录和游戏记录，绘制时不再读取文件
+    private final GameContext context = new GameContext(SEED == null ? System.nanoTime() : SEED,
+            ScoreCounter.openDefault());
+    private final GameEngine engine = context.getEngine(); // 模拟引擎，负责游戏逻辑
+    private final InputQueue inputQueue = context.getInputQueue(); // 按键输入，每一帧开始时应用到引擎
+    private final Histogram inputLatency = new Histogram(); // 从按键到画面显示的延迟，单位为纳秒
+    // JFR事件，只由游戏循环线程使用，每一帧复用同一个对象，没有开启录制时不分配内存
+    private final FlightEvents.Tick tickEvent = new FlightEvents.Tick();
+    private final FlightEvents.Frame frameEvent = new FlightEvents.Frame();
+
+    private GameRenderer renderer; // 画面合成器，负责绘制游戏的各个组件
+    private GameLoop gameLoop; // 游戏循环
+    private final GcMonitor gcMonitor = new GcMonitor(); // 统计两帧之间发生的垃圾回收
+    private DebugOverlay overlay; // 调试信息层，按F3开关
+    private ReplayStore replayStore; // 在后台写入录像库，不录制时为null
+    private MetricsServer metricsServer; // 指标服务器，未开启时为null
+    private RenderMode renderMode; // 画面的绘制方式
+
+    // 在构造器中初始化
+    public Game() {
+        this(RenderMode.fromSystemProperty());
+    }
+
+    public Game(RenderMode renderMode) {
+        this.renderMode = renderMode;
+        initFrame(); // 初始化游戏窗口
+        setVisible(true); // 窗口默认为不可见，设置为可见
+        initBufferStrategy(); // 窗口可见后才能创建缓冲区
+        initGame(); // 初始化游戏对象
+    }
+
+    // 初始化游戏窗口
+    private void initFrame() {
+        setSize(FRAME_WIDTH, FRAME_HEIGHT); // 设置窗口大小
+        setTitle(GAME_TITLE); // 设置窗口标题
+        setLocation(FRAME_X, FRAME_Y); // 窗口初始位置
+        setResizable(false); // 设置窗口大小不可变
+        // 添加关闭窗口事件（监听窗口发生的事件，派发给参数对象，参数对象调用对应的方法）
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                System.exit(0); // 结束程序
+            }
+
+            // 窗口恢复显示后画面可能已被擦除，下一帧必须重绘
+            @Override
+            public void windowDeiconified(WindowEvent e) {
+                invalidateRenderer();
+            }
+
+            @Override
+            public void windowActivated(WindowEvent e) {
+                invalidateRenderer();
+            }
+        });
+        addKeyListener(new BirdKeyListener()); // 添加按键监听
+    }
+
+    // 创建双缓冲的BufferStrategy，支持时使用翻页显示，创建失败则使用原先的绘制方式
+    private void initBufferStrategy() {
+        if (renderMode != RenderMode.BUFFER_STRATEGY) {
+            return;
+        }
+        try {
+            createBufferStrategy(2);
+            setIgnoreRepaint(true); // 画面全部由游戏循环绘制
+        } catch (Exception e) {
+            e.printStackTrace();
+            renderMode = RenderMode.BUFFERED_IMAGE;
+        }
+    }
+
+    // 用于接收按键事件的对象的内部类
+    // 按键事件在系统线程中处理，只登记到输入队列，由游戏循环线程在下一帧开始时应用，保证输入在两帧之间生效，录像才能准确重现
+    class BirdKeyListener implements KeyListener {
+        // 按键按下，由引擎根据游戏当前的状态执行不同的操作
+        public void keyPressed(KeyEvent e) {
+            int keycode = e.getKeyCode();
+            if (keycode == KeyEvent.VK_SPACE) {
+                inputQueue.offer(InputQueue.PRESSED, System.nanoTime());
+            } else if (keycode == KeyEvent.VK_F3 && overlay != null) {
+                overlay.toggle();
+                renderer.invalidate(); // 关闭后重绘一次以擦除调试信息
+            }
+        }
+
+        // 按键松开，更改按键状态标志
+        public void keyReleased(KeyEvent e) {
+            int keycode = e.getKeyChar();
+            if (keycode == KeyEvent.VK_SPACE) {
+                inputQueue.offer(InputQueue.RELEASED, System.nanoTime());
+            }
+        }
+
+        public void keyTyped(KeyEvent e) {
+        }
+    }
+
+    // 播放音效的监听器，分数由会话保存
+    class SoundListener implements GameListener {
+        @Override
+        public void onFlap() {
+            MusicUtil.playFly();
+        }
+
+        @Override
+        public void onCrash() {
+            MusicUtil.playCrash();
+        }
+
+        @Override
+        public void onScore(long score) {
+            MusicUtil.playScore();
+        }
+    }
+
+    // 初始化游戏中的各个对象
+    private void initGame() {
+        MusicUtil.init(); // 预先加载音效
+        context.setListener(new SoundListener());
+        if (RECORD_REPLAYS) {
+            try {
+                // 每局游戏的录像由写入线程追加到录像库，游戏结束时不读写文件
+                replayStore = new ReplayStore(new ReplayCorpusWriter(new File(REPLAY_CORPUS_PATH)));
+                engine.setRecorder(new ReplayRecorder(replayStore));
+            } catch (IOException e) { // 录像库无法打开时不录制
+                e.printStackTrace();
+            }
+        }
+        engine.setProfiling(true); // 统计水管赛道各阶段的耗时，供调试信息层显示
+        renderer = new GameRenderer(context.getScoreCounter());
+
+        // 启动游戏循环，按固定频率推进游戏逻辑并绘制画面
+        gameLoop = new GameLoop(this::tick, this::renderFrame, TICK_RATE, RENDER_RATE, MAX_CATCH_UP_TICKS);
+        overlay = new DebugOverlay(renderer, gameLoop, inputLatency, gcMonitor);
+        renderer.setOverlay(overlay);
+        if (METRICS_PORT != null) {
+            try {
+                metricsServer = new MetricsServer(context, renderer, gameLoop);
+                metricsServer.start(METRICS_PORT);
+            } catch (IOException e) { // 端口被占用等情况下不导出指标
+                e.printStackTrace();
+                metricsServer = null;
+            }
+        }
+        gameLoop.start("GameLoop");
+    }
+
+    // 推进一帧游戏逻辑，由游戏循环线程调用，先应用两帧之间登记的输入
+    private void tick() {
+        FlightEvents.Tick event = tickEvent;
+        event.begin();
+        context.tick();
+        event.end();
+        if (event.shouldCommit()) {
+            event.tick = engine.getTicks();
+            event.commit();
+        }
+    }
+
+    // 项目中存在两个线程：系统线程，游戏循环线程：推进游戏逻辑并主动绘制画面。
+    // 系统线程：窗口事件的监听与处理，窗口被遮挡后的重绘
+    // 两个线程会抢夺系统资源，可能会出现一次刷新周期所绘制的内容，并没有在一次刷新周期内完成
+    // （双缓冲）单独定义一张图片，将需要绘制的内容绘制到这张图片，再一次性地将图片绘制到窗口
+    private final BufferedImage bufImg = new BufferedImage(FRAME_WIDTH, FRAME_HEIGHT, BufferedImage.TYPE_4BYTE_ABGR);
+
+    /**
+     * 绘制一帧画面，由游戏循环线程调用
+     * 不再通过repaint()请求重绘，避免多个重绘请求被事件队列合并而丢帧；画面没有变化时跳过这一帧，屏幕保留上一帧的画面
+     */
+    private void renderFrame() {
+        FlightEvents.Frame event = frameEvent;
+        event.begin();
+        gcMonitor.sample(); // 统计上一帧之后发生的垃圾回收，包括跳过的帧
+        boolean skipped = !renderer.isDirty(engine);
+        if (skipped) {
+            renderer.skipFrame();
+        } else {
+            if (renderMode == RenderMode.BUFFER_STRATEGY) {
+                renderToStrategy();
+            } else {
+                renderToImage();
+            }
+            inputQueue.presented(inputLatency, System.nanoTime());
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.frame = renderer.getFrames() + renderer.getSkippedFrames();
+            event.skipped = skipped;
+            event.commit();
+        }
+    }
+
+    // 绘制到BufferStrategy的后台缓冲区，再翻页或复制到屏幕，缓冲区内容丢失时重新绘制
+    private void renderToStrategy() {
+        BufferStrategy strategy = getBufferStrategy();
+        do {
+            do {
+                Graphics g = strategy.getDrawGraphics();
+                try {
+                    renderer.draw(g, engine);
+                } finally {
+                    g.dispose();
+                }
+            } while (strategy.contentsRestored());
+            long start = System.nanoTime();
+            strategy.show();
+            Toolkit.getDefaultToolkit().sync(); // 立即刷新到屏幕
+            renderer.addLayerTime(GameRenderer.LAYER_PRESENT, System.nanoTime() - start);
+        } while (strategy.contentsLost());
+    }
+
+    // 原先的方式：绘制到图片，再将图片绘制到窗口
+    private void renderToImage() {
+        Graphics g = getGraphics();
+        if (g == null) { // 窗口尚未显示
+            return;
+        }
+        try {
+            update(g);
+        } finally {
+            g.dispose();
+        }
+        Toolkit.getDefaultToolkit().sync(); // 立即刷新到屏幕
+    }
+
+    /**
+     * 绘制游戏内容 由游戏循环线程调用，参数g是窗口的画笔
+     */
+    public void update(Graphics g) {
+        Graphics bufG = bufImg.getGraphics(); // 获得图片画笔
+        renderer.draw(bufG, engine); // 使用图片画笔将需要绘制的内容绘制到图片
+        bufG.dispose();
+        long start = System.nanoTime();
+        g.drawImage(bufImg, 0, 0, null); // 一次性将图片绘制到屏幕上
+        renderer.addLayerTime(GameRenderer.LAYER_PRESENT, System.nanoTime() - start);
+    }
+
+    // 窗口被遮挡后由系统调用，只将上一帧的图片重新绘制到窗口；使用BufferStrategy时由下一帧覆盖
+    public void paint(Graphics g) {
+        if (renderMode == RenderMode.BUFFERED_IMAGE) {
+            g.drawImage(bufImg, 0, 0, null);
+        }
+    }
+
+    private void invalidateRenderer() {
+        if (renderer != null) {
+            renderer.invalidate();
+        }
+    }
+
+    public GameRenderer getRenderer() {
+        return renderer;
+    }
+
+    public RenderMode getRenderMode() {
+        return renderMode;
+    }
+
+    public GameLoop getGameLoop() {
+        return gameLoop;
+    }
+
+    public GameContext getContext() {
+        return context;
+    }
+
+    public InputQueue getInputQueue() {
+        return inputQueue;
+    }
+
+    // 从按键到画面显示的延迟的直方图，单位为纳秒
+    public Histogram getInputLatency() {
+        return inputLatency;
+    }
+
+    public GcMonitor getGcMonitor() {
+        return gcMonitor;
+    }
+
+    public DebugOverlay getOverlay() {
+        return overlay;
+    }
+
+    public MetricsServer getMetricsServer() {
+        return metricsServer;
+    }
+
+}
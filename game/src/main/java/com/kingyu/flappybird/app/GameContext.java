@@ -0,0 +1,89 @@
+package com.kingyu.flappybird.app;
+
+import com.kingyu.flappybird.component.ScoreCounter;
+import com.kingyu.flappybird.engine.GameEngine;
+import com.kingyu.flappybird.engine.GameListener;
+import com.kingyu.flappybird.engine.InputQueue;
+import com.kingyu.flappybird.util.Constant;
+
+/**
+ * 一个游戏会话，持有这个会话的全部可变状态：模拟引擎（游戏状态、小鸟、水管赛道和随机数）、输入队列和计分器
+ * 会话之间不共享可变状态，同一进程中的多个会话可以在不同的线程中互不干扰地运行；
+ * 图片、音效等不可变的资源仍由所有会话共用。每个会话只能由一个线程推进
+ *
+ * @author Kingyu
+ */
+public class GameContext {
+    private final GameEngine engine;
+    private final InputQueue inputQueue = new InputQueue(Constant.INPUT_QUEUE_CAPACITY);
+    private final ScoreCounter scoreCounter;
+    private GameListener listener = GameListener.NONE; // 会话之外的监听器，如播放音效
+
+    // 只在内存中记录分数的会话
+    public GameContext(long seed) {
+        this(seed, new ScoreCounter());
+    }
+
+    /**
+     * @param seed         会话的种子，相同的种子和相同的输入得到相同的游戏过程
+     * @param scoreCounter 这个会话的计分器
+     */
+    public GameContext(long seed, ScoreCounter scoreCounter) {
+        this.scoreCounter = scoreCounter;
+        engine = new GameEngine(seed);
+        engine.setListener(new SessionListener());
+    }
+
+    /**
+     * 推进一帧，先应用两帧之间登记的输入，只能由推进这个会话的线程调用
+     */
+    public void tick() {
+        inputQueue.drain(engine);
+        engine.tick();
+    }
+
+    // 将引擎的事件转发给外部的监听器，并在每局结束时记录分数
+    private class SessionListener implements GameListener {
+        @Override
+        public void onFlap() {
+            listener.onFlap();
+        }
+
+        @Override
+        public void onCrash() {
+            listener.onCrash();
+        }
+
+        @Override
+        public void onScore(long score) {
+            listener.onScore(score);
+        }
+
+        @Override
+        public void onGameOver(long score) {
+            scoreCounter.recordRun(score, engine.getGameTicks(), engine.getGameSeed());
+            listener.onGameOver(score);
+        }
+    }
+
+    /**
+     * 设置会话之外的监听器，在推进会话的线程上调用
+     *
+     * @param listener 监听器，为null时不做任何处理
+     */
+    public void setListener(GameListener listener) {
+        this.listener = listener == null ? GameListener.NONE : listener;
+    }
+
+    public GameEngine getEngine() {
+        return engine;
+    }
+
+    public InputQueue getInputQueue() {
+        return inputQueue;
+    }
+
+    public ScoreCounter getScoreCounter() {
+        return scoreCounter;
+    }
+}
@@ -0,0 +1,141 @@
+package com.kingyu.flappybird.app;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 游戏循环，以System.nanoTime()为时钟，按固定的频率推进游戏逻辑，按单独设置的频率绘制画面
+ * 逻辑帧落后时最多连续补帧maxCatchUp次，仍然落后则丢弃剩余的逻辑帧，避免越追越慢；
+ * 错过的截止时间都会被计数，用于衡量繁忙机器上的帧节奏
+ *
+ * @author Kingyu
+ */
+public class GameLoop implements Runnable {
+
+    private final Runnable update; // 推进一帧游戏逻辑
+    private final Runnable render; // 绘制一帧画面
+    private final long tickPeriod; // 逻辑帧的周期，单位为纳秒
+    private final long renderPeriod; // 画面帧的周期，单位为纳秒
+    private final int maxCatchUp; // 每次循环最多补的逻辑帧数
+
+    private volatile boolean running;
+
+    // 统计数据，只由循环线程写入
+    private volatile long ticks; // 已推进的逻辑帧数
+    private volatile long frames; // 已绘制的画面帧数
+    private volatile long lateTicks; // 晚于截止时间执行的逻辑帧数
+    private volatile long droppedTicks; // 超出补帧上限而被丢弃的逻辑帧数
+    private volatile long missedFrames; // 错过截止时间的画面帧数
+    private volatile long maxJitter; // 画面帧相对截止时间的最大延迟，单位为纳秒
+    private volatile long totalJitter; // 画面帧相对截止时间的延迟总和，单位为纳秒
+
+    /**
+     * @param update     推进一帧游戏逻辑
+     * @param render     绘制一帧画面
+     * @param tickRate   每秒的逻辑帧数
+     * @param renderRate 每秒的画面帧数
+     * @param maxCatchUp 落后时每次循环最多补的逻辑帧数，不小于1
+     */
+    public GameLoop(Runnable update, Runnable render, int tickRate, int renderRate, int maxCatchUp) {
+        if (tickRate <= 0 || renderRate <= 0 || maxCatchUp <= 0) {
+            throw new IllegalArgumentException("传入了非法的参数");
+        }
+        this.update = update;
+        this.render = render;
+        this.tickPeriod = TimeUnit.SECONDS.toNanos(1) / tickRate;
+        this.renderPeriod = TimeUnit.SECONDS.toNanos(1) / renderRate;
+        this.maxCatchUp = maxCatchUp;
+    }
+
+    // 在新线程中启动游戏循环
+    public Thread start(String name) {
+        running = true;
+        Thread thread = new Thread(this, name);
+        thread.start();
+        return thread;
+    }
+
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public void run() {
+        running = true;
+        long nextTick = System.nanoTime();
+        long nextRender = nextTick;
+        while (running) {
+            long now = System.nanoTime();
+
+            // 推进逻辑帧，落后时补帧，最多补maxCatchUp帧
+            int steps = 0;
+            while (now - nextTick >= 0 && steps < maxCatchUp) {
+                if (now - nextTick >= tickPeriod) {
+                    lateTicks++;
+                }
+                update.run();
+                ticks++;
+                steps++;
+                nextTick += tickPeriod;
+            }
+            if (now - nextTick >= 0) {
+                // 补帧后仍然落后，丢弃剩余的逻辑帧，从当前时间重新开始计时
+                droppedTicks += (now - nextTick) / tickPeriod + 1;
+                nextTick = now + tickPeriod;
+            }
+
+            // 绘制画面帧，错过的画面帧不补绘
+            if (now - nextRender >= 0) {
+                long jitter = now - nextRender;
+                totalJitter += jitter;
+                if (jitter > maxJitter) {
+                    maxJitter = jitter;
+                }
+                render.run();
+                frames++;
+                nextRender += renderPeriod;
+                long after = System.nanoTime();
+                if (after - nextRender >= 0) {
+                    missedFrames += (after - nextRender) / renderPeriod + 1;
+                    nextRender = after + renderPeriod - (after - nextRender) % renderPeriod;
+                }
+            }
+
+            // 睡眠至下一个截止时间
+            long wait = Math.min(nextTick, nextRender) - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(this, wait);
+            }
+        }
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public long getFrames() {
+        return frames;
+    }
+
+    public long getLateTicks() {
+        return lateTicks;
+    }
+
+    public long getDroppedTicks() {
+        return droppedTicks;
+    }
+
+    public long getMissedFrames() {
+        return missedFrames;
+    }
+
+    public long getMaxJitterNanos() {
+        return maxJitter;
+    }
+
+    // 画面帧相对截止时间的平均延迟，单位为纳秒
+    public long getAverageJitterNanos() {
+        long frames = this.frames;
+        return frames == 0 ? 0 : totalJitter / frames;
+    }
+}
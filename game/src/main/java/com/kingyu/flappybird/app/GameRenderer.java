@@ -0,0 +1,192 @@
+package com.kingyu.flappybird.app;
+
+import java.awt.Graphics;
+
+import com.kingyu.flappybird.component.Bird;
+import com.kingyu.flappybird.component.GameBackground;
+import com.kingyu.flappybird.component.GameElementLayer;
+import com.kingyu.flappybird.component.GameForeground;
+import com.kingyu.flappybird.component.GameOverAnimation;
+import com.kingyu.flappybird.component.ScoreCounter;
+import com.kingyu.flappybird.component.WelcomeAnimation;
+import com.kingyu.flappybird.engine.BirdModel;
+import com.kingyu.flappybird.engine.GameEngine;
+import com.kingyu.flappybird.engine.Histogram;
+
+/**
+ * 画面合成器，管理游戏的各个组件，按层次将模拟引擎的状态绘制到画笔上
+ * 不依赖窗口，可以绘制到离屏图片中；同时以直方图统计每一层的绘制耗时，记录时不产生对象
+ * 每一层记录决定其画面的状态，所有层的状态与上一次绘制时相同时，isDirty()返回false，可以跳过这一帧的绘制
+ *
+ * @author Kingyu
+ */
+public class GameRenderer {
+
+    // 各层的编号，用于统计绘制耗时
+    public static final int LAYER_BACKGROUND = 0; // 背景层
+    public static final int LAYER_FOREGROUND = 1; // 前景层
+    public static final int LAYER_WELCOME = 2; // 启动界面
+    public static final int LAYER_ELEMENT = 3; // 游戏元素层
+    public static final int LAYER_BIRD = 4; // 小鸟和分数
+    public static final int LAYER_PRESENT = 5; // 将画面显示到屏幕，由绘制画面的一方统计
+    public static final int LAYER_COUNT = 6;
+    public static final String[] LAYER_NAMES = { "background", "foreground", "welcome", "element", "bird",
+            "present" };
+
+    private final Histogram[] layerNanos = new Histogram[LAYER_COUNT]; // 各层的绘制耗时，单位为纳秒
+    private DebugOverlay overlay; // 调试信息层，没有时为null
+    private long frames; // 已绘制的帧数
+    private long skippedFrames; // 因画面没有变化而跳过的帧数
+
+    // 决定各层画面的状态，与上一次绘制时的状态比较，判断画面是否需要重绘
+    private static final int KEY_LAYER_X = 0; // 背景层的坐标
+    private static final int KEY_CLOUDS = 1; // 前景层的版本
+    private static final int KEY_GAME_STATE = 2; // 游戏状态
+    private static final int KEY_ELEMENT = 3; // 启动界面的闪烁状态或水管的帧数
+    private static final int KEY_BIRD_Y = 4; // 小鸟的y坐标
+    private static final int KEY_BIRD_IMAGE = 5; // 小鸟的图片
+    private static final int KEY_SCORE = 6; // 当前分数
+    private static final int KEY_OVER = 7; // 结束界面的闪烁状态和最高分数
+    private static final int KEY_COUNT = 8;
+    private final long[] keys = new long[KEY_COUNT];
+    private final long[] drawnKeys = new long[KEY_COUNT]; // 上一次绘制时的状态
+    private volatile boolean invalid = true; // 画面已失效，必须重绘，可由其他线程设置
+
+    private final GameBackground background; // 游戏背景对象
+    private final GameForeground foreground; // 游戏前景对象
+    private final Bird bird; // 小鸟对象
+    private final GameElementLayer gameElement; // 游戏元素对象
+    private final WelcomeAnimation welcomeAnimation; // 游戏未开始时对象
+
+    private final ScoreCounter scoreCounter; // 结束界面显示的最高纪录所属的计分器
+
+    // 使用只在内存中记录的计分器，用于基准测试等不保存分数的场合
+    public GameRenderer() {
+        this(new ScoreCounter());
+    }
+
+    public GameRenderer(ScoreCounter scoreCounter) {
+        this.scoreCounter = scoreCounter;
+        background = new GameBackground();
+        gameElement = new GameElementLayer();
+        foreground = new GameForeground();
+        welcomeAnimation = new WelcomeAnimation();
+        bird = new Bird(scoreCounter);
+        for (int i = 0; i < LAYER_COUNT; i++) {
+            layerNanos[i] = new Histogram();
+        }
+    }
+
+    /**
+     * 判断画面与上一次绘制时相比是否有变化，同时推进前景层的云朵
+     *
+     * @return 需要重绘返回true，否则返回false
+     */
+    public boolean isDirty(GameEngine engine) {
+        foreground.update(engine);
+        computeKeys(engine);
+        for (int i = 0; i < KEY_COUNT; i++) {
+            if (keys[i] != drawnKeys[i]) {
+                return true;
+            }
+        }
+        return invalid || overlay != null && overlay.isVisible(); // 显示调试信息时每一帧都重绘
+    }
+
+    // 使画面失效，下一帧必须重绘，如窗口被遮挡后恢复
+    public void invalidate() {
+        invalid = true;
+    }
+
+    // 记录一次跳过的绘制
+    public void skipFrame() {
+        skippedFrames++;
+    }
+
+    // 计算决定各层画面的状态
+    private void computeKeys(GameEngine engine) {
+        BirdModel bird = engine.getBird();
+        int state = engine.getGameState();
+        long ticks = engine.getTicks();
+        keys[KEY_LAYER_X] = background.version(engine);
+        keys[KEY_CLOUDS] = foreground.version();
+        keys[KEY_GAME_STATE] = state;
+        if (state == GameEngine.GAME_READY) {
+            keys[KEY_ELEMENT] = WelcomeAnimation.isNoticeVisible(ticks) ? 1 : 0;
+        } else {
+            keys[KEY_ELEMENT] = bird.isDead() ? -1 : ticks; // 鸟死后水管停止移动
+        }
+        keys[KEY_BIRD_Y] = bird.getBirdY();
+        keys[KEY_BIRD_IMAGE] = bird.getVelocity() > 0 ? -1
+                : (long) bird.getState() * Bird.IMG_COUNT + bird.getWingState() / 10 % Bird.IMG_COUNT;
+        keys[KEY_SCORE] = engine.getCurrentScore();
+        keys[KEY_OVER] = bird.getState() == BirdModel.BIRD_DEAD
+                ? scoreCounter.getBestScore() << 1 | (GameOverAnimation.isAgainVisible(ticks) ? 1 : 0)
+                : -1;
+    }
+
+    // 将一帧画面绘制到画笔上
+    public void draw(Graphics g, GameEngine engine) {
+        foreground.update(engine);
+        computeKeys(engine);
+        System.arraycopy(keys, 0, drawnKeys, 0, KEY_COUNT);
+        invalid = false;
+
+        long start = System.nanoTime();
+        background.draw(g, engine); // 背景层
+        long end = System.nanoTime();
+        layerNanos[LAYER_BACKGROUND].record(end - start);
+
+        start = end;
+        foreground.draw(g, engine); // 前景层
+        end = System.nanoTime();
+        layerNanos[LAYER_FOREGROUND].record(end - start);
+
+        start = end;
+        if (engine.getGameState() == GameEngine.GAME_READY) { // 游戏未开始
+            welcomeAnimation.draw(g, engine.getTicks());
+            end = System.nanoTime();
+            layerNanos[LAYER_WELCOME].record(end - start);
+        } else { // 游戏结束
+            gameElement.draw(g, engine); // 游戏元素层
+            end = System.nanoTime();
+            layerNanos[LAYER_ELEMENT].record(end - start);
+        }
+
+        start = end;
+        bird.draw(g, engine);
+        layerNanos[LAYER_BIRD].record(System.nanoTime() - start);
+        frames++;
+
+        if (overlay != null && overlay.isVisible()) {
+            overlay.draw(g, engine);
+        }
+    }
+
+    // 记录某一层的绘制耗时，用于统计在draw()之外完成的工作，如将画面显示到屏幕
+    public void addLayerTime(int layer, long nanos) {
+        layerNanos[layer].record(nanos);
+    }
+
+    // 某一层的绘制耗时的直方图，单位为纳秒
+    public Histogram getLayerNanos(int layer) {
+        return layerNanos[layer];
+    }
+
+    // 某一层平均每帧的绘制耗时，单位为纳秒
+    public long getAverageLayerNanos(int layer) {
+        return (long) layerNanos[layer].getMean();
+    }
+
+    public void setOverlay(DebugOverlay overlay) {
+        this.overlay = overlay;
+    }
+
+    public long getFrames() {
+        return frames;
+    }
+
+    public long getSkippedFrames() {
+        return skippedFrames;
+    }
+}
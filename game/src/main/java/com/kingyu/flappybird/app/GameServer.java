@@ -0,0 +1,562 @@
+package com.kingyu.flappybird.app;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.kingyu.flappybird.component.ScoreCounter;
+import com.kingyu.flappybird.engine.BirdModel;
+import com.kingyu.flappybird.engine.EntityStore;
+import com.kingyu.flappybird.engine.GameEngine;
+import com.kingyu.flappybird.engine.GameRandom;
+import com.kingyu.flappybird.engine.Histogram;
+import com.kingyu.flappybird.engine.InputQueue;
+import com.kingyu.flappybird.engine.Rect;
+import com.kingyu.flappybird.util.Constant;
+
+/**
+ * 多会话游戏服务器，在本机回环地址上以NIO提供大量互相独立的无窗口游戏会话，每个TCP连接对应一个会话（GameContext）
+ * 会话平均分配到若干个分片，每个分片由一个线程以自己的Selector处理所属连接的读写，并按TICK_RATE推进所有会话，
+ * 会话的输入、推进和状态发布都在同一线程中完成，分片之间不共享可变状态，不需要加锁。
+ * <p>
+ * 协议（大端序）：连接后服务器发送HELLO（魔数、版本、会话编号、种子，共24字节）；
+ * 客户端每个字节是一个输入：INPUT_PRESSED按下振翅键，INPUT_RELEASED松开，其他值断开连接；
+ * 服务器每推进一帧发送一个状态（STATE_SIZE字节）：帧序号、分数、游戏状态、小鸟的y坐标、碰撞矩形的下沿、速度，
+ * 以及小鸟前方第一对水管的x坐标、空隙的上沿和下沿。客户端来不及接收时丢弃新的状态，只保留未发送完的状态
+ *
+ * @author Kingyu
+ */
+public class GameServer {
+    public static final int DEFAULT_PORT = 7070;
+    public static final int MAGIC = 0x46425356; // "FBSV"
+    public static final int VERSION = 1;
+    public static final int HELLO_SIZE = 24;
+    public static final int STATE_SIZE = 44;
+    public static final byte INPUT_PRESSED = 0;
+    public static final byte INPUT_RELEASED = 1;
+
+    private static final int OUT_BUFFER_SIZE = HELLO_SIZE + STATE_SIZE * 4; // 每个会话的发送缓冲区
+    private static final int MAX_CATCH_UP = 5; // 落后超过这么多帧时放弃补帧
+    private static final long SNAPSHOT_TIMEOUT = 1000; // 等待分片复制统计数据的最长时间，单位为毫秒
+
+    private final int shardCount;
+    private final long tickPeriod = TimeUnit.SECONDS.toNanos(1) / Constant.TICK_RATE;
+    private final GameRandom seeds; // 为每个会话生成种子，只由接受连接的线程使用
+    private final AtomicLong nextSessionId = new AtomicLong();
+
+    private ServerSocketChannel serverChannel;
+    private Selector acceptSelector;
+    private Shard[] shards;
+    private volatile boolean running;
+    private int port = -1;
+
+    // 上一次report()时的累计值，用于计算这段时间内的速率
+    private long lastReportNanos;
+    private long lastSessionTicks;
+    private long lastBusyNanos;
+
+    /**
+     * @param shardCount 分片数量，即推进会话的线程数，一般为CPU核心数
+     * @param seed       服务器的种子，连接顺序相同时每个会话的种子相同
+     */
+    public GameServer(int shardCount, long seed) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("传入了非法的参数");
+        }
+        this.shardCount = shardCount;
+        this.seeds = new GameRandom(seed);
+    }
+
+    /**
+     * 在本机回环地址上启动服务器
+     *
+     * @param port 端口，为0时由系统分配，见getPort()
+     */
+    public synchronized void start(int port) throws IOException {
+        if (running) {
+            return;
+        }
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        serverChannel.configureBlocking(false);
+        acceptSelector = Selector.open();
+        serverChannel.register(acceptSelector, SelectionKey.OP_ACCEPT);
+        this.port = ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+        shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard();
+        }
+        running = true;
+        lastReportNanos = System.nanoTime();
+        for (int i = 0; i < shardCount; i++) {
+            Thread thread = new Thread(shards[i], "GameServerShard-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        Thread acceptor = new Thread(this::acceptLoop, "GameServerAcceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        acceptSelector.wakeup();
+        for (Shard shard : shards) {
+            shard.selector.wakeup();
+        }
+    }
+
+    // 实际绑定的端口，未启动时返回-1
+    public synchronized int getPort() {
+        return port;
+    }
+
+    // 接受连接，按顺序分配到各个分片
+    private void acceptLoop() {
+        int next = 0;
+        try {
+            while (running) {
+                acceptSelector.select();
+                acceptSelector.selectedKeys().clear();
+                SocketChannel channel;
+                while ((channel = serverChannel.accept()) != null) {
+                    channel.configureBlocking(false);
+                    channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                    shards[next].add(new Session(nextSessionId.getAndIncrement(), seeds.nextLong(), channel));
+                    next = (next + 1) % shardCount;
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            close(serverChannel);
+            close(acceptSelector);
+        }
+    }
+
+    private static void close(java.io.Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * 服务器的统计数据。耗时的分布和最慢的会话由各分片线程复制后交给调用者，计数器直接读取，各分片之间不保证一致
+     * 帧率和忙碌的核心数按与上一次调用之间的时间计算，耗时的分布和其他计数从启动开始累计
+     */
+    public synchronized Report report() throws InterruptedException {
+        List<CompletableFuture<Snapshot>> requests = new ArrayList<>(shardCount);
+        for (Shard shard : shards) {
+            requests.add(shard.requestSnapshot());
+        }
+        Histogram tickNanos = new Histogram();
+        Histogram lagNanos = new Histogram();
+        long sessions = 0, ticks = 0, busy = 0, lateTicks = 0, droppedStates = 0, closed = 0;
+        long slowestId = -1, slowestNanos = 0;
+        for (int i = 0; i < shardCount; i++) {
+            Shard shard = shards[i];
+            Snapshot snapshot;
+            try {
+                snapshot = requests.get(i).get(SNAPSHOT_TIMEOUT, TimeUnit.MILLISECONDS);
+            } catch (ExecutionException | TimeoutException e) { // 分片已停止或过于繁忙，不计入它的耗时分布
+                snapshot = null;
+            }
+            if (snapshot != null) {
+                tickNanos.add(snapshot.tickNanos);
+                lagNanos.add(snapshot.lagNanos);
+                if (snapshot.slowestNanos > slowestNanos) {
+                    slowestId = snapshot.slowestId;
+                    slowestNanos = snapshot.slowestNanos;
+                }
+            }
+            sessions += shard.sessionCount;
+            ticks += shard.sessionTicks;
+            busy += shard.busyNanos;
+            lateTicks += shard.lateTicks;
+            droppedStates += shard.droppedStates;
+            closed += shard.closedSessions;
+        }
+        long now = System.nanoTime();
+        Report report = new Report(sessions, shardCount, now - lastReportNanos, ticks - lastSessionTicks,
+                busy - lastBusyNanos, lateTicks, droppedStates, closed, tickNanos, lagNanos, slowestId, slowestNanos);
+        lastReportNanos = now;
+        lastSessionTicks = ticks;
+        lastBusyNanos = busy;
+        return report;
+    }
+
+    // 分片线程复制的耗时分布和最慢的会话
+    private static class Snapshot {
+        final Histogram tickNanos = new Histogram();
+        final Histogram lagNanos = new Histogram();
+        long slowestId = -1;
+        long slowestNanos;
+    }
+
+    // 一个会话：游戏会话、连接和发送缓冲区，只由所属分片的线程访问
+    private static class Session {
+        final long id;
+        final long seed;
+        final GameContext context;
+        final SocketChannel channel;
+        final ByteBuffer out = ByteBuffer.allocate(OUT_BUFFER_SIZE); // 读模式，剩余的字节等待发送
+        SelectionKey key;
+
+        Session(long id, long seed, SocketChannel channel) {
+            this.id = id;
+            this.seed = seed;
+            this.channel = channel;
+            context = new GameContext(seed, ScoreCounter.withoutHistory()); // 服务器只需要最高分数
+            out.putInt(MAGIC).putInt(VERSION).putLong(id).putLong(seed);
+            out.flip();
+        }
+    }
+
+    // 分片：一个线程处理一组会话的读写并推进它们
+    private class Shard implements Runnable {
+        final Selector selector;
+        final ConcurrentLinkedQueue<Session> incoming = new ConcurrentLinkedQueue<>();
+        final List<Session> sessions = new ArrayList<>();
+        final ByteBuffer in = ByteBuffer.allocate(4096);
+
+        final ConcurrentLinkedQueue<CompletableFuture<Snapshot>> snapshotRequests = new ConcurrentLinkedQueue<>();
+
+        // 耗时的分布和最慢的会话只由分片线程读写，其他线程通过requestSnapshot()获取副本
+        final Histogram tickNanos = new Histogram(); // 每个会话推进一帧并发布状态的耗时
+        final Histogram lagNanos = new Histogram(); // 每一帧相对截止时间的延迟
+        // 单帧耗时最大的会话只保存编号，会话关闭后不会因此留在内存中
+        long slowestId = -1;
+        long slowestNanos;
+
+        // 计数器，只由分片线程写入，其他线程读取的是近似的结果
+        volatile int sessionCount;
+        volatile long sessionTicks; // 所有会话推进的帧数之和
+        volatile long busyNanos; // 没有等待Selector的时间
+        volatile long lateTicks; // 放弃补帧的次数
+        volatile long droppedStates; // 客户端来不及接收而丢弃的状态数
+        volatile long closedSessions;
+
+        Shard() throws IOException {
+            selector = Selector.open();
+        }
+
+        void add(Session session) {
+            incoming.add(session);
+            selector.wakeup();
+        }
+
+        // 请求分片线程在下一次循环时复制统计数据
+        CompletableFuture<Snapshot> requestSnapshot() {
+            CompletableFuture<Snapshot> request = new CompletableFuture<>();
+            snapshotRequests.add(request);
+            selector.wakeup();
+            if (!running) { // 分片线程可能已经退出，不会再处理请求
+                request.completeExceptionally(new IllegalStateException("服务器已停止"));
+            }
+            return request;
+        }
+
+        // 在分片线程上复制统计数据，交给等待的report()
+        private void answerSnapshots() {
+            CompletableFuture<Snapshot> request;
+            while ((request = snapshotRequests.poll()) != null) {
+                Snapshot snapshot = new Snapshot();
+                snapshot.tickNanos.add(tickNanos);
+                snapshot.lagNanos.add(lagNanos);
+                snapshot.slowestId = slowestId;
+                snapshot.slowestNanos = slowestNanos;
+                request.complete(snapshot);
+            }
+        }
+
+        @Override
+        public void run() {
+            long nextTick = System.nanoTime() + tickPeriod;
+            try {
+                while (running) {
+                    long wait = nextTick - System.nanoTime();
+                    if (wait > 0) {
+                        selector.select(Math.max(1, TimeUnit.NANOSECONDS.toMillis(wait)));
+                    } else {
+                        selector.selectNow();
+                    }
+                    long start = System.nanoTime();
+                    register();
+                    handleKeys();
+                    answerSnapshots();
+                    long now = System.nanoTime();
+                    if (now - nextTick >= 0) {
+                        tickAll(now - nextTick);
+                        nextTick += tickPeriod;
+                        if (now - nextTick > tickPeriod * MAX_CATCH_UP) { // 落后太多，从现在重新开始计时
+                            nextTick = now + tickPeriod;
+                            lateTicks++;
+                        }
+                    }
+                    busyNanos += System.nanoTime() - start;
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            } finally {
+                CompletableFuture<Snapshot> request;
+                while ((request = snapshotRequests.poll()) != null) {
+                    request.completeExceptionally(new IllegalStateException("服务器已停止"));
+                }
+                for (Session session : sessions) {
+                    close(session.channel);
+                }
+                close(selector);
+            }
+        }
+
+        // 注册新分配的会话，并发送HELLO
+        private void register() {
+            Session session;
+            while ((session = incoming.poll()) != null) {
+                try {
+                    session.key = session.channel.register(selector, SelectionKey.OP_READ, session);
+                    sessions.add(session);
+                    sessionCount = sessions.size();
+                    flush(session);
+                } catch (IOException e) {
+                    close(session.channel);
+                }
+            }
+        }
+
+        private void handleKeys() {
+            Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+            while (it.hasNext()) {
+                SelectionKey key = it.next();
+                it.remove();
+                Session session = (Session) key.attachment();
+                if (!key.isValid()) {
+                    continue;
+                }
+                try {
+                    if (key.isReadable()) {
+                        read(session);
+                    }
+                    if (key.isValid() && key.isWritable()) {
+                        flush(session);
+                    }
+                } catch (IOException e) {
+                    key.cancel();
+                }
+            }
+        }
+
+        // 读取输入，登记到会话的输入队列，在下一帧开始时生效
+        private void read(Session session) throws IOException {
+            while (true) {
+                in.clear();
+                int n = session.channel.read(in);
+                if (n < 0) {
+                    session.key.cancel();
+                    return;
+                }
+                if (n == 0) {
+                    return;
+                }
+                long now = System.nanoTime();
+                InputQueue queue = session.context.getInputQueue();
+                for (int i = 0; i < n; i++) {
+                    byte b = in.get(i);
+                    if (b == INPUT_PRESSED) {
+                        queue.offer(InputQueue.PRESSED, now);
+                    } else if (b == INPUT_RELEASED) {
+                        queue.offer(InputQueue.RELEASED, now);
+                    } else { // 协议错误
+                        session.key.cancel();
+                        return;
+                    }
+                }
+            }
+        }
+
+        // 推进所有会话一帧并发布状态，同时移除已断开的会话
+        private void tickAll(long lag) {
+            lagNanos.record(lag);
+            int count = 0;
+            for (int i = 0; i < sessions.size(); i++) {
+                Session session = sessions.get(i);
+                if (!session.key.isValid()) {
+                    close(session.channel);
+                    sessions.set(i, sessions.get(sessions.size() - 1));
+                    sessions.remove(sessions.size() - 1);
+                    sessionCount = sessions.size();
+                    closedSessions++;
+                    i--;
+                    continue;
+                }
+                long start = System.nanoTime();
+                session.context.tick();
+                publish(session);
+                long nanos = System.nanoTime() - start;
+                tickNanos.record(nanos);
+                if (nanos > slowestNanos) {
+                    slowestId = session.id;
+                    slowestNanos = nanos;
+                }
+                count++;
+            }
+            sessionTicks += count;
+        }
+
+        // 将会话的状态写入发送缓冲区并发送，上一次的数据尚未发送完时丢弃这一帧的状态
+        private void publish(Session session) {
+            ByteBuffer out = session.out;
+            if (out.hasRemaining()) {
+                droppedStates++;
+                return;
+            }
+            out.clear();
+            writeState(session.context.getEngine(), out);
+            out.flip();
+            try {
+                flush(session);
+            } catch (IOException e) {
+                session.key.cancel();
+            }
+        }
+
+        // 发送缓冲区中剩余的数据，发送不完时等待可写
+        private void flush(Session session) throws IOException {
+            session.channel.write(session.out);
+            int ops = session.out.hasRemaining() ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ;
+            if (session.key.interestOps() != ops) {
+                session.key.interestOps(ops);
+            }
+        }
+    }
+
+    // 写入一个状态
+    static void writeState(GameEngine engine, ByteBuffer out) {
+        BirdModel bird = engine.getBird();
+        Rect rect = bird.getBirdCollisionRect();
+        int pipeX = Constant.FRAME_WIDTH;
+        int gapTop = 0;
+        int gapBottom = BirdModel.BOTTOM_BOUNDARY - Constant.FRAME_HEIGHT / 4; // 与Autopilot相同
+        EntityStore pipes = engine.getCourse().getPipes();
+        // 水管成对出现，找到小鸟前方的第一对水管
+        for (int i = 0; i + 1 < pipes.size(); i += 2) {
+            if (pipes.getX(i + 1) + pipes.getWidth(i + 1) >= rect.x) {
+                pipeX = pipes.getX(i);
+                gapTop = pipes.getY(i) + pipes.getDealtY(i) + pipes.getHeight(i);
+                gapBottom = pipes.getY(i + 1) + pipes.getDealtY(i + 1);
+                break;
+            }
+        }
+        out.putLong(engine.getTicks()).putLong(engine.getCurrentScore()).putInt(engine.getGameState())
+                .putInt(bird.getBirdY()).putInt(rect.y + rect.height).putInt(bird.getVelocity())
+                .putInt(pipeX).putInt(gapTop).putInt(gapBottom);
+    }
+
+    /**
+     * 服务器的统计报告
+     */
+    public static class Report {
+        private final long sessions;
+        private final int shards;
+        private final long elapsedNanos;
+        private final long sessionTicks;
+        private final long busyNanos;
+        private final long lateTicks;
+        private final long droppedStates;
+        private final long closedSessions;
+        private final Histogram tickNanos;
+        private final Histogram lagNanos;
+        private final long slowestSession;
+        private final long slowestNanos;
+
+        Report(long sessions, int shards, long elapsedNanos, long sessionTicks, long busyNanos, long lateTicks,
+               long droppedStates, long closedSessions, Histogram tickNanos, Histogram lagNanos,
+               long slowestSession, long slowestNanos) {
+            this.sessions = sessions;
+            this.shards = shards;
+            this.elapsedNanos = elapsedNanos;
+            this.sessionTicks = sessionTicks;
+            this.busyNanos = busyNanos;
+            this.lateTicks = lateTicks;
+            this.droppedStates = droppedStates;
+            this.closedSessions = closedSessions;
+            this.tickNanos = tickNanos;
+            this.lagNanos = lagNanos;
+            this.slowestSession = slowestSession;
+            this.slowestNanos = slowestNanos;
+        }
+
+        public long getSessions() {
+            return sessions;
+        }
+
+        public long getSessionTicks() {
+            return sessionTicks;
+        }
+
+        // 从启动开始因断开连接或协议错误而关闭的会话数
+        public long getClosedSessions() {
+            return closedSessions;
+        }
+
+        // 每个会话推进一帧并发布状态的耗时，单位为纳秒
+        public Histogram getTickNanos() {
+            return tickNanos;
+        }
+
+        // 每一帧相对截止时间的延迟，单位为纳秒
+        public Histogram getLagNanos() {
+            return lagNanos;
+        }
+
+        // 单帧耗时最大的会话的编号，会话可能已经关闭；还没有推进过会话时为-1
+        public long getSlowestSession() {
+            return slowestSession;
+        }
+
+        public long getSlowestNanos() {
+            return slowestNanos;
+        }
+
+        // 这段时间内分片线程忙碌的时间占用的CPU核心数
+        public double getBusyCores() {
+            return elapsedNanos == 0 ? 0 : (double) busyNanos / elapsedNanos;
+        }
+
+        // 按实测的开销，一个CPU核心能以TICK_RATE推进的会话数
+        public double getSessionsPerCore() {
+            double busyCores = getBusyCores();
+            return busyCores == 0 ? 0 : sessions / busyCores;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("sessions=%d shards=%d ticks/s=%.0f  tick p50=%.1f us p99=%.1f us max=%.1f us"
+                            + " (slowest session #%d %.1f us)  lag p99=%.2f ms late=%d  dropped states=%d closed=%d"
+                            + "  busy cores=%.2f sessions/core=%.0f",
+                    sessions, shards, elapsedNanos == 0 ? 0 : sessionTicks * 1e9 / elapsedNanos,
+                    tickNanos.getPercentile(50) / 1e3, tickNanos.getPercentile(99) / 1e3, tickNanos.getMax() / 1e3,
+                    slowestSession, slowestNanos / 1e3, lagNanos.getPercentile(99) / 1e6, lateTicks, droppedStates,
+                    closedSessions, getBusyCores(), getSessionsPerCore());
+        }
+    }
+}
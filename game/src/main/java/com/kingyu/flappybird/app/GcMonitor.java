@@ -0,0 +1,69 @@
+package com.kingyu.flappybird.app;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+/**
+ * 垃圾回收监视器，在每一帧调用sample()，统计两帧之间发生的垃圾回收
+ * 只能在一个线程中调用sample()，其他线程读取的是近似的结果
+ *
+ * @author Kingyu
+ */
+public class GcMonitor {
+    private final GarbageCollectorMXBean[] collectors;
+    private long lastCount; // 上一次采样时所有回收器的回收次数之和
+    private long lastMillis; // 上一次采样时所有回收器的回收耗时之和，单位为毫秒
+
+    private volatile long collections; // 开始监视后的回收次数
+    private volatile long pauseMillis; // 开始监视后的回收耗时，单位为毫秒
+    private volatile long framesWithGc; // 发生了回收的帧数
+    private volatile long maxFrameMillis; // 一帧内回收耗时的最大值，单位为毫秒
+
+    public GcMonitor() {
+        List<GarbageCollectorMXBean> beans = ManagementFactory.getGarbageCollectorMXBeans();
+        collectors = beans.toArray(new GarbageCollectorMXBean[0]);
+        sample();
+        collections = 0;
+        pauseMillis = 0;
+        framesWithGc = 0;
+        maxFrameMillis = 0;
+    }
+
+    // 采样，统计与上一次采样之间发生的回收
+    public void sample() {
+        long count = 0;
+        long millis = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            count += Math.max(collector.getCollectionCount(), 0);
+            millis += Math.max(collector.getCollectionTime(), 0);
+        }
+        if (count != lastCount) {
+            long frameMillis = millis - lastMillis;
+            collections += count - lastCount;
+            pauseMillis += frameMillis;
+            framesWithGc++;
+            if (frameMillis > maxFrameMillis) {
+                maxFrameMillis = frameMillis;
+            }
+        }
+        lastCount = count;
+        lastMillis = millis;
+    }
+
+    public long getCollections() {
+        return collections;
+    }
+
+    public long getPauseMillis() {
+        return pauseMillis;
+    }
+
+    public long getFramesWithGc() {
+        return framesWithGc;
+    }
+
+    public long getMaxFrameMillis() {
+        return maxFrameMillis;
+    }
+}
@@ -0,0 +1,178 @@
+package com.kingyu.flappybird.app;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import com.kingyu.flappybird.engine.Autopilot;
+import com.kingyu.flappybird.engine.GameEngine;
+
+/**
+ * 游戏服务器的压力测试客户端，在一个线程中通过本机回环地址打开大量连接，每个连接由与Autopilot相同策略的机器人操作
+ *
+ * @author Kingyu
+ */
+public class LoadClient implements Closeable {
+    private final int port;
+    private final int sessions;
+    private Selector selector;
+
+    // 统计数据，只由客户端线程写入
+    private long states; // 收到的状态数
+    private long inputs; // 发送的输入数
+    private long games; // 结束的局数
+    private long bestScore;
+    private int connected;
+    private int disconnected;
+
+    /**
+     * @param port     服务器在本机回环地址上的端口
+     * @param sessions 连接数
+     */
+    public LoadClient(int port, int sessions) {
+        if (sessions <= 0) {
+            throw new IllegalArgumentException("传入了非法的参数");
+        }
+        this.port = port;
+        this.sessions = sessions;
+    }
+
+    // 一个连接的接收缓冲区和机器人的状态
+    private static class Connection {
+        final SocketChannel channel;
+        final ByteBuffer in = ByteBuffer.allocate(GameServer.HELLO_SIZE + GameServer.STATE_SIZE * 64);
+        final ByteBuffer out = ByteBuffer.allocate(2);
+        boolean greeted; // 是否已收到HELLO
+        int lastState = -1;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    /**
+     * 建立所有连接并运行指定的时间，结束后连接保持打开，直到调用close()
+     *
+     * @param seconds 运行的秒数
+     */
+    public void run(int seconds) throws IOException {
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+        if (selector == null) {
+            selector = Selector.open();
+            for (int i = 0; i < sessions; i++) {
+                SocketChannel channel = SocketChannel.open(address); // 阻塞地连接，回环地址上很快完成
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                channel.configureBlocking(false);
+                channel.register(selector, SelectionKey.OP_READ, new Connection(channel));
+                connected++;
+            }
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        while (System.nanoTime() - deadline < 0) {
+            selector.select(100);
+            Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+            while (it.hasNext()) {
+                SelectionKey key = it.next();
+                it.remove();
+                Connection connection = (Connection) key.attachment();
+                boolean open;
+                try {
+                    open = read(connection);
+                } catch (IOException e) {
+                    open = false;
+                }
+                if (!open) {
+                    key.cancel();
+                    connection.channel.close();
+                    disconnected++;
+                }
+            }
+        }
+    }
+
+    // 关闭所有连接
+    @Override
+    public void close() throws IOException {
+        if (selector == null) {
+            return;
+        }
+        for (SelectionKey key : selector.keys()) {
+            key.channel().close();
+        }
+        selector.close();
+        selector = null;
+    }
+
+    // 读取并处理完整的消息，连接关闭时返回false
+    private boolean read(Connection c) throws IOException {
+        int n = c.channel.read(c.in);
+        if (n < 0) {
+            return false;
+        }
+        c.in.flip();
+        if (!c.greeted) {
+            if (c.in.remaining() < GameServer.HELLO_SIZE) {
+                c.in.compact();
+                return true;
+            }
+            if (c.in.getInt() != GameServer.MAGIC || c.in.getInt() != GameServer.VERSION) {
+                return false;
+            }
+            c.in.getLong(); // 会话编号
+            c.in.getLong(); // 种子
+            c.greeted = true;
+        }
+        // 只根据最新的状态操作，之前积压的状态只计数
+        int count = c.in.remaining() / GameServer.STATE_SIZE;
+        if (count > 0) {
+            states += count;
+            c.in.position(c.in.position() + (count - 1) * GameServer.STATE_SIZE);
+            control(c, c.in);
+        }
+        c.in.compact();
+        return true;
+    }
+
+    // 与Autopilot相同的策略：小鸟低于空隙下沿时振翅，游戏未开始或已结束时按下振翅键
+    private void control(Connection c, ByteBuffer state) throws IOException {
+        state.getLong(); // 帧序号
+        long score = state.getLong();
+        int gameState = state.getInt();
+        state.getInt(); // 小鸟的y坐标
+        int birdBottom = state.getInt();
+        int velocity = state.getInt();
+        state.getInt(); // 水管的x坐标
+        state.getInt(); // 空隙的上沿
+        int gapBottom = state.getInt();
+
+        if (gameState == GameEngine.STATE_OVER && c.lastState != GameEngine.STATE_OVER) {
+            games++;
+            bestScore = Math.max(bestScore, score);
+        }
+        c.lastState = gameState;
+        boolean flap = gameState != GameEngine.GAME_START
+                || birdBottom > gapBottom - Autopilot.MARGIN && velocity <= 0;
+        c.out.clear();
+        c.out.put(GameServer.INPUT_RELEASED);
+        if (flap) {
+            c.out.put(GameServer.INPUT_PRESSED);
+        }
+        c.out.flip();
+        inputs += c.out.remaining();
+        c.channel.write(c.out); // 只有一两个字节，发送缓冲区满时丢弃
+    }
+
+    @Override
+    public String toString() {
+        return "connected=" + connected + " disconnected=" + disconnected + " states=" + states + " inputs="
+                + inputs + " games=" + games + " best=" + bestScore;
+    }
+}
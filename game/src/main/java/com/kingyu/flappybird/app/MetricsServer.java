@@ -0,0 +1,217 @@
+package com.kingyu.flappybird.app;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.kingyu.flappybird.component.Pipe;
+import com.kingyu.flappybird.component.PipeSpriteCache;
+import com.kingyu.flappybird.engine.EntityStore;
+import com.kingyu.flappybird.engine.GameEngine;
+import com.kingyu.flappybird.util.AudioEngine;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * 指标服务器，只绑定本机回环地址，在/metrics以Prometheus文本格式导出游戏的计数器和状态
+ * 请求在单独的线程中处理，只读取各组件的volatile计数器或近似值，不加锁，不会阻塞游戏循环
+ *
+ * @author Kingyu
+ */
+public class MetricsServer {
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final String NODELAY = "sun.net.httpserver.nodelay"; // 在首次创建HttpServer时读取
+
+    private final GameContext context;
+    private final GameEngine engine;
+    private final GameRenderer renderer;
+    private final GameLoop loop;
+    private final GarbageCollectorMXBean[] collectors;
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * @param context  导出指标的会话
+     * @param renderer 会话的画面合成器
+     * @param loop     推进会话的游戏循环，没有时为null
+     */
+    public MetricsServer(GameContext context, GameRenderer renderer, GameLoop loop) {
+        this.context = context;
+        this.engine = context.getEngine();
+        this.renderer = renderer;
+        this.loop = loop;
+        List<GarbageCollectorMXBean> beans = ManagementFactory.getGarbageCollectorMXBeans();
+        collectors = beans.toArray(new GarbageCollectorMXBean[0]);
+    }
+
+    /**
+     * 在本机回环地址上启动服务器
+     *
+     * @param port 端口，为0时由系统分配，见getPort()
+     */
+    public synchronized void start(int port) throws IOException {
+        if (port < 0 || port > 0xFFFF) {
+            throw new IllegalArgumentException("传入了非法的参数");
+        }
+        if (server != null) {
+            return;
+        }
+        // 响应头和正文分两次写出，开启Nagle算法时每次抓取都要等待对方的延迟确认（约40ms）
+        if (System.getProperty(NODELAY) == null) {
+            System.setProperty(NODELAY, "true");
+        }
+        HttpServer http = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        http.createContext("/metrics", this::handle);
+        executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "MetricsServer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        http.setExecutor(executor);
+        http.start();
+        server = http;
+    }
+
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdown();
+            server = null;
+        }
+    }
+
+    // 实际绑定的端口，未启动时返回-1
+    public synchronized int getPort() {
+        return server == null ? -1 : server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            if (!"GET".equals(method) && !"HEAD".equals(method)) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = snapshot().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            if ("HEAD".equals(method)) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * 组装所有指标的快照，可在任意线程调用，各个值分别读取，彼此之间不保证一致
+     */
+    public String snapshot() {
+        StringBuilder sb = new StringBuilder(4096);
+        // 游戏循环
+        if (loop != null) {
+            counter(sb, "flappybird_ticks_total", "Logic ticks advanced by the game loop", loop.getTicks());
+            counter(sb, "flappybird_late_ticks_total", "Logic ticks run after their deadline", loop.getLateTicks());
+            counter(sb, "flappybird_dropped_ticks_total", "Logic ticks dropped beyond the catch-up limit",
+                    loop.getDroppedTicks());
+            counter(sb, "flappybird_missed_frames_total", "Render frames that missed their deadline",
+                    loop.getMissedFrames()); // 晚执行和丢弃的逻辑帧已单独导出
+        }
+        counter(sb, "flappybird_frames_rendered_total", "Frames drawn by the renderer", renderer.getFrames());
+        counter(sb, "flappybird_frames_skipped_total", "Frames skipped because nothing changed",
+                renderer.getSkippedFrames());
+        counter(sb, "flappybird_input_dropped_total", "Key events dropped by a full input queue",
+                context.getInputQueue().getDropped());
+
+        // 水管存储和图片缓存
+        EntityStore pipes = engine.getCourse().getPipes();
+        gauge(sb, "flappybird_pipes", "Pipes currently in the course", pipes.size());
+        gauge(sb, "flappybird_pipe_store_capacity", "Slots allocated in the pipe store", pipes.getCapacity());
+        gauge(sb, "flappybird_pipe_store_free", "Free slots in the pipe store", pipes.getFree());
+        counter(sb, "flappybird_pipe_store_hits_total", "Pipes spawned into a free slot", pipes.getHits());
+        counter(sb, "flappybird_pipe_store_misses_total", "Pipes spawned after growing the store", pipes.getMisses());
+        counter(sb, "flappybird_pipes_spawned_total", "Pipes spawned", pipes.getSpawned());
+        PipeSpriteCache sprites = Pipe.SPRITES;
+        gauge(sb, "flappybird_pipe_sprites", "Pipe sprites cached", sprites.size());
+        gauge(sb, "flappybird_pipe_sprites_capacity", "Maximum pipe sprites cached", sprites.getCapacity());
+        counter(sb, "flappybird_pipe_sprite_hits_total", "Pipe sprite cache hits", sprites.getHits());
+        counter(sb, "flappybird_pipe_sprite_misses_total", "Pipe sprite cache misses", sprites.getMisses());
+        counter(sb, "flappybird_pipe_sprite_evictions_total", "Pipe sprite cache evictions",
+                sprites.getEvictions());
+
+        // 音效
+        AudioEngine audio = AudioEngine.getInstance();
+        counter(sb, "flappybird_sounds_triggered_total", "Sounds requested through MusicUtil",
+                audio.getTriggered());
+        counter(sb, "flappybird_sounds_started_total", "Sounds that started playing", audio.getStarted());
+        counter(sb, "flappybird_sounds_dropped_total", "Sounds dropped without playing", audio.getDropped());
+
+        // 分数
+        gauge(sb, "flappybird_game_state", "Game state: 0 ready, 1 start, 2 over", engine.getGameState());
+        gauge(sb, "flappybird_score", "Score of the current game", engine.getCurrentScore());
+        gauge(sb, "flappybird_best_score", "Best score on record, -1 if none",
+                context.getScoreCounter().getBestScore());
+
+        // 堆和垃圾回收
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        gauge(sb, "flappybird_jvm_heap_used_bytes", "Used heap memory", heap.getUsed());
+        gauge(sb, "flappybird_jvm_heap_committed_bytes", "Committed heap memory", heap.getCommitted());
+        gauge(sb, "flappybird_jvm_heap_max_bytes", "Maximum heap memory, -1 if undefined", heap.getMax());
+        header(sb, "flappybird_jvm_gc_collections_total", "Garbage collections", "counter");
+        for (GarbageCollectorMXBean collector : collectors) {
+            sample(sb, "flappybird_jvm_gc_collections_total", collector.getName(),
+                    Long.toString(Math.max(collector.getCollectionCount(), 0)));
+        }
+        header(sb, "flappybird_jvm_gc_pause_seconds_total", "Time spent in garbage collection", "counter");
+        for (GarbageCollectorMXBean collector : collectors) {
+            sample(sb, "flappybird_jvm_gc_pause_seconds_total", collector.getName(),
+                    String.format(Locale.ROOT, "%.3f", Math.max(collector.getCollectionTime(), 0) / 1000.0));
+        }
+        return sb.toString();
+    }
+
+    private static void counter(StringBuilder sb, String name, String help, long value) {
+        header(sb, name, help, "counter");
+        sb.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void gauge(StringBuilder sb, String name, String help, long value) {
+        header(sb, name, help, "gauge");
+        sb.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void header(StringBuilder sb, String name, String help, String type) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    // 带有回收器名称标签的一个值
+    private static void sample(StringBuilder sb, String name, String gc, String value) {
+        sb.append(name).append("{gc=\"");
+        for (int i = 0; i < gc.length(); i++) {
+            char c = gc.charAt(i);
+            if (c == '\\' || c == '"') {
+                sb.append('\\').append(c);
+            } else if (c == '\n') {
+                sb.append("\\n");
+            } else {
+                sb.append(c);
+            }
+        }
+        sb.append("\"} ").append(value).append('\n');
+    }
+}
@@ -0,0 +1,186 @@
+package com.kingyu.flappybird.app;
+
+import java.awt.Graphics;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import com.kingyu.flappybird.engine.Autopilot;
+import com.kingyu.flappybird.engine.GameEngine;
+import com.kingyu.flappybird.engine.Histogram;
+import com.kingyu.flappybird.util.Constant;
+import com.kingyu.flappybird.util.GameUtil;
+
+/**
+ * 无窗口的端到端绘制基准测试，由自动驾驶操作，不限速地推进游戏并完整地合成每一帧
+ * 每一帧与Game中的游戏循环相同：推进逻辑、采样垃圾回收、画面有变化时绘制到离屏图片（TYPE_4BYTE_ABGR），
+ * 再将图片复制到与屏幕兼容格式的图片代替窗口；种子相同时每次运行的游戏过程相同
+ *
+ * @author Kingyu
+ */
+public class RenderBenchmark {
+    public static final long DEFAULT_SEED = 20200712L;
+    private static final int MAX_WARM_UP_FRAMES = 1000; // 预热的最大帧数，不计入结果
+    private static final int RESTART_DELAY = Constant.TICK_RATE; // 游戏结束后停留的帧数，使结束界面也被绘制
+
+    private final GameEngine engine;
+    private final GameRenderer renderer = new GameRenderer();
+    private final Autopilot autopilot = new Autopilot();
+    private final GcMonitor gcMonitor = new GcMonitor();
+    private final BufferedImage bufImg = new BufferedImage(Constant.FRAME_WIDTH, Constant.FRAME_HEIGHT,
+            BufferedImage.TYPE_4BYTE_ABGR);
+    private final BufferedImage screen = GameUtil.createCompatibleImage(Constant.FRAME_WIDTH,
+            Constant.FRAME_HEIGHT, Transparency.OPAQUE);
+
+    private int overFrames; // 游戏结束后经过的帧数
+    private long games; // 结束的局数
+    private long bestScore;
+
+    public RenderBenchmark(long seed) {
+        engine = new GameEngine(seed);
+    }
+
+    /**
+     * 预热后运行指定的帧数
+     *
+     * @param frames 计入结果的帧数
+     */
+    public Result run(int frames) {
+        if (frames <= 0) {
+            throw new IllegalArgumentException("传入了非法的参数");
+        }
+        int warmUp = Math.min(frames, MAX_WARM_UP_FRAMES);
+        for (int i = 0; i < warmUp; i++) {
+            frame();
+        }
+        for (int i = 0; i < GameRenderer.LAYER_COUNT; i++) {
+            renderer.getLayerNanos(i).reset(); // 各层的耗时只统计计入结果的帧
+        }
+        games = 0;
+        bestScore = 0;
+        long skipped = renderer.getSkippedFrames();
+        long collections = gcMonitor.getCollections();
+        long pauseMillis = gcMonitor.getPauseMillis();
+
+        Histogram frameNanos = new Histogram();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long allocated = allocatedBytes(threads);
+        long begin = System.nanoTime();
+        long last = begin;
+        for (int i = 0; i < frames; i++) {
+            frame();
+            long now = System.nanoTime();
+            frameNanos.record(now - last);
+            last = now;
+        }
+        long elapsed = last - begin;
+        long bytes = allocatedBytes(threads);
+        bytes = allocated < 0 || bytes < 0 ? -1 : (bytes - allocated) / frames;
+
+        return new Result(frames, elapsed, frameNanos, bytes, renderer.getSkippedFrames() - skipped, games,
+                bestScore, gcMonitor.getCollections() - collections, gcMonitor.getPauseMillis() - pauseMillis);
+    }
+
+    // 推进并绘制一帧
+    private void frame() {
+        autopilot.control(engine);
+        engine.tick();
+        if (engine.getGameState() == GameEngine.STATE_OVER) {
+            if (overFrames++ == 0) {
+                games++;
+                bestScore = Math.max(bestScore, engine.getCurrentScore());
+            } else if (overFrames > RESTART_DELAY) {
+                engine.flapPressed(); // 重新开始
+                overFrames = 0;
+            }
+        }
+
+        gcMonitor.sample();
+        if (!renderer.isDirty(engine)) {
+            renderer.skipFrame();
+            return;
+        }
+        Graphics bufG = bufImg.getGraphics();
+        renderer.draw(bufG, engine);
+        bufG.dispose();
+        long start = System.nanoTime();
+        Graphics g = screen.getGraphics();
+        g.drawImage(bufImg, 0, 0, null);
+        g.dispose();
+        renderer.addLayerTime(GameRenderer.LAYER_PRESENT, System.nanoTime() - start);
+    }
+
+    // 当前线程累计分配的字节数，JVM不支持时返回-1
+    private static long allocatedBytes(ThreadMXBean threads) {
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threads;
+            if (bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+                return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    public GameRenderer getRenderer() {
+        return renderer;
+    }
+
+    /**
+     * 基准测试的结果
+     */
+    public static class Result {
+        private final int frames;
+        private final long elapsedNanos;
+        private final Histogram frameNanos; // 每一帧的耗时，单位为纳秒
+        private final long bytesPerFrame; // 不支持统计时为-1
+        private final long skippedFrames;
+        private final long games;
+        private final long bestScore;
+        private final long collections;
+        private final long pauseMillis;
+
+        Result(int frames, long elapsedNanos, Histogram frameNanos, long bytesPerFrame, long skippedFrames,
+               long games, long bestScore, long collections, long pauseMillis) {
+            this.frames = frames;
+            this.elapsedNanos = elapsedNanos;
+            this.frameNanos = frameNanos;
+            this.bytesPerFrame = bytesPerFrame;
+            this.skippedFrames = skippedFrames;
+            this.games = games;
+            this.bestScore = bestScore;
+            this.collections = collections;
+            this.pauseMillis = pauseMillis;
+        }
+
+        public int getFrames() {
+            return frames;
+        }
+
+        public double getFramesPerSecond() {
+            return elapsedNanos == 0 ? 0 : frames * 1e9 / elapsedNanos;
+        }
+
+        public Histogram getFrameNanos() {
+            return frameNanos;
+        }
+
+        public long getBytesPerFrame() {
+            return bytesPerFrame;
+        }
+
+        public long getSkippedFrames() {
+            return skippedFrames;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("frames=%d  %.1f fps  p50=%.3f ms  p99=%.3f ms  max=%.3f ms  %s/frame  skipped=%d"
+                            + "  games=%d  best=%d  gc=%d (%d ms)",
+                    frames, getFramesPerSecond(), frameNanos.getPercentile(50) / 1e6,
+                    frameNanos.getPercentile(99) / 1e6, frameNanos.getMax() / 1e6,
+                    bytesPerFrame < 0 ? "n/a" : bytesPerFrame + " B", skippedFrames, games, bestScore, collections,
+                    pauseMillis);
+        }
+    }
+}
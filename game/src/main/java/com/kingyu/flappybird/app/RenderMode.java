@@ -0,0 +1,21 @@
+package com.kingyu.flappybird.app;
+
+/**
+ * 画面的绘制方式
+ *
+ * @author Kingyu
+ */
+public enum RenderMode {
+    BUFFER_STRATEGY, // 通过BufferStrategy绘制到后台缓冲区，支持时使用翻页显示
+    BUFFERED_IMAGE; // 原先的方式：绘制到TYPE_4BYTE_ABGR格式的图片，再将图片绘制到窗口
+
+    public static final String PROPERTY = "flappybird.render"; // 选择绘制方式的系统属性，取值为strategy或image
+
+    // 根据系统属性选择绘制方式，默认使用BufferStrategy
+    public static RenderMode fromSystemProperty() {
+        if ("image".equalsIgnoreCase(System.getProperty(PROPERTY))) {
+            return BUFFERED_IMAGE;
+        }
+        return BUFFER_STRATEGY;
+    }
+}
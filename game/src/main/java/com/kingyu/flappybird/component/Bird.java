@@ -0,0 +1,68 @@
+package com.kingyu.flappybird.component;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+
+import com.kingyu.flappybird.engine.BirdModel;
+import com.kingyu.flappybird.engine.GameEngine;
+import com.kingyu.flappybird.util.AssetManager;
+import com.kingyu.flappybird.util.Constant;
+
+/**
+ * 小鸟类，根据模拟引擎中小鸟的状态绘制小鸟和分数
+ *
+ * @author Kingyu
+ */
+public class Bird {
+    public static final int IMG_COUNT = 8; // 图片数量
+    public static final int STATE_COUNT = 4; // 状态数
+    private final BufferedImage[][] birdImages; // 小鸟的图片数组对象
+
+    private final GameOverAnimation gameOverAnimation;
+    private final ScoreRenderer scoreRenderer; // 实时分数的绘制器
+
+    /**
+     * 在构造器中对资源初始化
+     *
+     * @param scoreCounter 结束界面显示的最高纪录和排名所属的计分器
+     */
+    public Bird(ScoreCounter scoreCounter) {
+        gameOverAnimation = new GameOverAnimation(scoreCounter);
+        scoreRenderer = new ScoreRenderer(Constant.CURRENT_SCORE_FONT, Color.white);
+
+        // 读取小鸟图片资源
+        birdImages = new BufferedImage[STATE_COUNT][IMG_COUNT];
+        for (int j = 0; j < STATE_COUNT; j++) {
+            for (int i = 0; i < IMG_COUNT; i++) {
+                birdImages[j][i] = AssetManager.getInstance().getImage(Constant.BIRDS_IMG_PATH[j][i]);
+            }
+        }
+    }
+
+    // 绘制方法
+    public void draw(Graphics g, GameEngine engine) {
+        BirdModel bird = engine.getBird();
+        int state = bird.getState();
+        int state_index = Math.min(state, BirdModel.BIRD_DEAD_FALL); // 图片资源索引
+        // 小鸟中心点计算
+        int halfImgWidth = birdImages[state_index][0].getWidth() >> 1;
+        int halfImgHeight = birdImages[state_index][0].getHeight() >> 1;
+        // 翅膀状态，实现小鸟振翅飞行
+        BufferedImage image = birdImages[state_index][bird.getWingState() / 10 % IMG_COUNT];
+        if (bird.getVelocity() > 0)
+            image = birdImages[BirdModel.BIRD_UP][0];
+        g.drawImage(image, bird.getBirdX() - halfImgWidth, bird.getBirdY() - halfImgHeight, null); // x坐标于窗口1/4处，y坐标位窗口中心
+
+        if (state == BirdModel.BIRD_DEAD)
+            gameOverAnimation.draw(g, engine);
+        else if (state != BirdModel.BIRD_DEAD_FALL)
+            drawScore(g, engine.getCurrentScore());
+        // 碰撞矩形由调试信息层（DebugOverlay）绘制
+    }
+
+    // 绘制实时分数
+    private void drawScore(Graphics g, long score) {
+        scoreRenderer.drawCentered(g, score, Constant.FRAME_WIDTH >> 1, Constant.FRAME_HEIGHT / 10);
+    }
+}
@@ -0,0 +1,65 @@
+package com.kingyu.flappybird.component;
+
+import java.awt.Graphics;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+import com.kingyu.flappybird.engine.GameEngine;
+import com.kingyu.flappybird.util.AssetManager;
+import com.kingyu.flappybird.util.Constant;
+import com.kingyu.flappybird.util.GameUtil;
+
+/**
+ * 游戏背景类，根据模拟引擎中背景层的坐标绘制游戏背景
+ * 平铺的背景图片预先绘制成一张宽度为 窗口宽度+背景图片宽度 的长图，滚动时只需将长图偏移后绘制一次；
+ * 背景色只填充长图以上的部分，每个像素只绘制一次
+ * 
+ * @author Kingyu
+ *
+ */
+public class GameBackground {
+
+	private static final BufferedImage BackgroundImg;// 背景图片
+
+	public static final int GROUND_HEIGHT;
+
+	static {
+		BackgroundImg = AssetManager.getInstance().getImage(Constant.BG_IMG_PATH);
+		assert BackgroundImg != null;
+		GROUND_HEIGHT = BackgroundImg.getHeight() / 2;
+	}
+
+	private final BufferedImage strip; // 预先绘制好的背景长图
+	private final int stripY; // 长图在窗口中的y坐标
+
+	public GameBackground() {
+		// 获得背景图片的尺寸
+		int imgWidth = BackgroundImg.getWidth();
+		int imgHeight = BackgroundImg.getHeight();
+		stripY = Constant.FRAME_HEIGHT - imgHeight;
+
+		// 背景层的坐标取值为[0, imgWidth]，长图需覆盖窗口宽度加一张背景图片的宽度
+		strip = GameUtil.createCompatibleImage(Constant.FRAME_WIDTH + imgWidth, imgHeight,
+				BackgroundImg.getColorModel().getTransparency());
+		Graphics g = strip.getGraphics();
+		int count = strip.getWidth() / imgWidth + 1; // 根据长图宽度得到图片的绘制次数
+		for (int i = 0; i < count; i++) {
+			g.drawImage(BackgroundImg, imgWidth * i, 0, null);
+		}
+		g.dispose();
+	}
+
+	// 绘制方法
+	public void draw(Graphics g, GameEngine engine) {
+		// 绘制背景色，背景图片不透明时只填充背景图片以上的部分
+		g.setColor(Constant.BG_COLOR);
+		g.fillRect(0, 0, Constant.FRAME_WIDTH,
+				strip.getTransparency() == Transparency.OPAQUE ? stripY : Constant.FRAME_HEIGHT);
+		g.drawImage(strip, -engine.getLayerX(), stripY, null);
+	}
+
+	// 背景层的版本，背景层的坐标不变时画面不变
+	public long version(GameEngine engine) {
+		return engine.getLayerX();
+	}
+}
@@ -0,0 +1,39 @@
+package com.kingyu.flappybird.component;
+
+import java.awt.Graphics;
+
+import com.kingyu.flappybird.engine.EntityStore;
+import com.kingyu.flappybird.engine.GameEngine;
+import com.kingyu.flappybird.engine.PipeCourse;
+
+/**
+ * 游戏元素层，绘制模拟引擎水管赛道中的水管
+ *
+ * @author Kingyu
+ */
+
+public class GameElementLayer {
+    private final Pipe pipe; // 普通水管的绘制对象
+    private final MovingPipe movingPipe; // 移动水管的绘制对象
+
+    // 构造器
+    public GameElementLayer() {
+        pipe = new Pipe();
+        movingPipe = new MovingPipe();
+    }
+
+    // 绘制方法
+    public void draw(Graphics g, GameEngine engine) {
+        EntityStore pipes = engine.getCourse().getPipes();
+        // 遍历水管容器，绘制可见的水管
+        for (int i = 0; i < pipes.size(); i++) {
+            int x = pipes.getX(i);
+            if (!PipeCourse.isVisible(x)) {
+                continue;
+            }
+            int type = pipes.getType(i);
+            Pipe renderer = PipeCourse.isMoving(type) ? movingPipe : pipe;
+            renderer.draw(g, x, pipes.getY(i), pipes.getHeight(i), type, pipes.getDealtY(i));
+        }
+    }
+}
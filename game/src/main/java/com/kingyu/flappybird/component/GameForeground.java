@@ -0,0 +1,173 @@
+package com.kingyu.flappybird.component;
+
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+import com.kingyu.flappybird.engine.EntityStore;
+import com.kingyu.flappybird.engine.GameEngine;
+import com.kingyu.flappybird.engine.GameRandom;
+import com.kingyu.flappybird.util.AssetManager;
+import com.kingyu.flappybird.util.Constant;
+import com.kingyu.flappybird.util.GameUtil;
+
+/**
+ * 前景层，目前管理云朵的生成逻辑并绘制容器中的云朵
+ * 云朵保存在EntityStore中，生成和移除云朵都不创建对象；
+ * 云朵的缩放比例被归入CLOUD_SCALE_COUNT个档位，每个档位的图片在创建时缩放好，绘制时无需缩放；
+ * 云朵的生成与移动都按模拟引擎的帧数进行，与墙上时间无关，前景层的画面只取决于引擎的状态
+ *
+ * @author Kingyu
+ */
+public class GameForeground {
+    private final EntityStore clouds; // 云朵的容器，type为缩放好的图片的下标，宽高为缩放后的大小
+    private final BufferedImage[] cloudImages; // 图片资源
+    private final BufferedImage[] scaledImages; // 缩放好的图片，下标为 图片的下标 * CLOUD_SCALE_COUNT + 档位
+    private long lastTicks = -1; // 上次移动云朵时模拟引擎的帧数
+    private long version; // 云朵每次移动、生成或移除时加1，用于判断前景层是否需要重绘
+    public static final int CLOUD_INTERVAL = Math.max(1, Constant.TICK_RATE / 10); //云朵刷新的逻辑运算的周期，约100ms，单位为帧
+    public static final int CLOUD_SPEED = Constant.GAME_SPEED * 2; //云朵的速度
+
+    public GameForeground() {
+        clouds = new EntityStore(Constant.MAX_CLOUD_COUNT); //云朵的容器
+        // 读入图片资源
+        cloudImages = new BufferedImage[Constant.CLOUD_IMAGE_COUNT];
+        for (int i = 0; i < Constant.CLOUD_IMAGE_COUNT; i++) {
+            cloudImages[i] = AssetManager.getInstance().getImage(Constant.CLOUDS_IMG_PATH[i]);
+        }
+        scaledImages = new BufferedImage[Constant.CLOUD_IMAGE_COUNT * Constant.CLOUD_SCALE_COUNT];
+        for (int i = 0; i < Constant.CLOUD_IMAGE_COUNT; i++) {
+            for (int j = 0; j < Constant.CLOUD_SCALE_COUNT; j++) {
+                scaledImages[i * Constant.CLOUD_SCALE_COUNT + j] = scaleImage(cloudImages[i], bucketScale(j));
+            }
+        }
+    }
+
+    /**
+     * 生成、移动和移除云朵，云朵按模拟引擎的帧数生成和移动，同一帧内多次调用不会重复处理
+     */
+    public void update(GameEngine engine) {
+        long ticks = engine.getTicks();
+        if (lastTicks >= 0 && ticks > lastTicks) {
+            int elapsed = (int) Math.min(ticks - lastTicks, Constant.MAX_CATCH_UP_TICKS);
+            for (long t = ticks - elapsed + 1; t <= ticks; t++) {
+                if (t % CLOUD_INTERVAL == 0) {
+                    cloudBornLogic(engine.getCosmeticRandom());
+                }
+            }
+            // 鸟死后云朵减速
+            moveClouds((engine.getBird().isDead() ? 1 : CLOUD_SPEED) * elapsed);
+        }
+        lastTicks = ticks;
+    }
+
+    // 绘制方法
+    public void draw(Graphics g, GameEngine engine) {
+        update(engine);
+        drawClouds(g);
+    }
+
+    /**
+     * 所有云朵向左移动
+     *
+     * @param distance 移动的距离
+     */
+    public void moveClouds(int distance) {
+        if (clouds.size() > 0) {
+            clouds.translateX(-distance);
+            version++;
+        }
+    }
+
+    // 绘制所有云朵
+    public void drawClouds(Graphics g) {
+        for (int i = 0; i < clouds.size(); i++) {
+            g.drawImage(scaledImages[clouds.getType(i)], clouds.getX(i), clouds.getY(i), null);
+        }
+    }
+
+    // 前景层的版本，云朵没有移动、生成或移除时画面不变
+    public long version() {
+        return version;
+    }
+
+    // 云朵的控制
+    private void cloudBornLogic(GameRandom random) {
+        // 如果屏幕的云朵的数量小于允许的最大数量，根据给定的概率随机添加云朵
+        if (clouds.size() < Constant.MAX_CLOUD_COUNT) {
+            if (random.isInProbability(Constant.CLOUD_BORN_PERCENT, 100)) { // 根据给定的概率添加云朵
+                int index = random.nextInt(0, Constant.CLOUD_IMAGE_COUNT); // 随机选取云朵图片
+
+                // 云朵刷新的坐标
+                int x = Constant.FRAME_WIDTH; // 从屏幕左侧开始刷新
+                // y坐标随机在上1/3屏选取
+                int y = random.nextInt(Constant.TOP_BAR_HEIGHT, Constant.FRAME_HEIGHT / 3);
+
+                //向容器中添加云朵，云朵图片缩放的比例 1.0~2.0
+                addCloud(index, x, y, random.nextDouble(1, 2));
+            }
+        } // 添加云朵
+
+        // 若云朵飞出屏幕则从容器中移除
+        recycleClouds();
+    }
+
+    /**
+     * 添加一朵云
+     *
+     * @param index 云朵图片的下标
+     * @param scale 云朵图片缩放的比例，1.0~2.0，使用最接近的档位
+     */
+    public void addCloud(int index, int x, int y, double scale) {
+        int type = index * Constant.CLOUD_SCALE_COUNT + scaleBucket(scale);
+        BufferedImage img = scaledImages[type];
+        clouds.add(x, y, img.getWidth(), img.getHeight(), type);
+        version++;
+    }
+
+    // 缩放比例所属的档位
+    static int scaleBucket(double scale) {
+        if (Constant.CLOUD_SCALE_COUNT == 1) {
+            return 0;
+        }
+        int bucket = (int) Math.round((scale - 1) * (Constant.CLOUD_SCALE_COUNT - 1));
+        return Math.max(0, Math.min(Constant.CLOUD_SCALE_COUNT - 1, bucket));
+    }
+
+    // 档位的缩放比例，各档位均匀分布在1.0~2.0，只有一个档位时为1.5
+    static double bucketScale(int bucket) {
+        if (Constant.CLOUD_SCALE_COUNT == 1) {
+            return 1.5;
+        }
+        return 1 + (double) bucket / (Constant.CLOUD_SCALE_COUNT - 1);
+    }
+
+    // 按比例缩放图片，只在创建时执行，使用双线性插值
+    private static BufferedImage scaleImage(BufferedImage img, double scale) {
+        int width = (int) (scale * img.getWidth());
+        int height = (int) (scale * img.getHeight());
+        BufferedImage scaled = GameUtil.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+        Graphics2D g = scaled.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(img, 0, 0, width, height, null);
+        g.dispose();
+        return scaled;
+    }
+
+    /**
+     * 移除飞出屏幕的云朵。云朵从右侧生成且速度相同，按生成的顺序飞出屏幕，只需检查队首
+     *
+     * @return 移除的云朵数量
+     */
+    public int recycleClouds() {
+        int count = 0;
+        while (clouds.size() > 0 && clouds.getX(0) < -1 * clouds.getWidth(0)) {
+            clouds.removeFirst();
+            count++;
+            version++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,85 @@
+package com.kingyu.flappybird.component;
+
+import com.kingyu.flappybird.engine.GameEngine;
+import com.kingyu.flappybird.util.AssetManager;
+import com.kingyu.flappybird.util.Constant;
+import com.kingyu.flappybird.util.GameUtil;
+import com.kingyu.flappybird.util.RunHistory;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * 游戏结束界面
+ *
+ * @author Kingyu
+ *
+ */
+public class GameOverAnimation {
+    private final BufferedImage scoreImg; // 计分牌
+    private final BufferedImage overImg; // 结束标志
+    private final BufferedImage againImg; // 继续标志
+    private final ScoreRenderer scoreRenderer; // 分数的绘制器
+    private final ScoreCounter scoreCounter; // 所属会话的计分器
+    private final int standingY; // 排名文字的基线
+    private RunHistory.Standing measuredStanding; // 已测量宽度的排名
+    private int standingX; // 排名文字的x坐标
+
+    public GameOverAnimation(ScoreCounter scoreCounter){
+        this.scoreCounter = scoreCounter;
+        overImg = AssetManager.getInstance().getImage(Constant.OVER_IMG_PATH);
+        scoreImg = AssetManager.getInstance().getImage(Constant.SCORE_IMG_PATH);
+        againImg = AssetManager.getInstance().getImage(Constant.AGAIN_IMG_PATH);
+        scoreRenderer = new ScoreRenderer(Constant.SCORE_FONT, Color.white);
+        standingY = Constant.FRAME_HEIGHT / 3 + scoreImg.getHeight() + STANDING_MARGIN
+                + GameUtil.getStringHeight(Constant.STANDING_FONT, "0");
+    }
+
+    private static final int SCORE_LOCATE = 5; // 计分牌位置补偿参数
+    private static final int COUNT = 30; // 闪烁周期
+    private static final int STANDING_MARGIN = 8; // 排名与计分牌的间距
+
+    public void draw(Graphics g, GameEngine engine) {
+        long bestScore = scoreCounter.getBestScore();
+        int x = Constant.FRAME_WIDTH - overImg.getWidth() >> 1;
+        int y = Constant.FRAME_HEIGHT / 4;
+        g.drawImage(overImg, x, y, null);
+
+        // 绘制计分牌
+        x = Constant.FRAME_WIDTH - scoreImg.getWidth() >> 1;
+        y = Constant.FRAME_HEIGHT / 3;
+        g.drawImage(scoreImg, x, y, null);
+
+        // 绘制本局的分数
+        x = (Constant.FRAME_WIDTH - scoreImg.getWidth() / 2 >> 1) + SCORE_LOCATE;// 位置补偿
+        y += (scoreImg.getHeight() >> 1) + scoreRenderer.getHeight();
+        scoreRenderer.drawCentered(g, engine.getCurrentScore(), x, y);
+
+        // 绘制最高分数
+        if (bestScore > 0) {
+            x = (Constant.FRAME_WIDTH + scoreImg.getWidth() / 2 >> 1) - SCORE_LOCATE;// 位置补偿
+            scoreRenderer.drawCentered(g, bestScore, x, y);
+        }
+
+        // 绘制本局在所有记录中的排名，排名在游戏结束时已经算好
+        RunHistory.Standing standing = scoreCounter.getHistory().getLast();
+        if (standing != null) {
+            if (standing != measuredStanding) { // 每局只测量一次文字的宽度
+                standingX = Constant.FRAME_WIDTH - GameUtil.getStringWidth(Constant.STANDING_FONT, standing.getLabel()) >> 1;
+                measuredStanding = standing;
+            }
+            g.setFont(Constant.STANDING_FONT);
+            g.setColor(Color.white);
+            g.drawString(standing.getLabel(), standingX, standingY);
+        }
+
+        // 绘制继续游戏，图像闪烁
+        if (isAgainVisible(engine.getTicks()))
+            GameUtil.drawImage(againImg,Constant.FRAME_WIDTH - againImg.getWidth() >> 1, Constant.FRAME_HEIGHT / 5 * 3, g);
+    }
+
+    // 继续游戏的图像是否显示，按模拟引擎的帧数计算，每个闪烁周期的后一半显示
+    public static boolean isAgainVisible(long ticks) {
+        return ticks % (COUNT * 2) > COUNT;
+    }
+}
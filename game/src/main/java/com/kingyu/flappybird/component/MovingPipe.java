@@ -2,68 +2,34 @@ package com.kingyu.flappybird.component;
 
 import java.awt.Graphics;
 
+import com.kingyu.flappybird.engine.PipeCourse;
 import com.kingyu.flappybird.util.Constant;
 
 /**
- * 移动水管类，继承Pipe类
+ * 移动水管类，继承Pipe类，拼接移动水管的图片
  *
  * @author Kingyu
  */
 
 public class MovingPipe extends Pipe {
 
-    private int dealtY; // 移动水管的坐标
-    public static final int MAX_DELTA = 50; // 最大移动距离
-    private int direction;
-    public static final int DIR_UP = 0;
-    public static final int DIR_DOWN = 1;
+    private int dealtY; // 正在拼接的水管在竖直方向的偏移，拼接时为0，绘制时再加上偏移
 
-    // 构造器
-    public MovingPipe() {
-        super();
-    }
-
-    /**
-     * 设置水管参数
-     *
-     * @param x:x坐标
-     * @param y：y坐标
-     * @param height：水管高度
-     * @param type：水管类型
-     * @param visible：水管可见性
-     */
-    public void setAttribute(int x, int y, int height, int type, boolean visible) {
-        super.setAttribute(x, y, height, type, visible);
-        dealtY = 0;
-        direction = DIR_DOWN;
-        if (type == TYPE_TOP_HARD) {
-            direction = DIR_UP;
-        }
-    }
-
-    // 绘制方法
-    public void draw(Graphics g, Bird bird) {
+    // 按类型拼接水管
+    @Override
+    void compose(Graphics g, int type) {
         switch (type) {
-            case TYPE_HOVER_HARD:
+            case PipeCourse.TYPE_HOVER_HARD:
                 drawHoverHard(g);
                 break;
-            case TYPE_TOP_HARD:
+            case PipeCourse.TYPE_TOP_HARD:
                 drawTopHard(g);
                 break;
-            case TYPE_BOTTOM_HARD:
+            case PipeCourse.TYPE_BOTTOM_HARD:
                 drawBottomHard(g);
                 break;
 
         }
-        // 鸟死后水管停止移动
-        if (bird.isDead()) {
-            return;
-        }
-        movement();
-
-        // 绘制碰撞矩形
-//		g.setColor(Color.black);
-//		g.drawRect((int) pipeRect.getX(), (int) pipeRect.getY(), (int) pipeRect.getWidth(), (int) pipeRect.getHeight());
     }
 
     // 绘制移动的悬浮水管
@@ -106,30 +72,4 @@ public class MovingPipe extends Pipe {
         g.drawImage(imgs[2], x - ((PIPE_HEAD_WIDTH - width) >> 1), Constant.FRAME_HEIGHT - height + dealtY, null);
     }
 
-    /**
-     * 可动水管的运动逻辑
-     */
-    private void movement() {
-        //x坐标的运动逻辑与普通水管相同
-        x -= speed;
-        pipeRect.x -= speed;
-        if (x < -1 * PIPE_HEAD_WIDTH) {// 水管完全离开了窗口
-            visible = false;
-        }
-
-        //水管上下移动的逻辑
-        if (direction == DIR_DOWN) {
-            dealtY++;
-            if (dealtY > MAX_DELTA) {
-                direction = DIR_UP;
-            }
-        } else {
-            dealtY--;
-            if (dealtY <= 0) {
-                direction = DIR_DOWN;
-            }
-        }
-        pipeRect.y = this.y + dealtY;
-    }
-
 }
@@ -0,0 +1,186 @@
+package com.kingyu.flappybird.component;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+import com.kingyu.flappybird.engine.PipeCourse;
+import com.kingyu.flappybird.util.AssetManager;
+import com.kingyu.flappybird.util.Constant;
+import com.kingyu.flappybird.util.GameUtil;
+
+/**
+ * 水管类，根据模拟引擎中水管的状态绘制普通水管
+ * 水管主体由多张图片拼接而成，拼接好的主体缓存在SPRITES中，绘制时主体只需绘制一张图片
+ *
+ * @author Kingyu
+ */
+public class Pipe {
+    static final BufferedImage[] imgs; // 水管的图片，static保证图片只加载一次，所有会话共用
+
+    static {// 静态代码块，类加载的时候，初始化图片
+        final int PIPE_IMAGE_COUNT = 3;
+        imgs = new BufferedImage[PIPE_IMAGE_COUNT];
+        for (int i = 0; i < PIPE_IMAGE_COUNT; i++) {
+            imgs[i] = AssetManager.getInstance().getImage(Constant.PIPE_IMG_PATH[i]);
+        }
+    }
+
+    // 所有水管的宽高
+    public static final int PIPE_WIDTH = imgs[0].getWidth();
+    public static final int PIPE_HEIGHT = imgs[0].getHeight();
+    public static final int PIPE_HEAD_WIDTH = imgs[1].getWidth();
+    public static final int PIPE_HEAD_HEIGHT = imgs[1].getHeight();
+
+    // 拼接好的水管主体图片，只由不可变的图片拼接而成，所有会话的水管共用
+    public static final PipeSpriteCache SPRITES = new PipeSpriteCache(Constant.PIPE_SPRITE_CACHE_SIZE);
+
+    int x, y; // 正在拼接的水管的坐标
+    int width, height; // 正在拼接的水管的宽，高
+
+    /**
+     * 绘制方法
+     *
+     * @param x      水管的x坐标
+     * @param y      水管的y坐标
+     * @param height 水管的高度
+     * @param type   水管的类型
+     * @param dealtY 移动水管在竖直方向的偏移，普通水管为0
+     */
+    public void draw(Graphics g, int x, int y, int height, int type, int dealtY) {
+        int top = spriteY(type, y, height) + dealtY; // 水管上端在窗口中的y坐标
+        // 绘制拼接好的水管主体
+        BufferedImage body = SPRITES.get(this, type, height);
+        if (body != null) {
+            g.drawImage(body, x, top + bodyOffset(type), null);
+        }
+        // 绘制水管的头部，头部与水管主体的宽度不同，x坐标需要处理
+        int headX = x - ((PIPE_HEAD_WIDTH - PIPE_WIDTH) >> 1);
+        switch (type) {
+            case PipeCourse.TYPE_TOP_NORMAL:
+            case PipeCourse.TYPE_TOP_HARD:
+                g.drawImage(imgs[1], headX, top + height - PIPE_HEAD_HEIGHT, null);
+                break;
+            case PipeCourse.TYPE_BOTTOM_NORMAL:
+            case PipeCourse.TYPE_BOTTOM_HARD:
+                g.drawImage(imgs[2], headX, top, null);
+                break;
+            case PipeCourse.TYPE_HOVER_NORMAL:
+            case PipeCourse.TYPE_HOVER_HARD:
+                g.drawImage(imgs[2], headX, top, null);
+                g.drawImage(imgs[1], headX, top + height - PIPE_HEAD_HEIGHT, null);
+                break;
+        }
+        // 碰撞矩形由调试信息层（DebugOverlay）绘制
+    }
+
+    /**
+     * 水管上端在窗口中的y坐标（不含移动水管的偏移），从下往上的水管紧贴窗口底部，其余水管与水管的y坐标相同
+     */
+    static int spriteY(int type, int y, int height) {
+        if (type == PipeCourse.TYPE_BOTTOM_NORMAL || type == PipeCourse.TYPE_BOTTOM_HARD) {
+            return Constant.FRAME_HEIGHT - height;
+        }
+        return y;
+    }
+
+    // 水管主体相对水管上端的偏移，从上往下的水管主体在头部之上，其余水管主体在头部之下
+    static int bodyOffset(int type) {
+        return type == PipeCourse.TYPE_TOP_NORMAL || type == PipeCourse.TYPE_TOP_HARD ? 0 : PIPE_HEAD_HEIGHT;
+    }
+
+    // 水管主体露出的长度，普通的从下往上的水管底部被地面遮挡
+    static int bodyLength(int type, int height) {
+        switch (type) {
+            case PipeCourse.TYPE_BOTTOM_NORMAL:
+                return height - PIPE_HEAD_HEIGHT - Constant.GROUND_HEIGHT;
+            case PipeCourse.TYPE_HOVER_NORMAL:
+            case PipeCourse.TYPE_HOVER_HARD:
+                return height - 2 * PIPE_HEAD_HEIGHT;
+            default:
+                return height - PIPE_HEAD_HEIGHT;
+        }
+    }
+
+    /**
+     * 拼接水管主体的图片，水管的图片不透明，拼接成不透明的图片后绘制最快
+     * 水管的头部比主体宽，拼接在一起需要透明的边缘，而透明图片的绘制比多次绘制不透明图片更慢，因此头部单独绘制
+     *
+     * @param type   水管类型
+     * @param height 水管高度
+     * @return 拼接好的图片，水管没有露出的主体时返回null
+     */
+    BufferedImage createSprite(int type, int height) {
+        int length = bodyLength(type, height);
+        if (length <= 0) {
+            return null;
+        }
+        this.width = PIPE_WIDTH;
+        this.height = height;
+        this.x = 0;
+        this.y = type == PipeCourse.TYPE_TOP_NORMAL || type == PipeCourse.TYPE_TOP_HARD
+                ? -Constant.TOP_PIPE_LENGTHENING : 0;
+        BufferedImage sprite = GameUtil.createCompatibleImage(PIPE_WIDTH, length, Transparency.OPAQUE);
+        Graphics g = sprite.getGraphics();
+        g.translate(0, -(spriteY(type, y, height) + bodyOffset(type))); // 使用窗口中的坐标拼接，超出主体的部分被裁剪
+        compose(g, type);
+        g.dispose();
+        return sprite;
+    }
+
+    // 按类型拼接水管
+    void compose(Graphics g, int type) {
+        switch (type) {
+            case PipeCourse.TYPE_TOP_NORMAL:
+                drawTopNormal(g);
+                break;
+            case PipeCourse.TYPE_BOTTOM_NORMAL:
+                drawBottomNormal(g);
+                break;
+            case PipeCourse.TYPE_HOVER_NORMAL:
+                drawHoverNormal(g);
+                break;
+        }
+    }
+
+    // 绘制从上往下的普通水管
+    private void drawTopNormal(Graphics g) {
+        // 拼接的个数
+        int count = (height - PIPE_HEAD_HEIGHT) / PIPE_HEIGHT + 1; // 取整+1
+        // 绘制水管的主体
+        for (int i = 0; i < count; i++) {
+            g.drawImage(imgs[0], x, y + i * PIPE_HEIGHT, null);
+        }
+        // 绘制水管的顶部
+        g.drawImage(imgs[1], x - ((PIPE_HEAD_WIDTH - width) >> 1),
+                height - Constant.TOP_PIPE_LENGTHENING - PIPE_HEAD_HEIGHT, null); // 水管头部与水管主体的宽度不同，x坐标需要处理
+    }
+
+    // 绘制从下往上的普通水管
+    private void drawBottomNormal(Graphics g) {
+        // 拼接的个数
+        int count = (height - PIPE_HEAD_HEIGHT - Constant.GROUND_HEIGHT) / PIPE_HEIGHT + 1;
+        // 绘制水管的主体
+        for (int i = 0; i < count; i++) {
+            g.drawImage(imgs[0], x, Constant.FRAME_HEIGHT - PIPE_HEIGHT - Constant.GROUND_HEIGHT - i * PIPE_HEIGHT,
+                    null);
+        }
+        // 绘制水管的顶部
+        g.drawImage(imgs[2], x - ((PIPE_HEAD_WIDTH - width) >> 1), Constant.FRAME_HEIGHT - height, null);
+    }
+
+    // 绘制悬浮的普通水管
+    private void drawHoverNormal(Graphics g) {
+        // 拼接的个数
+        int count = (height - 2 * PIPE_HEAD_HEIGHT) / PIPE_HEIGHT + 1;
+        // 绘制水管的上顶部
+        g.drawImage(imgs[2], x - ((PIPE_HEAD_WIDTH - width) >> 1), y, null);
+        // 绘制水管的主体
+        for (int i = 0; i < count; i++) {
+            g.drawImage(imgs[0], x, y + i * PIPE_HEIGHT + PIPE_HEAD_HEIGHT, null);
+        }
+        // 绘制水管的下底部
+        int y = this.y + height - PIPE_HEAD_HEIGHT;
+        g.drawImage(imgs[1], x - ((PIPE_HEAD_WIDTH - width) >> 1), y, null);
+    }
+
+}
@@ -0,0 +1,133 @@
+package com.kingyu.flappybird.component;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+import com.kingyu.flappybird.engine.PipeCourse;
+import com.kingyu.flappybird.util.Constant;
+
+/**
+ * 水管图片缓存，以水管的类型和高度为键，缓存拼接好的水管主体图片，每根水管的主体每帧只需绘制一次图片
+ * 缓存的数量有上限，超出后淘汰最久未使用的图片；缓存与水管对象无关，重置对象池不会使缓存失效
+ * 图片按类型和高度直接存放在数组中，访问顺序用基本类型数组组成的双向链表维护，查找和更新都不会创建对象
+ * 统计数据在持有锁时写入，读取时不加锁，导出指标的线程不会阻塞绘制
+ *
+ * @author Kingyu
+ */
+public class PipeSpriteCache {
+    private static final int TYPE_COUNT = PipeCourse.TYPE_HOVER_HARD + 1;
+    private static final int HEIGHT_LIMIT = Constant.FRAME_HEIGHT + Constant.TOP_PIPE_LENGTHENING + 1; // 水管高度的上限
+    private static final int NONE = -1;
+
+    private final int capacity; // 缓存图片的最大数量
+    // 以 类型 * HEIGHT_LIMIT + 高度 为下标
+    private final BufferedImage[] sprites = new BufferedImage[TYPE_COUNT * HEIGHT_LIMIT];
+    private final boolean[] cached = new boolean[sprites.length]; // 没有露出主体的水管缓存的是null
+    private final int[] prev = new int[sprites.length]; // 访问顺序链表，head为最近使用的，tail为最久未使用的
+    private final int[] next = new int[sprites.length];
+    private int head = NONE;
+    private int tail = NONE;
+
+    private volatile int size; // 缓存图片的数量
+    private volatile long hits; // 命中次数
+    private volatile long misses; // 未命中次数
+    private volatile long evictions; // 淘汰次数
+
+    public PipeSpriteCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("传入了非法的参数");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * 获取水管图片，未命中时由绘制对象拼接图片并放入缓存
+     *
+     * @param composer 拼接图片的绘制对象
+     * @param type     水管类型
+     * @param height   水管高度
+     * @return 水管主体的图片，水管没有露出的主体时返回null
+     */
+    public synchronized BufferedImage get(Pipe composer, int type, int height) {
+        if (type < 0 || type >= TYPE_COUNT || height < 0 || height >= HEIGHT_LIMIT) { // 超出范围的不缓存
+            misses++;
+            return composer.createSprite(type, height);
+        }
+        int slot = type * HEIGHT_LIMIT + height;
+        if (cached[slot]) {
+            hits++;
+            if (slot != head) {
+                unlink(slot);
+                linkFirst(slot);
+            }
+            return sprites[slot];
+        }
+        misses++;
+        BufferedImage sprite = composer.createSprite(type, height);
+        if (size == capacity) { // 淘汰最久未使用的图片
+            int eldest = tail;
+            unlink(eldest);
+            cached[eldest] = false;
+            sprites[eldest] = null;
+            size--;
+            evictions++;
+        }
+        sprites[slot] = sprite;
+        cached[slot] = true;
+        linkFirst(slot);
+        size++;
+        return sprite;
+    }
+
+    private void linkFirst(int slot) {
+        prev[slot] = NONE;
+        next[slot] = head;
+        if (head != NONE) {
+            prev[head] = slot;
+        } else {
+            tail = slot;
+        }
+        head = slot;
+    }
+
+    private void unlink(int slot) {
+        int p = prev[slot], n = next[slot];
+        if (p != NONE) {
+            next[p] = n;
+        } else {
+            head = n;
+        }
+        if (n != NONE) {
+            prev[n] = p;
+        } else {
+            tail = p;
+        }
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(sprites, null);
+        Arrays.fill(cached, false);
+        head = tail = NONE;
+        size = 0;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+}
@@ -0,0 +1,95 @@
+package com.kingyu.flappybird.component;
+
+import java.io.File;
+
+import com.kingyu.flappybird.util.Constant;
+import com.kingyu.flappybird.util.RunHistory;
+import com.kingyu.flappybird.util.ScoreStore;
+
+/**
+ * 游戏计分器，保存最高纪录和每一局的记录，每个会话（GameContext）持有自己的计分器
+ * 最高纪录和游戏记录都由后台线程写入，只在创建时读取文件，saveScore()和recordRun()不会读写文件；
+ * 不指定存档时只在内存中记录，不创建写入线程；服务器上的大量会话使用withoutHistory()，只记录最高分数
+ *
+ * @author Kingyu
+ *
+ */
+public class ScoreCounter {
+
+	private final ScoreStore store; // 最高纪录的存档
+	private final RunHistory history; // 每一局的记录，为null时不记录
+	private volatile long bestScore; // 最高分数
+
+	// 只在内存中记录的计分器
+	public ScoreCounter() {
+		this((File) null, null);
+	}
+
+	/**
+	 * @param scoreFile   最高纪录的存档，为null时只在内存中记录
+	 * @param historyFile 游戏记录的存档，为null时只在内存中记录
+	 */
+	public ScoreCounter(File scoreFile, File historyFile) {
+		this(new ScoreStore(scoreFile), new RunHistory(historyFile, Constant.TOP_RUN_COUNT,
+				Constant.HISTORY_MAX_SCORE, Constant.HISTORY_COMPACT_THRESHOLD));
+	}
+
+	private ScoreCounter(ScoreStore store, RunHistory history) {
+		this.store = store;
+		this.history = history;
+		loadBestScore();
+	}
+
+	// 只在内存中记录最高分数、不记录每一局的计分器，不分配排名所需的统计结构，无窗口的服务器会话使用
+	public static ScoreCounter withoutHistory() {
+		return new ScoreCounter(new ScoreStore(null), null);
+	}
+
+	// 使用默认存档的计分器，窗口游戏使用
+	public static ScoreCounter openDefault() {
+		return new ScoreCounter(new File(Constant.SCORE_FILE_PATH), new File(Constant.HISTORY_FILE_PATH));
+	}
+
+	// 装载最高纪录，存档不存在或已损坏时为-1
+	private void loadBestScore() {
+		bestScore = store.load();
+	}
+
+	// 刷新最高纪录，只在打破纪录时登记写入
+	public void saveScore(long score) {
+		if (score > bestScore) {
+			bestScore = score;
+			store.submit(score);
+		}
+	}
+
+	/**
+	 * 记录结束的一局游戏，并刷新最高纪录
+	 *
+	 * @param score 分数
+	 * @param ticks 时长，单位为帧
+	 * @param seed  这局游戏的种子
+	 * @return 这一局在所有记录中的排名，不记录每一局时为null
+	 */
+	public RunHistory.Standing recordRun(long score, long ticks, long seed) {
+		saveScore(score);
+		if (history == null) {
+			return null;
+		}
+		return history.append(new RunHistory.Run(score, ticks, seed, System.currentTimeMillis()));
+	}
+
+	public long getBestScore() {
+		return bestScore;
+	}
+
+	public ScoreStore getStore() {
+		return store;
+	}
+
+	// 每一局的记录，由withoutHistory()创建时为null
+	public RunHistory getHistory() {
+		return history;
+	}
+
+}
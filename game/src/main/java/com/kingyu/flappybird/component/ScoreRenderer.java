@@ -0,0 +1,105 @@
+package com.kingyu.flappybird.component;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+import com.kingyu.flappybird.util.GameUtil;
+
+/**
+ * 分数绘制器，创建时将0~9的数字按字体绘制成图片并记录宽度，
+ * 绘制分数时逐位绘制数字图片，不创建字符串，也不重复测量字体
+ *
+ * @author Kingyu
+ */
+public class ScoreRenderer {
+    private static final int DIGIT_COUNT = 10;
+
+    private final BufferedImage[] digits = new BufferedImage[DIGIT_COUNT]; // 数字图片
+    private final int[] widths = new int[DIGIT_COUNT]; // 数字的宽度
+    private final int ascent; // 基线以上的高度
+    private final int height; // 文字的高度
+
+    /**
+     * @param font  字体，系统中没有该字体时使用同样式和大小的无衬线字体
+     * @param color 文字颜色
+     */
+    public ScoreRenderer(Font font, Color color) {
+        font = resolveFont(font);
+        // 借助一张图片获得字体的度量
+        Graphics g = GameUtil.createCompatibleImage(1, 1, Transparency.BITMASK).getGraphics();
+        FontMetrics metrics = g.getFontMetrics(font);
+        g.dispose();
+        ascent = metrics.getAscent();
+        height = metrics.getHeight();
+        for (int i = 0; i < DIGIT_COUNT; i++) {
+            char c = (char) ('0' + i);
+            widths[i] = metrics.charWidth(c);
+            digits[i] = GameUtil.createCompatibleImage(Math.max(widths[i], 1), height, Transparency.BITMASK);
+            Graphics dg = digits[i].getGraphics();
+            dg.setFont(font);
+            dg.setColor(color);
+            dg.drawString(String.valueOf(c), 0, ascent);
+            dg.dispose();
+        }
+    }
+
+    // 系统中没有指定的字体时（如Linux中没有华文琥珀），Font会退回到Dialog字体，此处统一改为无衬线字体
+    private static Font resolveFont(Font font) {
+        if (GraphicsEnvironment.isHeadless()
+                || Arrays.asList(GraphicsEnvironment.getLocalGraphicsEnvironment().getAvailableFontFamilyNames())
+                .contains(font.getFamily())) {
+            return font;
+        }
+        return new Font(Font.SANS_SERIF, font.getStyle(), font.getSize());
+    }
+
+    /**
+     * 分数的宽度
+     *
+     * @param score 分数，不小于0
+     * @return 宽度
+     */
+    public int getWidth(long score) {
+        int width = 0;
+        do {
+            width += widths[(int) (score % 10)];
+            score /= 10;
+        } while (score > 0);
+        return width;
+    }
+
+    // 文字的高度
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * 绘制分数，从最低位开始由右向左绘制
+     *
+     * @param g        画笔
+     * @param score    分数，不小于0
+     * @param x        分数左侧的x坐标
+     * @param baseline 文字基线的y坐标，与drawString的y坐标相同
+     */
+    public void draw(Graphics g, long score, int x, int baseline) {
+        int right = x + getWidth(score);
+        int y = baseline - ascent;
+        do {
+            int digit = (int) (score % 10);
+            right -= widths[digit];
+            g.drawImage(digits[digit], right, y, null);
+            score /= 10;
+        } while (score > 0);
+    }
+
+    // 绘制居中的分数
+    public void drawCentered(Graphics g, long score, int centerX, int baseline) {
+        draw(g, score, centerX - (getWidth(score) >> 1), baseline);
+    }
+}
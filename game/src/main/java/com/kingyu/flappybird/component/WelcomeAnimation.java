@@ -1,5 +1,6 @@
 package com.kingyu.flappybird.component;
 
+import com.kingyu.flappybird.util.AssetManager;
 import com.kingyu.flappybird.util.Constant;
 import com.kingyu.flappybird.util.GameUtil;
 
@@ -17,24 +18,29 @@ public class WelcomeAnimation {
 	private final BufferedImage titleImg;
 	private final BufferedImage noticeImg;
 
-	private int flashCount = 0; // 图像闪烁参数
+	private static final int CYCLE = 30; // 闪烁周期
 
 	public WelcomeAnimation() {
-		titleImg = GameUtil.loadBufferedImage(Constant.TITLE_IMG_PATH);
-		noticeImg = GameUtil.loadBufferedImage(Constant.NOTICE_IMG_PATH);
+		titleImg = AssetManager.getInstance().getImage(Constant.TITLE_IMG_PATH);
+		noticeImg = AssetManager.getInstance().getImage(Constant.NOTICE_IMG_PATH);
 	}
 
-	public void draw(Graphics g) {
+	/**
+	 * @param ticks 模拟引擎的帧数，用于计算闪烁的状态
+	 */
+	public void draw(Graphics g, long ticks) {
 		int x = (Constant.FRAME_WIDTH - titleImg.getWidth()) >> 1;
 		int y = Constant.FRAME_HEIGHT / 3;
 		g.drawImage(titleImg, x, y, null);
 
 		// 使notice的图像闪烁
-		final int CYCLE = 30; // 闪烁周期
-		if (flashCount++ > CYCLE)
+		if (isNoticeVisible(ticks))
 			GameUtil.drawImage(noticeImg, Constant.FRAME_WIDTH - noticeImg.getWidth() >> 1, Constant.FRAME_HEIGHT / 5 * 3, g);
-		if (flashCount == CYCLE * 2)
-			flashCount = 0;
+	}
+
+	// notice的图像是否显示，每个闪烁周期的后一半显示
+	public static boolean isNoticeVisible(long ticks) {
+		return ticks % (CYCLE * 2) > CYCLE;
 	}
 
 }
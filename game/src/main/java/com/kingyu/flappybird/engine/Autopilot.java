@@ -0,0 +1,40 @@
+package com.kingyu.flappybird.engine;
+
+/**
+ * 简单的自动驾驶，根据前方水管的空隙决定是否振翅，用于无窗口运行时产生输入
+ *
+ * @author Kingyu
+ */
+public class Autopilot {
+
+    public static final int MARGIN = 12; // 小鸟与空隙下沿保持的距离
+
+    /**
+     * 根据引擎当前的状态操作一帧，应在每次tick()之前调用
+     *
+     * @param engine 模拟引擎
+     */
+    public void control(GameEngine engine) {
+        engine.flapReleased();
+        if (engine.getGameState() != GameEngine.GAME_START) {
+            if (engine.getGameState() == GameEngine.GAME_READY) {
+                engine.flapPressed();
+            }
+            return;
+        }
+        BirdModel bird = engine.getBird();
+        Rect birdRect = bird.getBirdCollisionRect();
+        int gapBottom = BirdModel.BOTTOM_BOUNDARY - EngineConstant.FRAME_HEIGHT / 4;
+        EntityStore pipes = engine.getCourse().getPipes();
+        // 水管成对出现，找到小鸟前方的第一对水管
+        for (int i = 0; i + 1 < pipes.size(); i += 2) {
+            if (pipes.getX(i + 1) + pipes.getWidth(i + 1) >= birdRect.x) {
+                gapBottom = pipes.getY(i + 1) + pipes.getDealtY(i + 1);
+                break;
+            }
+        }
+        if (birdRect.y + birdRect.height > gapBottom - MARGIN && bird.getVelocity() <= 0) {
+            engine.flapPressed();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.kingyu.flappybird.engine;
+
+/**
+ * 小鸟的模拟模型，实现小鸟的飞行逻辑
+ *
+ * @author Kingyu
+ */
+public class BirdModel {
+    // 小鸟的状态
+    public static final int BIRD_NORMAL = 0;
+    public static final int BIRD_UP = 1;
+    public static final int BIRD_FALL = 2;
+    public static final int BIRD_DEAD_FALL = 3;
+    public static final int BIRD_DEAD = 4;
+
+    public static final int RECT_DESCALE = 2; // 补偿碰撞矩形宽高的参数
+
+    public static final int ACC_FLAP = 14; // players speed on flapping
+    public static final double ACC_Y = 2; // players downward acceleration
+    public static final int MAX_VEL_Y = 15; // max vel along Y, max descend speed
+    public static final int BOTTOM_BOUNDARY = EngineConstant.FRAME_HEIGHT - EngineConstant.BG_IMG_HEIGHT / 2; // 地面的y坐标
+
+    private final GameEngine engine;
+
+    private final int x;
+    private int y; // 小鸟的坐标
+    private int wingState; // 翅膀状态
+    private int state; // 小鸟的状态
+    private int velocity = 0; // bird's velocity along Y, default same as playerFlapped
+    private int deltaY; // 上一帧碰撞矩形在y方向的位移，用于扫掠碰撞检测
+
+    private final Rect birdCollisionRect; // 碰撞矩形
+
+    private boolean keyFlag = true; // 按键状态，true为已释放，使当按住按键时不会重复调用方法
+
+    BirdModel(GameEngine engine) {
+        this.engine = engine;
+
+        // 初始化小鸟的坐标
+        x = EngineConstant.FRAME_WIDTH >> 2;
+        y = EngineConstant.FRAME_HEIGHT >> 1;
+
+        // 初始化碰撞矩形
+        int rectX = x - EngineConstant.BIRD_WIDTH / 2;
+        int rectY = y - EngineConstant.BIRD_HEIGHT / 2;
+        birdCollisionRect = new Rect(rectX + RECT_DESCALE, rectY + RECT_DESCALE * 2,
+                EngineConstant.BIRD_WIDTH - RECT_DESCALE * 3, EngineConstant.BIRD_WIDTH - RECT_DESCALE * 4); // 碰撞矩形的坐标与小鸟相同
+    }
+
+    // 小鸟的飞行逻辑
+    void movement() {
+        // 翅膀状态，实现小鸟振翅飞行
+        wingState++;
+        deltaY = 0;
+        if (state == BIRD_FALL || state == BIRD_DEAD_FALL) {
+            freeFall();
+            if (birdCollisionRect.y > BOTTOM_BOUNDARY) {
+                if (state == BIRD_FALL) {
+                    engine.getListener().onCrash();
+                }
+                die();
+            }
+        }
+    }
+
+    private void freeFall() {
+        if (velocity < MAX_VEL_Y)
+            velocity -= ACC_Y;
+        y = Math.min((y - velocity), BOTTOM_BOUNDARY);
+        birdCollisionRect.y = birdCollisionRect.y - velocity;
+        deltaY = -velocity;
+    }
+
+    private void die() {
+        state = BIRD_DEAD;
+        engine.gameOver();
+    }
+
+    // 小鸟振翅
+    void birdFlap() {
+        if (keyIsReleased()) {
+            if (isDead())
+                return;
+            engine.getListener().onFlap();
+            state = BIRD_UP;
+            if (birdCollisionRect.y > EngineConstant.TOP_BAR_HEIGHT) {
+                velocity = ACC_FLAP; // 每次振翅将速度改为上升速度
+                wingState = 0; // 重置翅膀状态
+            }
+            keyFlag = false;
+        }
+    }
+
+    // 小鸟下降
+    void birdFall() {
+        if (isDead())
+            return;
+        state = BIRD_FALL;
+    }
+
+    // 小鸟坠落（已死）
+    void deadBirdFall() {
+        state = BIRD_DEAD_FALL;
+        engine.getListener().onCrash();
+        velocity = 0;  // 速度置0，防止小鸟继续上升与水管重叠
+    }
+
+    // 判断小鸟是否死亡
+    public boolean isDead() {
+        return state == BIRD_DEAD_FALL || state == BIRD_DEAD;
+    }
+
+    // 重置小鸟
+    void reset() {
+        state = BIRD_NORMAL; // 小鸟状态
+        y = EngineConstant.FRAME_HEIGHT >> 1; // 小鸟坐标
+        velocity = 0; // 小鸟速度
+        deltaY = 0;
+        birdCollisionRect.y = y - EngineConstant.BIRD_HEIGHT / 2 + RECT_DESCALE * 2; // 小鸟碰撞矩形坐标
+    }
+
+    void keyReleased() {
+        keyFlag = true;
+    }
+
+    void setKeyReleased(boolean released) {
+        keyFlag = released;
+    }
+
+    public boolean keyIsReleased() {
+        return keyFlag;
+    }
+
+    public int getBirdX() {
+        return x;
+    }
+
+    public int getBirdY() {
+        return y;
+    }
+
+    public int getState() {
+        return state;
+    }
+
+    public int getWingState() {
+        return wingState;
+    }
+
+    public int getVelocity() {
+        return velocity;
+    }
+
+    // 上一帧碰撞矩形在y方向的位移
+    public int getDeltaY() {
+        return deltaY;
+    }
+
+    // 获取小鸟的碰撞矩形
+    public Rect getBirdCollisionRect() {
+        return birdCollisionRect;
+    }
+}
@@ -0,0 +1,60 @@
+package com.kingyu.flappybird.engine;
+
+/**
+ * 水管与小鸟的碰撞检测
+ * 粗检测：赛道中的水管按x坐标从小到大排列（新水管总是添加在最右侧，且所有水管速度相同），
+ * 二分查找出与小鸟所在列重叠的水管，只检测这些水管，检测的开销与赛道长度无关；
+ * 细检测：以水管为参照，小鸟在一帧内向右移动了水管的速度，并在竖直方向移动了自身的位移，沿这段运动做扫掠检测
+ *
+ * @author Kingyu
+ */
+public class CollisionDetector {
+
+    private CollisionDetector() {
+    } // 私有化，防止其他类实例化此类
+
+    /**
+     * 查找与小鸟碰撞的水管，水管的碰撞矩形为(x, y + dealtY, width, height)
+     *
+     * @param pipes  按x坐标从小到大排列的水管
+     * @param bird   小鸟的碰撞矩形
+     * @param speed  水管在一帧内向左移动的距离
+     * @param deltaY 小鸟在一帧内竖直方向的位移
+     * @return 第一根碰撞的水管的序号，没有碰撞返回-1
+     */
+    public static int findCollision(EntityStore pipes, Rect bird, int speed, int deltaY) {
+        int minX = bird.x - speed; // 小鸟在一帧内扫过的列
+        int maxX = bird.x + bird.width;
+        for (int i = firstInColumn(pipes, minX); i < pipes.size; i++) {
+            int k = pipes.slot(i);
+            if (pipes.x[k] >= maxX) { // 之后的水管都在小鸟的右侧
+                break;
+            }
+            if (bird.sweptIntersects(speed, deltaY, pipes.x[k], pipes.y[k] + pipes.dealtY[k], pipes.width[k],
+                    pipes.height[k])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 二分查找第一根右边缘位于minX右侧的水管，水管的宽度相同，因此右边缘同样有序
+     *
+     * @return 水管的序号，所有水管都在minX左侧时返回水管的数量
+     */
+    static int firstInColumn(EntityStore pipes, int minX) {
+        int low = 0;
+        int high = pipes.size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int k = pipes.slot(mid);
+            if (pipes.x[k] + pipes.width[k] <= minX) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
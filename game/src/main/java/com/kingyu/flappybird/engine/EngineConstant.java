@@ -0,0 +1,38 @@
+package com.kingyu.flappybird.engine;
+
+/**
+ * 模拟引擎使用的常量：画面尺寸、游戏速度、逻辑帧率和图片资源的尺寸
+ * 不依赖AWT，绘制相关的颜色、字体和资源路径见util.Constant
+ *
+ * @author Kingyu
+ */
+public class EngineConstant {
+    // 画面尺寸，也是窗口的尺寸
+    public static final int FRAME_WIDTH = 420;
+    public static final int FRAME_HEIGHT = 640;
+
+    // 游戏速度（水管及背景层的移动速度）
+    public static final int GAME_SPEED = 4;
+
+    // 游戏逻辑的刷新率，每秒推进的逻辑帧数
+    public static final int TICK_RATE = 30;
+
+    // 标题栏高度，小鸟不能飞出标题栏
+    public static final int TOP_BAR_HEIGHT = 20;
+
+    // 图片资源的尺寸，模拟引擎不加载图片，修改图片资源时需同步修改
+    public static final int BIRD_WIDTH = 39;
+    public static final int BIRD_HEIGHT = 33;
+    public static final int PIPE_WIDTH = 40;
+    public static final int PIPE_HEIGHT = 20;
+    public static final int PIPE_HEAD_WIDTH = 44;
+    public static final int PIPE_HEAD_HEIGHT = 25;
+    public static final int BG_IMG_WIDTH = 253;
+    public static final int BG_IMG_HEIGHT = 84;
+
+    // 上方管道加长
+    public static final int TOP_PIPE_LENGTHENING = 100;
+
+    private EngineConstant() {
+    } // 私有化，防止其他类实例化此类
+}
@@ -0,0 +1,175 @@
+package com.kingyu.flappybird.engine;
+
+/**
+ * 实体存储，以并列的int数组保存水管、云朵等实体的属性，取代每个实体一个对象
+ * 实体按加入的顺序从队尾加入、从队首移除（先进先出的环形队列），加入和移除都不会分配内存；
+ * 队列相当于一个槽位池：加入实体时有空闲槽位记为命中，容量不足需要扩容为两倍时记为未命中，
+ * 统计方式与原先的水管对象池相同，稳定运行后只有命中
+ * 属性的含义由使用者决定，如水管的type为水管类型，云朵的type为图片的下标
+ *
+ * @author Kingyu
+ */
+public class EntityStore {
+    // 实体的属性，按槽位存放
+    int[] x;
+    int[] y;
+    int[] width;
+    int[] height;
+    int[] type;
+    int[] dealtY; // 竖直方向的偏移
+    int[] direction; // 竖直方向的移动方向
+
+    int head; // 队首的槽位
+    int size; // 实体的数量
+    int mask; // 容量-1，容量为2的幂，用位运算代替取模
+
+    // 统计数据
+    private long hits; // 复用空闲槽位加入实体的次数
+    private long misses; // 没有空闲槽位、扩容后才加入实体的次数
+
+    /**
+     * @param capacity 初始容量，向上取整为2的幂
+     */
+    public EntityStore(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("传入了非法的参数");
+        }
+        int n = 1;
+        while (n < capacity) {
+            n <<= 1;
+        }
+        allocate(n);
+    }
+
+    // 分配容量为capacity的数组，capacity为2的幂
+    private void allocate(int capacity) {
+        x = new int[capacity];
+        y = new int[capacity];
+        width = new int[capacity];
+        height = new int[capacity];
+        type = new int[capacity];
+        dealtY = new int[capacity];
+        direction = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    // 容量翻倍，按队列顺序复制到新数组的开头
+    private void grow() {
+        int[][] old = {x, y, width, height, type, dealtY, direction};
+        int oldHead = head;
+        int oldMask = mask;
+        allocate((mask + 1) << 1);
+        int[][] now = {x, y, width, height, type, dealtY, direction};
+        for (int a = 0; a < old.length; a++) {
+            for (int i = 0; i < size; i++) {
+                now[a][i] = old[a][(oldHead + i) & oldMask];
+            }
+        }
+        head = 0;
+    }
+
+    /**
+     * 在队尾加入实体，偏移和方向置0
+     *
+     * @return 实体在队列中的序号
+     */
+    public int add(int x, int y, int width, int height, int type) {
+        if (size > mask) {
+            grow();
+            misses++;
+        } else {
+            hits++;
+        }
+        int slot = (head + size) & mask;
+        this.x[slot] = x;
+        this.y[slot] = y;
+        this.width[slot] = width;
+        this.height[slot] = height;
+        this.type[slot] = type;
+        dealtY[slot] = 0;
+        direction[slot] = 0;
+        return size++;
+    }
+
+    // 移除队首的实体
+    public void removeFirst() {
+        if (size == 0) {
+            return;
+        }
+        head = (head + 1) & mask;
+        size--;
+    }
+
+    // 移除所有实体
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    // 所有实体在水平方向移动dx
+    public void translateX(int dx) {
+        for (int i = 0; i < size; i++) {
+            x[(head + i) & mask] += dx;
+        }
+    }
+
+    // 序号为index的实体所在的槽位，序号0为最早加入的实体
+    int slot(int index) {
+        return (head + index) & mask;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getX(int index) {
+        return x[slot(index)];
+    }
+
+    public int getY(int index) {
+        return y[slot(index)];
+    }
+
+    public int getWidth(int index) {
+        return width[slot(index)];
+    }
+
+    public int getHeight(int index) {
+        return height[slot(index)];
+    }
+
+    public int getType(int index) {
+        return type[slot(index)];
+    }
+
+    public int getDealtY(int index) {
+        return dealtY[slot(index)];
+    }
+
+    public int getDirection(int index) {
+        return direction[slot(index)];
+    }
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    // 空闲槽位的个数
+    public int getFree() {
+        return mask + 1 - size;
+    }
+
+    // 加入的实体总数
+    public long getSpawned() {
+        return hits + misses;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    // 未命中的次数，也是扩容的次数
+    public long getMisses() {
+        return misses;
+    }
+}
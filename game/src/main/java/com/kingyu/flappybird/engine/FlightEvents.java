@@ -0,0 +1,159 @@
+package com.kingyu.flappybird.engine;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 游戏的JFR（Java飞行记录器）事件，与垃圾回收、音频、文件读写等事件记录在同一份录制中，用于定位卡顿的原因
+ * 没有开启录制时，事件对象经逃逸分析后不会被创建，isEnabled()的判断开销接近于零；
+ * 每一帧都会发出的Tick和Frame事件由游戏循环复用同一个对象，begin()和end()每次都会重新记录起止时间。
+ * 录制方式：java -XX:StartFlightRecording=filename=game.jfr -jar flappybird.jar
+ *
+ * @author Kingyu
+ */
+public class FlightEvents {
+    private static final String CATEGORY = "Flappy Bird";
+
+    // 水管种类，与PipeCourse中的类型对应
+    public static final String PIPE_NORMAL = "normal";
+    public static final String PIPE_HOVER = "hover";
+    public static final String PIPE_MOVING = "moving";
+    public static final String PIPE_MOVING_HOVER = "moving-hover";
+
+    private static final String[] STATE_NAMES = { "ready", "start", "over" }; // 与GameEngine的游戏状态对应
+
+    private FlightEvents() {
+    } // 私有化，防止其他类实例化此类
+
+    @Name("com.kingyu.flappybird.Tick")
+    @Label("Tick")
+    @Category({ CATEGORY, "Game Loop" })
+    @Description("Advances the game logic by one tick, including queued input")
+    @StackTrace(false)
+    public static class Tick extends Event {
+        @Label("Tick")
+        public long tick;
+    }
+
+    @Name("com.kingyu.flappybird.Frame")
+    @Label("Frame")
+    @Category({ CATEGORY, "Game Loop" })
+    @Description("Draws and presents one frame; skipped when nothing changed")
+    @StackTrace(false)
+    public static class Frame extends Event {
+        @Label("Frame")
+        public long frame;
+
+        @Label("Skipped")
+        public boolean skipped;
+    }
+
+    @Name("com.kingyu.flappybird.PipeSpawn")
+    @Label("Pipe Spawn")
+    @Category({ CATEGORY, "Course" })
+    @StackTrace(false)
+    public static class PipeSpawn extends Event {
+        @Label("Kind")
+        @Description("normal, hover, moving or moving-hover")
+        public String kind;
+
+        @Label("X")
+        public int x;
+
+        @Label("Y")
+        public int y;
+
+        @Label("Height")
+        public int height;
+    }
+
+    @Name("com.kingyu.flappybird.Collision")
+    @Label("Collision")
+    @Category({ CATEGORY, "Course" })
+    @StackTrace(false)
+    public static class Collision extends Event {
+        @Label("Pipe Kind")
+        public String kind;
+
+        @Label("Bird Y")
+        public int birdY;
+
+        @Label("Score")
+        public long score;
+    }
+
+    @Name("com.kingyu.flappybird.Score")
+    @Label("Score")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static class Score extends Event {
+        @Label("Score")
+        public long score;
+
+        @Label("Game Ticks")
+        public long gameTicks;
+    }
+
+    @Name("com.kingyu.flappybird.StateChange")
+    @Label("Game State Change")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static class StateChange extends Event {
+        @Label("From")
+        public String from;
+
+        @Label("To")
+        public String to;
+
+        @Label("Game Seed")
+        public long gameSeed;
+
+        @Label("Score")
+        public long score;
+    }
+
+    public static void pipeSpawned(String kind, int x, int y, int height) {
+        PipeSpawn event = new PipeSpawn();
+        if (event.isEnabled()) {
+            event.kind = kind;
+            event.x = x;
+            event.y = y;
+            event.height = height;
+            event.commit();
+        }
+    }
+
+    public static void collided(String kind, int birdY, long score) {
+        Collision event = new Collision();
+        if (event.isEnabled()) {
+            event.kind = kind;
+            event.birdY = birdY;
+            event.score = score;
+            event.commit();
+        }
+    }
+
+    public static void scored(long score, long gameTicks) {
+        Score event = new Score();
+        if (event.isEnabled()) {
+            event.score = score;
+            event.gameTicks = gameTicks;
+            event.commit();
+        }
+    }
+
+    public static void stateChanged(int from, int to, long gameSeed, long score) {
+        StateChange event = new StateChange();
+        if (event.isEnabled()) {
+            event.from = STATE_NAMES[from];
+            event.to = STATE_NAMES[to];
+            event.gameSeed = gameSeed;
+            event.score = score;
+            event.commit();
+        }
+    }
+}
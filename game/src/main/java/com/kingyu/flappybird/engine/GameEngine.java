@@ -0,0 +1,233 @@
+package com.kingyu.flappybird.engine;
+
+/**
+ * 游戏模拟引擎，负责游戏状态、小鸟的物理运动、水管赛道、计分和碰撞检测
+ * 引擎不依赖AWT，每调用一次tick()推进一帧，可以在没有窗口的环境中全速运行；
+ * 游戏的各个组件只负责根据引擎的状态进行绘制
+ *
+ * @author Kingyu
+ */
+public class GameEngine {
+    // 游戏状态
+    public static final int GAME_READY = 0; // 游戏未开始
+    public static final int GAME_START = 1; // 游戏开始
+    public static final int STATE_OVER = 2; // 游戏结束
+
+    private int gameState; // 游戏状态
+    private final BirdModel bird; // 小鸟
+    private final PipeCourse course; // 水管赛道
+    private long score; // 当前分数
+    private int layerX; // 背景层的坐标
+    private long ticks; // 已推进的帧数
+    private long startTick; // 这局游戏开始时的帧数
+
+    private final long seed; // 会话的种子
+    private final GameRandom sessionRandom; // 为每局游戏生成种子
+    private final GameRandom cosmeticRandom; // 云朵等装饰使用的随机数，与赛道的随机序列互不影响
+    private GameRandom courseRandom; // 当前这局游戏的赛道使用的随机数
+    private long gameSeed; // 当前这局游戏的种子
+
+    private GameListener listener = GameListener.NONE;
+    private ReplayRecorder recorder; // 录像录制器，为null时不录制
+
+    public GameEngine() {
+        this(System.nanoTime());
+    }
+
+    /**
+     * @param seed 会话的种子，相同的种子和相同的输入得到相同的游戏过程
+     */
+    public GameEngine(long seed) {
+        this.seed = seed;
+        sessionRandom = new GameRandom(seed);
+        cosmeticRandom = sessionRandom.split();
+        bird = new BirdModel(this);
+        course = new PipeCourse(this);
+        setGameState(GAME_READY);
+        startGame(sessionRandom.nextLong());
+    }
+
+    // 开始新的一局游戏，赛道使用由种子生成的随机序列
+    private void startGame(long gameSeed) {
+        this.gameSeed = gameSeed;
+        startTick = ticks;
+        courseRandom = new GameRandom(gameSeed);
+        if (recorder != null) {
+            recorder.begin(gameSeed, bird.keyIsReleased(), ticks);
+        }
+    }
+
+    /**
+     * 推进一帧，顺序与原先的绘制顺序一致：背景层、游戏元素层、小鸟
+     */
+    public void tick() {
+        ticks++;
+        if (!bird.isDead()) {
+            // 背景层的运动逻辑，小鸟死亡则不再移动
+            layerX += EngineConstant.GAME_SPEED;
+            if (layerX > EngineConstant.BG_IMG_WIDTH)
+                layerX = 0;
+        }
+        if (gameState != GAME_READY) {
+            course.tick(bird);
+        }
+        bird.movement();
+    }
+
+    /**
+     * 按下振翅键，根据游戏当前的状态执行不同的操作
+     */
+    public void flapPressed() {
+        if (recorder != null && gameState != STATE_OVER) {
+            recorder.record(false, ticks);
+        }
+        switch (gameState) {
+            case GAME_READY:
+                // 游戏启动界面时按下，小鸟振翅一次并开始受重力影响
+                bird.birdFlap();
+                bird.birdFall();
+                setGameState(GAME_START); // 游戏状态改变
+                break;
+            case GAME_START:
+                //游戏过程中按下则振翅一次，并持续受重力影响
+                bird.birdFlap();
+                bird.birdFall();
+                break;
+            case STATE_OVER:
+                //游戏结束时按下，重新开始游戏
+                reset();
+                break;
+        }
+    }
+
+    // 松开振翅键
+    public void flapReleased() {
+        if (recorder != null && gameState != STATE_OVER) {
+            recorder.record(true, ticks);
+        }
+        bird.keyReleased();
+    }
+
+    // 重新开始游戏，新的一局使用会话生成的下一个种子
+    public void reset() {
+        reset(sessionRandom.nextLong());
+    }
+
+    /**
+     * 以指定的种子重新开始游戏，用于重现某一局游戏
+     *
+     * @param gameSeed 这局游戏的种子
+     */
+    public void reset(long gameSeed) {
+        setGameState(GAME_READY);
+        course.reset();
+        bird.reset();
+        score = 0;
+        startGame(gameSeed);
+    }
+
+    // 得分
+    void score() {
+        if (!bird.isDead()) {
+            score += 1;
+            FlightEvents.scored(score, getGameTicks());
+            listener.onScore(score);
+        }
+    }
+
+    // 小鸟落地，游戏结束
+    void gameOver() {
+        setGameState(STATE_OVER);
+        if (recorder != null) {
+            recorder.finish(score, ticks);
+        }
+        listener.onGameOver(score);
+    }
+
+    private void setGameState(int gameState) {
+        if (gameState != this.gameState) {
+            FlightEvents.stateChanged(this.gameState, gameState, this.gameSeed, score);
+        }
+        this.gameState = gameState;
+    }
+
+    public int getGameState() {
+        return gameState;
+    }
+
+    public BirdModel getBird() {
+        return bird;
+    }
+
+    public PipeCourse getCourse() {
+        return course;
+    }
+
+    public long getCurrentScore() {
+        return score;
+    }
+
+    public int getLayerX() {
+        return layerX;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    // 这局游戏开始后推进的帧数
+    public long getGameTicks() {
+        return ticks - startTick;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getGameSeed() {
+        return gameSeed;
+    }
+
+    // 赛道使用的随机数，只能在推进游戏的线程中使用
+    GameRandom getCourseRandom() {
+        return courseRandom;
+    }
+
+    // 装饰使用的随机数，只能在绘制画面的线程中使用
+    public GameRandom getCosmeticRandom() {
+        return cosmeticRandom;
+    }
+
+    GameListener getListener() {
+        return listener;
+    }
+
+    public void setListener(GameListener listener) {
+        this.listener = listener == null ? GameListener.NONE : listener;
+    }
+
+    /**
+     * 设置录像录制器，游戏尚未开始时从当前这局开始录制，否则从下一局开始录制
+     * 输入方法与tick()必须在同一线程中调用（如通过InputQueue），否则录制的帧序号与输入实际生效的帧不一致
+     *
+     * @param recorder 录制器，为null时停止录制
+     */
+    public void setRecorder(ReplayRecorder recorder) {
+        this.recorder = recorder;
+        if (recorder != null && gameState == GAME_READY) {
+            recorder.begin(gameSeed, bird.keyIsReleased(), ticks);
+        }
+    }
+
+    /**
+     * 开启或关闭水管赛道各阶段耗时的统计，见PipeCourse.getStageNanos()；不统计时不调用System.nanoTime()
+     */
+    public void setProfiling(boolean profiling) {
+        course.setProfiling(profiling);
+    }
+
+    // 设置振翅键的状态，用于重放时还原开局时的按键状态
+    void setKeyReleased(boolean released) {
+        bird.setKeyReleased(released);
+    }
+}
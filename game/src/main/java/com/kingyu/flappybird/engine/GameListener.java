@@ -0,0 +1,29 @@
+package com.kingyu.flappybird.engine;
+
+/**
+ * 游戏事件监听器，模拟引擎通过它通知音效、存档等与模拟无关的操作
+ * 所有方法在调用tick()或输入方法的线程上执行，实现中不应有耗时操作
+ *
+ * @author Kingyu
+ */
+public interface GameListener {
+
+    GameListener NONE = new GameListener() {
+    }; // 不做任何处理的监听器，无窗口运行时使用
+
+    // 小鸟振翅
+    default void onFlap() {
+    }
+
+    // 小鸟撞到水管或地面
+    default void onCrash() {
+    }
+
+    // 得分，参数为得分后的分数
+    default void onScore(long score) {
+    }
+
+    // 游戏结束，参数为本局的分数
+    default void onGameOver(long score) {
+    }
+}
@@ -0,0 +1,71 @@
+package com.kingyu.flappybird.engine;
+
+import java.util.SplittableRandom;
+
+/**
+ * 游戏的随机数，基于SplittableRandom，相同的种子产生相同的随机序列
+ * 不加锁，每个随机数对象只应由一个线程使用；需要独立的随机序列时使用split()
+ *
+ * @author Kingyu
+ */
+public class GameRandom {
+    private final SplittableRandom random;
+
+    public GameRandom(long seed) {
+        random = new SplittableRandom(seed);
+    }
+
+    private GameRandom(SplittableRandom random) {
+        this.random = random;
+    }
+
+    /**
+     * 分出一个独立的随机数对象，两者的随机序列互不影响
+     */
+    public GameRandom split() {
+        return new GameRandom(random.split());
+    }
+
+    /**
+     * 返回指定区间的一个随机数
+     *
+     * @param min 区间最小值，包含
+     * @param max 区间最大值，不包含；不大于min时返回min
+     * @return 该区间的随机数
+     */
+    public int nextInt(int min, int max) {
+        return max <= min ? min : random.nextInt(min, max);
+    }
+
+    public long nextLong() {
+        return random.nextLong();
+    }
+
+    /**
+     * 返回指定区间的一个随机小数
+     *
+     * @param min 区间最小值，包含
+     * @param max 区间最大值，不包含
+     */
+    public double nextDouble(double min, double max) {
+        return max <= min ? min : random.nextDouble(min, max);
+    }
+
+    /**
+     * 判断任意概率的概率性事件是否发生
+     *
+     * @param numerator   分子，不大于0时一定不发生
+     * @param denominator 分母
+     * @return 概率性事件发生返回true，否则返回false
+     */
+    public boolean isInProbability(int numerator, int denominator) {
+        if (numerator <= 0) {
+            return false;
+        }
+        //分子大于分母，一定发生
+        if (numerator >= denominator) {
+            return true;
+        }
+        return nextInt(1, denominator + 1) <= numerator;
+    }
+}
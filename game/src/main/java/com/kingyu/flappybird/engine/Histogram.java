@@ -0,0 +1,117 @@
+package com.kingyu.flappybird.engine;
+
+import java.util.Arrays;
+
+/**
+ * 对数分桶的直方图，用于统计耗时、延迟等非负数值的分布
+ * 小于64的值每个值一个桶，更大的值每个2的幂区间分为32个桶，相对误差不超过约3%，超过2^40的值计入最后一个桶。
+ * 记录一个值只需常数时间且不产生对象；只能由一个线程记录，其他线程读取的是近似的结果
+ *
+ * @author Kingyu
+ */
+public class Histogram {
+    private static final int SUB_BITS = 6;
+    private static final int SUB_COUNT = 1 << SUB_BITS; // 精确计数的值的个数
+    private static final int HALF_COUNT = SUB_COUNT >> 1; // 每个2的幂区间的桶数
+    private static final int MAX_BITS = 40; // 可以区分的最大值的位数
+    private static final int BUCKET_COUNT = SUB_COUNT + (MAX_BITS - SUB_BITS) * HALF_COUNT;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long count; // 记录的次数
+    private long sum; // 记录的值的总和
+    private long max; // 记录的最大值
+
+    /**
+     * 记录一个值，负数按0计算
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts[index(value)]++;
+        count++;
+        sum += value;
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    // 值所在的桶
+    static int index(long value) {
+        if (value < SUB_COUNT) {
+            return (int) value;
+        }
+        int msb = 63 - Long.numberOfLeadingZeros(value);
+        int shift = msb - SUB_BITS + 1;
+        int index = SUB_COUNT + (shift - 1) * HALF_COUNT + (int) (value >>> shift) - HALF_COUNT;
+        return Math.min(index, BUCKET_COUNT - 1);
+    }
+
+    // 桶中的最大值
+    static long highestValue(int index) {
+        if (index < SUB_COUNT) {
+            return index;
+        }
+        int k = index - SUB_COUNT;
+        int shift = k / HALF_COUNT + 1;
+        long sub = k % HALF_COUNT + HALF_COUNT;
+        return ((sub + 1) << shift) - 1;
+    }
+
+    /**
+     * 百分位数，返回不小于这个比例的值所在的桶的上界（不超过最大值）
+     *
+     * @param percent 百分比，0~100
+     * @return 没有记录时返回0
+     */
+    public long getPercentile(double percent) {
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percent / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= target) { // 最后一个桶没有上界
+                return i == BUCKET_COUNT - 1 ? max : Math.min(highestValue(i), max);
+            }
+        }
+        return max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * 将另一个直方图的记录合并到这个直方图中
+     */
+    public void add(Histogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        sum = 0;
+        max = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + count + " p50=" + getPercentile(50) + " p99=" + getPercentile(99) + " max=" + max;
+    }
+}
@@ -0,0 +1,113 @@
+package com.kingyu.flappybird.engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 输入队列，单生产者单消费者的无锁环形队列
+ * 系统线程在按键时调用offer()登记带有System.nanoTime()时间戳的输入，推进游戏的线程在每一帧开始时调用drain()，
+ * 按顺序将输入应用到引擎，输入只在两帧之间生效，不会与tick()同时修改引擎的状态。
+ * 已应用的输入的时间戳保留到presented()被调用，用于统计从按键到画面显示的延迟
+ *
+ * @author Kingyu
+ */
+public class InputQueue {
+    public static final int PRESSED = 0; // 按下振翅键
+    public static final int RELEASED = 1; // 松开振翅键
+
+    private final int mask;
+    private final int[] types;
+    private final long[] times;
+    private final AtomicLong head = new AtomicLong(); // 下一个读取的位置，只由消费者写入
+    private final AtomicLong tail = new AtomicLong(); // 下一个写入的位置，只由生产者写入
+    private long cachedHead; // 生产者缓存的head，减少读取另一个线程写入的变量
+
+    // 已应用但尚未显示的输入的时间戳，只由消费者访问
+    private final long[] applied;
+    private int appliedCount;
+
+    private volatile long dropped; // 队列已满时丢弃的输入数，只由生产者写入
+
+    /**
+     * @param capacity 队列的容量，向上取整为2的幂
+     */
+    public InputQueue(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("传入了非法的参数");
+        }
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        mask = size - 1;
+        types = new int[size];
+        times = new long[size];
+        applied = new long[size];
+    }
+
+    /**
+     * 登记一个输入，只能由一个生产者线程调用
+     *
+     * @param type  PRESSED或RELEASED
+     * @param nanos 输入发生时的System.nanoTime()
+     * @return 队列已满时丢弃输入并返回false
+     */
+    public boolean offer(int type, long nanos) {
+        long t = tail.get();
+        if (t - cachedHead > mask) {
+            cachedHead = head.get();
+            if (t - cachedHead > mask) {
+                dropped++;
+                return false;
+            }
+        }
+        int i = (int) t & mask;
+        types[i] = type;
+        times[i] = nanos;
+        tail.lazySet(t + 1); // 写入元素之后再发布位置
+        return true;
+    }
+
+    /**
+     * 按顺序将所有已登记的输入应用到引擎，只能由推进游戏的线程在tick()之前调用
+     *
+     * @return 应用的输入数量
+     */
+    public int drain(GameEngine engine) {
+        long h = head.get();
+        long t = tail.get();
+        for (long p = h; p != t; p++) {
+            int i = (int) p & mask;
+            if (types[i] == PRESSED) {
+                engine.flapPressed();
+            } else {
+                engine.flapReleased();
+            }
+            if (appliedCount < applied.length) {
+                applied[appliedCount++] = times[i];
+            }
+        }
+        head.lazySet(t);
+        return (int) (t - h);
+    }
+
+    /**
+     * 画面显示后由推进游戏的线程调用，统计已应用的输入到这一帧显示的延迟，并清空记录
+     *
+     * @param latencies 记录从每个输入到画面显示的延迟，单位为纳秒
+     * @param now       画面显示时的System.nanoTime()
+     */
+    public void presented(Histogram latencies, long now) {
+        for (int i = 0; i < appliedCount; i++) {
+            latencies.record(now - applied[i]);
+        }
+        appliedCount = 0;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+}
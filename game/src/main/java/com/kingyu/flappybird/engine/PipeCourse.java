@@ -0,0 +1,299 @@
+package com.kingyu.flappybird.engine;
+
+/**
+ * 水管赛道，管理水管的生成、移动、回收逻辑以及水管与小鸟的碰撞检测
+ * 水管保存在EntityStore中，每根水管是存储中的一行，生成和回收水管都不创建对象
+ *
+ * @author Kingyu
+ */
+public class PipeCourse {
+    // 水管的类型
+    public static final int TYPE_TOP_NORMAL = 0;
+    public static final int TYPE_TOP_HARD = 1;
+    public static final int TYPE_BOTTOM_NORMAL = 2;
+    public static final int TYPE_BOTTOM_HARD = 3;
+    public static final int TYPE_HOVER_NORMAL = 4;
+    public static final int TYPE_HOVER_HARD = 5;
+
+    // 移动水管竖直方向的移动
+    public static final int MAX_DELTA = 50; // 最大移动距离
+    public static final int DIR_UP = 0;
+    public static final int DIR_DOWN = 1;
+
+    /**
+     * 添加水管的逻辑： 当容器中添加的最后一个元素完全显示到屏幕后，添加下一对； 水管成对地相对地出现，空隙高度为窗口高度的1/6；
+     * 每对水管的间隔距离为屏幕高度的1/4； 水管的高度的取值范围为窗口的[1/8~5/8]
+     */
+    public static final int VERTICAL_INTERVAL = EngineConstant.FRAME_HEIGHT / 5;
+    public static final int HORIZONTAL_INTERVAL = EngineConstant.FRAME_HEIGHT >> 2;
+    public static final int MIN_HEIGHT = EngineConstant.FRAME_HEIGHT >> 3;
+    public static final int MAX_HEIGHT = ((EngineConstant.FRAME_HEIGHT) >> 3) * 5;
+
+    // 一屏中最多的水管数量
+    public static final int FULL_PIPE = (EngineConstant.FRAME_WIDTH
+            / (EngineConstant.PIPE_HEAD_WIDTH + HORIZONTAL_INTERVAL) + 2) * 2;
+    public static final int CAPACITY = FULL_PIPE * 2; // 水管存储的初始容量
+
+    // 推进一帧的各阶段的编号，用于统计耗时
+    public static final int STAGE_MOVEMENT = 0; // 回收并移动水管
+    public static final int STAGE_COLLISION = 1; // 碰撞检测
+    public static final int STAGE_SPAWN = 2; // 生成水管
+    public static final int STAGE_COUNT = 3;
+    public static final String[] STAGE_NAMES = { "movement", "collision", "spawn" };
+
+    private final GameEngine engine;
+    private final EntityStore pipes; // 水管的容器，按x坐标从小到大排列
+    private Histogram[] stageNanos; // 各阶段的耗时，单位为纳秒，不统计时为null
+
+    PipeCourse(GameEngine engine) {
+        this.engine = engine;
+        pipes = new EntityStore(CAPACITY);
+    }
+
+    // 推进一帧：移动并回收水管，进行碰撞检测，生成新的水管
+    void tick(BirdModel bird) {
+        long time = now();
+        // 水管按加入的顺序离开窗口，从队首回收完全离开窗口的水管
+        while (pipes.size() > 0 && !isVisible(pipes.getX(0))) {
+            pipes.removeFirst();
+        }
+        //鸟死后水管停止移动
+        if (!bird.isDead()) {
+            movement();
+        }
+        time = lap(STAGE_MOVEMENT, time);
+        // 碰撞检测
+        isCollideBird(bird);
+        time = lap(STAGE_COLLISION, time);
+        pipeBornLogic(bird);
+        lap(STAGE_SPAWN, time);
+    }
+
+    // 统计耗时时返回当前时间，否则返回0，不调用System.nanoTime()
+    private long now() {
+        return stageNanos == null ? 0 : System.nanoTime();
+    }
+
+    // 记录从start开始的阶段的耗时，返回当前时间作为下一阶段的开始
+    private long lap(int stage, long start) {
+        if (stageNanos == null) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        stageNanos[stage].record(now - start);
+        return now;
+    }
+
+    // 开启或关闭各阶段耗时的统计，只能在推进游戏的线程中调用
+    void setProfiling(boolean profiling) {
+        if (!profiling) {
+            stageNanos = null;
+        } else if (stageNanos == null) {
+            Histogram[] stats = new Histogram[STAGE_COUNT];
+            for (int i = 0; i < STAGE_COUNT; i++) {
+                stats[i] = new Histogram();
+            }
+            stageNanos = stats;
+        }
+    }
+
+    /**
+     * 某一阶段的耗时的直方图，单位为纳秒
+     *
+     * @return 没有开启统计时返回null
+     */
+    public Histogram getStageNanos(int stage) {
+        Histogram[] stats = stageNanos;
+        return stats == null ? null : stats[stage];
+    }
+
+    // 水管的运动逻辑，所有水管向左移动，移动水管同时上下移动
+    private void movement() {
+        EntityStore p = pipes;
+        int[] x = p.x, type = p.type, dealtY = p.dealtY, direction = p.direction;
+        for (int i = 0; i < p.size; i++) {
+            int k = (p.head + i) & p.mask;
+            x[k] -= EngineConstant.GAME_SPEED;
+            if (isMoving(type[k])) {
+                if (direction[k] == DIR_DOWN) {
+                    dealtY[k]++;
+                    if (dealtY[k] > MAX_DELTA) {
+                        direction[k] = DIR_UP;
+                    }
+                } else {
+                    dealtY[k]--;
+                    if (dealtY[k] <= 0) {
+                        direction[k] = DIR_DOWN;
+                    }
+                }
+            }
+        }
+    }
+
+    private void pipeBornLogic(BirdModel bird) {
+        if (bird.isDead()) {
+            // 鸟死后不再添加水管
+            return;
+        }
+        if (pipes.size() == 0) {
+            // 若容器为空，则添加一对水管
+            int topHeight = random().nextInt(MIN_HEIGHT, MAX_HEIGHT + 1); // 随机生成水管高度
+            addPipe(EngineConstant.FRAME_WIDTH, -EngineConstant.TOP_PIPE_LENGTHENING, topHeight + EngineConstant.TOP_PIPE_LENGTHENING,
+                    TYPE_TOP_NORMAL);
+            addPipe(EngineConstant.FRAME_WIDTH, topHeight + VERTICAL_INTERVAL,
+                    EngineConstant.FRAME_HEIGHT - topHeight - VERTICAL_INTERVAL, TYPE_BOTTOM_NORMAL);
+        } else {
+            // 判断最后一对水管是否完全进入游戏窗口，若进入则添加水管
+            int lastX = pipes.getX(pipes.size() - 1); // 获得容器中最后一个水管的x坐标
+            int currentDistance = lastX - bird.getBirdX() + EngineConstant.BIRD_WIDTH / 2; // 小鸟和最后一根水管的距离
+            final int SCORE_DISTANCE = EngineConstant.PIPE_WIDTH * 2 + HORIZONTAL_INTERVAL; // 小于得分距离则得分
+            if (lastX + EngineConstant.PIPE_WIDTH < EngineConstant.FRAME_WIDTH) { // 最后一根水管完全出现在窗口中
+                if (pipes.size() >= FULL_PIPE - 2
+                        && currentDistance <= SCORE_DISTANCE + EngineConstant.PIPE_WIDTH * 3 / 2) {
+                    engine.score();
+                }
+                GameRandom random = random();
+                int currentScore = (int) engine.getCurrentScore() + 1; // 获取当前分数
+                // 移动水管刷新的概率随当前分数递增，当得分大于19后全部刷新移动水管
+                if (random.isInProbability(currentScore, 20)) {
+                    if (random.isInProbability(1, 4)) // 生成移动水管和移动悬浮水管的概率
+                        addMovingHoverPipe(lastX);
+                    else
+                        addMovingNormalPipe(lastX);
+                } else {
+                    if (random.isInProbability(1, 2)) // 生成静止普通水管和静止悬浮水管的概率
+                        addNormalPipe(lastX);
+                    else
+                        addHoverPipe(lastX);
+                }
+            }
+
+        }
+    }
+
+    // 赛道使用的随机数，每局游戏的随机序列由这局的种子决定
+    private GameRandom random() {
+        return engine.getCourseRandom();
+    }
+
+    // 在赛道的最右侧加入一根水管，从上往下的移动水管先向上移动
+    private void addPipe(int x, int y, int height, int type) {
+        int index = pipes.add(x, y, EngineConstant.PIPE_WIDTH, height, type);
+        pipes.direction[pipes.slot(index)] = type == TYPE_TOP_HARD ? DIR_UP : DIR_DOWN;
+        FlightEvents.pipeSpawned(kindOf(type), x, y, height);
+    }
+
+    /**
+     * 添加普通水管
+     *
+     * @param lastX 最后一根水管的x坐标
+     */
+    private void addNormalPipe(int lastX) {
+        int topHeight = random().nextInt(MIN_HEIGHT, MAX_HEIGHT + 1); // 随机生成水管高度
+        int x = lastX + HORIZONTAL_INTERVAL; // 新水管的x坐标 = 最后一对水管的x坐标 + 水管的间隔
+
+        addPipe(x, -EngineConstant.TOP_PIPE_LENGTHENING, topHeight + EngineConstant.TOP_PIPE_LENGTHENING, TYPE_TOP_NORMAL);
+        addPipe(x, topHeight + VERTICAL_INTERVAL, EngineConstant.FRAME_HEIGHT - topHeight - VERTICAL_INTERVAL,
+                TYPE_BOTTOM_NORMAL);
+    }
+
+    /**
+     * 添加悬浮水管
+     *
+     * @param lastX 最后一根水管的x坐标
+     */
+    private void addHoverPipe(int lastX) {
+        addHoverPair(lastX, TYPE_HOVER_NORMAL);
+    }
+
+    /**
+     * 添加移动的悬浮水管
+     *
+     * @param lastX 最后一根水管的x坐标
+     */
+    private void addMovingHoverPipe(int lastX) {
+        addHoverPair(lastX, TYPE_HOVER_HARD);
+    }
+
+    // 添加一对悬浮水管
+    private void addHoverPair(int lastX, int type) {
+        // 随机生成水管高度,屏幕高度的[1/4,1/6]
+        int topHoverHeight = random().nextInt(EngineConstant.FRAME_HEIGHT / 6, EngineConstant.FRAME_HEIGHT / 4);
+        int x = lastX + HORIZONTAL_INTERVAL; // 新水管的x坐标 = 最后一对水管的x坐标 + 水管的间隔
+        int y = random().nextInt(EngineConstant.FRAME_HEIGHT / 12, EngineConstant.FRAME_HEIGHT / 6); // 随机水管的y坐标，窗口的[1/6,1/12]
+
+        // 生成上部的悬浮水管
+        addPipe(x, y, topHoverHeight, type);
+
+        // 生成下部的悬浮水管
+        int bottomHoverHeight = EngineConstant.FRAME_HEIGHT - 2 * y - topHoverHeight - VERTICAL_INTERVAL;
+        addPipe(x, y + topHoverHeight + VERTICAL_INTERVAL, bottomHoverHeight, type);
+    }
+
+    /**
+     * 添加移动的普通水管
+     *
+     * @param lastX 最后一根水管的x坐标
+     */
+    private void addMovingNormalPipe(int lastX) {
+        int topHeight = random().nextInt(MIN_HEIGHT, MAX_HEIGHT + 1); // 随机生成水管高度
+        int x = lastX + HORIZONTAL_INTERVAL; // 新水管的x坐标 = 最后一对水管的x坐标 + 水管的间隔
+
+        addPipe(x, -EngineConstant.TOP_PIPE_LENGTHENING, topHeight + EngineConstant.TOP_PIPE_LENGTHENING, TYPE_TOP_HARD);
+        addPipe(x, topHeight + VERTICAL_INTERVAL, EngineConstant.FRAME_HEIGHT - topHeight - VERTICAL_INTERVAL,
+                TYPE_BOTTOM_HARD);
+    }
+
+    /**
+     * 判断元素和小鸟是否发生碰撞，只检测与小鸟所在列重叠的水管，并沿一帧内的相对运动做扫掠检测
+     *
+     * @param bird 传入小鸟对象
+     */
+    public void isCollideBird(BirdModel bird) {
+        // 若鸟已死则不再判断
+        if (bird.isDead()) {
+            return;
+        }
+        int hit = CollisionDetector.findCollision(pipes, bird.getBirdCollisionRect(), EngineConstant.GAME_SPEED,
+                bird.getDeltaY());
+        if (hit >= 0) {
+            FlightEvents.collided(kindOf(pipes.getType(hit)), bird.getBirdY(), engine.getCurrentScore());
+            bird.deadBirdFall();
+        }
+    }
+
+    // 水管的种类，用于JFR事件
+    static String kindOf(int type) {
+        switch (type) {
+            case TYPE_HOVER_NORMAL:
+                return FlightEvents.PIPE_HOVER;
+            case TYPE_HOVER_HARD:
+                return FlightEvents.PIPE_MOVING_HOVER;
+            case TYPE_TOP_HARD:
+            case TYPE_BOTTOM_HARD:
+                return FlightEvents.PIPE_MOVING;
+            default:
+                return FlightEvents.PIPE_NORMAL;
+        }
+    }
+
+    // 水管是否为移动水管
+    public static boolean isMoving(int type) {
+        return type == TYPE_TOP_HARD || type == TYPE_BOTTOM_HARD || type == TYPE_HOVER_HARD;
+    }
+
+    // 水管是否位于窗口中，完全离开窗口的水管在下一帧被回收
+    public static boolean isVisible(int x) {
+        return x >= -EngineConstant.PIPE_HEAD_WIDTH;
+    }
+
+    // 获取当前赛道上的水管，仅用于读取；碰撞矩形为(x, y + dealtY, width, height)
+    public EntityStore getPipes() {
+        return pipes;
+    }
+
+    // 重置赛道
+    void reset() {
+        pipes.clear();
+    }
+}
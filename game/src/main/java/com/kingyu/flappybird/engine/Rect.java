@@ -0,0 +1,82 @@
+package com.kingyu.flappybird.engine;
+
+/**
+ * 轴对齐的碰撞矩形，替代java.awt.Rectangle，使模拟逻辑不依赖AWT
+ *
+ * @author Kingyu
+ */
+public class Rect {
+    public int x, y; // 左上角坐标
+    public int width, height; // 宽，高
+
+    public Rect() {
+    }
+
+    public Rect(int x, int y, int width, int height) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * 判断两个矩形是否有交集，宽高不大于0的矩形与任何矩形都不相交
+     *
+     * @param r 另一个矩形
+     * @return 有交集返回true，否则返回false
+     */
+    public boolean intersects(Rect r) {
+        if (width <= 0 || height <= 0 || r.width <= 0 || r.height <= 0) {
+            return false;
+        }
+        return r.x < x + width && r.y < y + height && x < r.x + r.width && y < r.y + r.height;
+    }
+
+    /**
+     * 扫掠检测：矩形在一帧内从(x - dx, y - dy)沿直线移动到当前位置，判断移动过程中是否与另一个矩形有交集
+     * 用于检测速度较大时离散检测会漏掉的穿越
+     *
+     * @param dx 一帧内x方向的位移
+     * @param dy 一帧内y方向的位移
+     * @param r  另一个矩形，视为静止
+     * @return 移动过程中有交集返回true，否则返回false
+     */
+    public boolean sweptIntersects(int dx, int dy, Rect r) {
+        return sweptIntersects(dx, dy, r.x, r.y, r.width, r.height);
+    }
+
+    /**
+     * 扫掠检测，另一个矩形以坐标和宽高给出，无需创建Rect对象
+     */
+    public boolean sweptIntersects(int dx, int dy, int rx, int ry, int rWidth, int rHeight) {
+        if (width <= 0 || height <= 0 || rWidth <= 0 || rHeight <= 0) {
+            return false;
+        }
+        int startX = x - dx;
+        int startY = y - dy;
+        // 分别求出两个轴上重叠的时间区间，区间的交集与[0, 1]有交集则发生碰撞
+        double enter = Math.max(0, Math.max(entry(startX, width, dx, rx, rWidth),
+                entry(startY, height, dy, ry, rHeight)));
+        double exit = Math.min(1, Math.min(exit(startX, width, dx, rx, rWidth),
+                exit(startY, height, dy, ry, rHeight)));
+        return enter < exit;
+    }
+
+    // 一个轴上开始重叠的时间，没有位移时始终重叠返回负无穷，始终不重叠返回正无穷
+    private static double entry(int start, int size, int d, int target, int targetSize) {
+        if (d == 0) {
+            return target < start + size && start < target + targetSize ? Double.NEGATIVE_INFINITY
+                    : Double.POSITIVE_INFINITY;
+        }
+        return d > 0 ? (double) (target - start - size) / d : (double) (target + targetSize - start) / d;
+    }
+
+    // 一个轴上结束重叠的时间，没有位移时始终重叠返回正无穷，始终不重叠返回负无穷
+    private static double exit(int start, int size, int d, int target, int targetSize) {
+        if (d == 0) {
+            return target < start + size && start < target + targetSize ? Double.POSITIVE_INFINITY
+                    : Double.NEGATIVE_INFINITY;
+        }
+        return d > 0 ? (double) (target + targetSize - start) / d : (double) (target - start - size) / d;
+    }
+}
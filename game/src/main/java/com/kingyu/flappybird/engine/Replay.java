@@ -0,0 +1,236 @@
+package com.kingyu.flappybird.engine;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * 一局游戏的录像：这局游戏的种子，加上振翅键按下、松开的帧序号，帧序号以差值varint编码
+ * 每个输入事件编码为一个varint：(与上一个事件相差的帧数 << 1) | 是否为松开；帧序号从这局游戏开始时算起，
+ * 输入在第n帧之后、第n+1帧之前生效。录像同时记录这局游戏的分数和结束的帧序号，重放时用于校验
+ *
+ * @author Kingyu
+ */
+public class Replay {
+    private static final int MAGIC = 0x46425250; // "FBRP"
+    private static final int VERSION = 1;
+    private static final int READ_CHUNK = 4096; // 从流中读取事件时每次扩容的最小字节数
+
+    static final int FLAG_KEY_RELEASED = 1; // 开局时振翅键处于松开状态
+
+    private final long gameSeed; // 这局游戏的种子
+    private final int flags; // 开局时的状态
+    private final long score; // 这局游戏的分数
+    private final long deathTick; // 游戏结束的帧序号
+    private final int eventCount; // 输入事件的数量
+    private final byte[] events; // 编码后的输入事件
+
+    public Replay(long gameSeed, int flags, long score, long deathTick, int eventCount, byte[] events) {
+        if (score < 0 || deathTick < 0 || eventCount < 0 || events == null) {
+            throw new IllegalArgumentException("传入了非法的参数");
+        }
+        this.gameSeed = gameSeed;
+        this.flags = flags;
+        this.score = score;
+        this.deathTick = deathTick;
+        this.eventCount = eventCount;
+        this.events = events;
+    }
+
+    public long getGameSeed() {
+        return gameSeed;
+    }
+
+    public int getFlags() {
+        return flags;
+    }
+
+    public boolean isKeyReleasedAtStart() {
+        return (flags & FLAG_KEY_RELEASED) != 0;
+    }
+
+    public long getScore() {
+        return score;
+    }
+
+    public long getDeathTick() {
+        return deathTick;
+    }
+
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    // 编码后的输入事件的字节数
+    public int getEventLength() {
+        return events.length;
+    }
+
+    // 编码后的输入事件，调用者不应修改
+    byte[] getEvents() {
+        return events;
+    }
+
+    /**
+     * 写入录像，格式为：魔数、版本、种子、开局状态、分数、结束帧序号、事件数量、事件的字节数、事件
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeLong(gameSeed);
+        out.writeByte(flags);
+        writeVarLong(out, score);
+        writeVarLong(out, deathTick);
+        writeVarLong(out, eventCount);
+        writeVarLong(out, events.length);
+        out.write(events);
+    }
+
+    public static Replay readFrom(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC || in.readUnsignedByte() != VERSION) {
+            throw new IOException("不是录像文件或版本不受支持");
+        }
+        long gameSeed = in.readLong();
+        int flags = in.readUnsignedByte();
+        long score = readVarLong(in);
+        long deathTick = readVarLong(in);
+        long eventCount = readVarLong(in);
+        long length = readVarLong(in);
+        checkHeader(score, deathTick, eventCount, length);
+        byte[] events = readEvents(in, (int) length);
+        return new Replay(gameSeed, flags, score, deathTick, (int) eventCount, events);
+    }
+
+    // 检查从文件中读出的字段，损坏的录像抛出IOException，而不是在分配内存或创建对象时失败
+    private static void checkHeader(long score, long deathTick, long eventCount, long length) throws IOException {
+        // 每个事件至少占一个字节
+        if (score < 0 || deathTick < 0 || length < 0 || length > Integer.MAX_VALUE || eventCount < 0
+                || eventCount > length) {
+            throw new IOException("录像已损坏");
+        }
+    }
+
+    // 读取事件，流中不知道还剩多少字节，按实际读到的数据逐步扩容，损坏的长度不会一次分配大量内存
+    private static byte[] readEvents(DataInput in, int length) throws IOException {
+        byte[] events = new byte[Math.min(length, READ_CHUNK)];
+        int read = 0;
+        try {
+            while (read < length) {
+                if (read == events.length) {
+                    events = Arrays.copyOf(events, (int) Math.min(length, Math.max(2L * read, read + READ_CHUNK)));
+                }
+                in.readFully(events, read, events.length - read);
+                read = events.length;
+            }
+        } catch (EOFException e) {
+            throw new IOException("录像已损坏", e);
+        }
+        return events;
+    }
+
+    /**
+     * 从缓冲区中解码一份录像，格式与writeTo()相同，不修改缓冲区的状态
+     *
+     * @param buf    缓冲区
+     * @param start  录像的起始位置
+     * @param length 录像的字节数
+     */
+    public static Replay decode(ByteBuffer buf, int start, int length) throws IOException {
+        ByteBuffer in = buf.duplicate();
+        in.limit(start + length).position(start);
+        try {
+            if (in.getInt() != MAGIC || (in.get() & 0xFF) != VERSION) {
+                throw new IOException("不是录像文件或版本不受支持");
+            }
+            long gameSeed = in.getLong();
+            int flags = in.get() & 0xFF;
+            long score = readVarLong(in);
+            long deathTick = readVarLong(in);
+            long eventCount = readVarLong(in);
+            long eventLength = readVarLong(in);
+            checkHeader(score, deathTick, eventCount, eventLength);
+            if (eventLength != in.remaining()) { // 分配之前确认缓冲区中有这么多字节
+                throw new IOException("录像已损坏");
+            }
+            byte[] events = new byte[(int) eventLength];
+            in.get(events);
+            return new Replay(gameSeed, flags, score, deathTick, (int) eventCount, events);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("录像已损坏", e);
+        }
+    }
+
+    public void save(File file) throws IOException {
+        File dir = file.getParentFile();
+        if (dir != null && !dir.exists() && !dir.mkdirs()) {
+            throw new IOException("无法创建目录" + dir);
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            writeTo(out);
+        }
+    }
+
+    public static Replay load(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            return readFrom(in);
+        }
+    }
+
+    // 写入无符号varint，每字节7位，最高位表示后面还有字节
+    static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("录像已损坏");
+    }
+
+    private static long readVarLong(ByteBuffer in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("录像已损坏");
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Replay)) {
+            return false;
+        }
+        Replay r = (Replay) o;
+        return gameSeed == r.gameSeed && flags == r.flags && score == r.score && deathTick == r.deathTick
+                && eventCount == r.eventCount && Arrays.equals(events, r.events);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(gameSeed) * 31 + Arrays.hashCode(events);
+    }
+
+    @Override
+    public String toString() {
+        return "Replay[seed=" + gameSeed + ", score=" + score + ", deathTick=" + deathTick
+                + ", events=" + eventCount + ", bytes=" + events.length + "]";
+    }
+}
@@ -0,0 +1,209 @@
+package com.kingyu.flappybird.engine;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * 录像库，只追加写入，由索引文件(.idx)和数据文件(.dat)组成
+ * 索引文件由32字节的文件头和定长32字节的索引项组成，索引项依次为：种子、分数、录像在数据文件中的偏移、录像的字节数、输入事件的数量；
+ * 数据文件依次存放Replay.writeTo()格式的录像。写入时先写数据再写索引，写入中断时多出的数据不会被读到
+ * 读取时两个文件都通过FileChannel.map映射到内存，按序号随机访问或按顺序遍历都不需要反序列化整个文件；
+ * 每段映射最大为SEGMENT_SIZE，写入时保证录像不跨越段的边界。打开后的录像库只读，可以被多个线程同时读取
+ *
+ * @author Kingyu
+ */
+public class ReplayCorpus implements Closeable {
+    public static final String INDEX_SUFFIX = ".idx";
+    public static final String DATA_SUFFIX = ".dat";
+
+    private static final int INDEX_MAGIC = 0x46425249; // "FBRI"
+    private static final int DATA_MAGIC = 0x46425244; // "FBRD"
+    private static final int VERSION = 1;
+
+    static final int ENTRY_SIZE = 32; // 索引项的字节数，也是索引文件头的字节数
+    static final int DATA_HEADER_SIZE = 8; // 数据文件头的字节数
+    static final long SEGMENT_SIZE = 1L << 30; // 每段映射的最大字节数，是ENTRY_SIZE的整数倍
+
+    // 索引项中各字段的偏移
+    private static final int SEED_OFFSET = 0;
+    private static final int SCORE_OFFSET = 8;
+    private static final int DATA_OFFSET = 16;
+    private static final int LENGTH_OFFSET = 24;
+    private static final int EVENTS_OFFSET = 28;
+
+    private final RandomAccessFile indexFile;
+    private final RandomAccessFile dataFile;
+    private final MappedByteBuffer[] indexSegments;
+    private final MappedByteBuffer[] dataSegments;
+    private final long size; // 录像的数量
+
+    private ReplayCorpus(File base) throws IOException {
+        indexFile = new RandomAccessFile(indexFile(base), "r");
+        dataFile = new RandomAccessFile(dataFile(base), "r");
+        try {
+            FileChannel index = indexFile.getChannel();
+            FileChannel data = dataFile.getChannel();
+            checkHeaders(index, data);
+            long count = (index.size() - ENTRY_SIZE) / ENTRY_SIZE;
+            indexSegments = map(index, ENTRY_SIZE + count * ENTRY_SIZE);
+            dataSegments = map(data, data.size());
+            size = count;
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * 以只读方式打开录像库，只能读到打开时已写入的录像
+     *
+     * @param base 录像库的路径，不含后缀
+     */
+    public static ReplayCorpus open(File base) throws IOException {
+        return new ReplayCorpus(base);
+    }
+
+    // 录像库是否存在
+    public static boolean exists(File base) {
+        return indexFile(base).isFile() && dataFile(base).isFile();
+    }
+
+    static File indexFile(File base) {
+        return new File(base.getPath() + INDEX_SUFFIX);
+    }
+
+    static File dataFile(File base) {
+        return new File(base.getPath() + DATA_SUFFIX);
+    }
+
+    static void checkHeaders(FileChannel index, FileChannel data) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(ENTRY_SIZE);
+        if (index.read(header, 0) < 12 || header.getInt(0) != INDEX_MAGIC || header.getInt(4) != VERSION
+                || header.getInt(8) != ENTRY_SIZE) {
+            throw new IOException("不是录像库的索引文件或版本不受支持");
+        }
+        header = ByteBuffer.allocate(DATA_HEADER_SIZE);
+        if (data.read(header, 0) < DATA_HEADER_SIZE || header.getInt(0) != DATA_MAGIC || header.getInt(4) != VERSION) {
+            throw new IOException("不是录像库的数据文件或版本不受支持");
+        }
+    }
+
+    static ByteBuffer indexHeader() {
+        ByteBuffer header = ByteBuffer.allocate(ENTRY_SIZE);
+        header.putInt(0, INDEX_MAGIC).putInt(4, VERSION).putInt(8, ENTRY_SIZE);
+        return header;
+    }
+
+    static ByteBuffer dataHeader() {
+        ByteBuffer header = ByteBuffer.allocate(DATA_HEADER_SIZE);
+        header.putInt(0, DATA_MAGIC).putInt(4, VERSION);
+        return header;
+    }
+
+    // 按SEGMENT_SIZE分段映射文件的前length个字节
+    private static MappedByteBuffer[] map(FileChannel channel, long length) throws IOException {
+        int count = (int) ((length + SEGMENT_SIZE - 1) / SEGMENT_SIZE);
+        MappedByteBuffer[] segments = new MappedByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            long start = i * SEGMENT_SIZE;
+            segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(SEGMENT_SIZE, length - start));
+        }
+        return segments;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    // 第i个索引项所在的段，所有读取都使用绝对位置，不修改缓冲区的状态，因此可以并发读取
+    private ByteBuffer indexSegment(long i) {
+        return indexSegments[(int) (position(i) / SEGMENT_SIZE)];
+    }
+
+    private int indexPosition(long i) {
+        return (int) (position(i) % SEGMENT_SIZE);
+    }
+
+    private long position(long i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("录像序号超出范围: " + i);
+        }
+        return ENTRY_SIZE + i * ENTRY_SIZE;
+    }
+
+    public long getSeed(long i) {
+        return indexSegment(i).getLong(indexPosition(i) + SEED_OFFSET);
+    }
+
+    public long getScore(long i) {
+        return indexSegment(i).getLong(indexPosition(i) + SCORE_OFFSET);
+    }
+
+    public long getOffset(long i) {
+        return indexSegment(i).getLong(indexPosition(i) + DATA_OFFSET);
+    }
+
+    public int getLength(long i) {
+        return indexSegment(i).getInt(indexPosition(i) + LENGTH_OFFSET);
+    }
+
+    public int getEventCount(long i) {
+        return indexSegment(i).getInt(indexPosition(i) + EVENTS_OFFSET);
+    }
+
+    /**
+     * 读取第i份录像，只解码这一份录像
+     */
+    public Replay get(long i) {
+        long offset = getOffset(i);
+        int length = getLength(i);
+        if (offset < 0 || offset / SEGMENT_SIZE >= dataSegments.length) {
+            throw new IllegalStateException("录像库已损坏: " + i);
+        }
+        ByteBuffer segment = dataSegments[(int) (offset / SEGMENT_SIZE)];
+        int start = (int) (offset % SEGMENT_SIZE);
+        if (length < 0 || length > segment.limit() - start) { // 避免start + length溢出
+            throw new IllegalStateException("录像库已损坏: " + i);
+        }
+        try {
+            return Replay.decode(segment, start, length);
+        } catch (IOException e) {
+            throw new IllegalStateException("录像库已损坏: " + i, e);
+        }
+    }
+
+    /**
+     * 按顺序遍历所有录像，调用parallel()后可以在多个线程中同时解码
+     */
+    public Stream<Replay> stream() {
+        return LongStream.range(0, size).mapToObj(this::get);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            indexFile.close();
+        } finally {
+            dataFile.close();
+        }
+    }
+
+    static void putEntry(ByteBuffer entry, Replay replay, long offset, int length) {
+        entry.putLong(SEED_OFFSET, replay.getGameSeed());
+        entry.putLong(SCORE_OFFSET, replay.getScore());
+        entry.putLong(DATA_OFFSET, offset);
+        entry.putInt(LENGTH_OFFSET, length);
+        entry.putInt(EVENTS_OFFSET, replay.getEventCount());
+    }
+
+    static long entryEnd(ByteBuffer entry) {
+        return entry.getLong(DATA_OFFSET) + entry.getInt(LENGTH_OFFSET);
+    }
+}
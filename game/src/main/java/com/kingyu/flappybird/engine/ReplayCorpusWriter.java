@@ -0,0 +1,126 @@
+package com.kingyu.flappybird.engine;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 向录像库追加录像，格式见ReplayCorpus
+ * 打开时丢弃上次写入中断留下的不完整索引项和没有索引的数据，已写入的录像不会被修改
+ *
+ * @author Kingyu
+ */
+public class ReplayCorpusWriter implements Closeable {
+    private final FileChannel index;
+    private final FileChannel data;
+    private final ByteBuffer entry = ByteBuffer.allocate(ReplayCorpus.ENTRY_SIZE); // 复用的索引项
+    private final Bytes bytes = new Bytes(); // 复用的编码缓冲区
+    private final DataOutputStream out = new DataOutputStream(bytes);
+    private long count; // 录像的数量
+    private long dataEnd; // 数据文件中已写入的录像的末尾
+
+    /**
+     * @param base 录像库的路径，不含后缀，不存在时创建
+     */
+    public ReplayCorpusWriter(File base) throws IOException {
+        File dir = base.getAbsoluteFile().getParentFile();
+        if (dir != null && !dir.exists() && !dir.mkdirs()) {
+            throw new IOException("无法创建目录" + dir);
+        }
+        index = FileChannel.open(ReplayCorpus.indexFile(base).toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        data = FileChannel.open(ReplayCorpus.dataFile(base).toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            recover();
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    private void recover() throws IOException {
+        if (index.size() < ReplayCorpus.ENTRY_SIZE) { // 新建的录像库
+            index.truncate(0);
+            data.truncate(0);
+            writeFully(index, ReplayCorpus.indexHeader(), 0);
+            writeFully(data, ReplayCorpus.dataHeader(), 0);
+            dataEnd = ReplayCorpus.DATA_HEADER_SIZE;
+            return;
+        }
+        ReplayCorpus.checkHeaders(index, data);
+        count = (index.size() - ReplayCorpus.ENTRY_SIZE) / ReplayCorpus.ENTRY_SIZE;
+        index.truncate(ReplayCorpus.ENTRY_SIZE + count * ReplayCorpus.ENTRY_SIZE);
+        dataEnd = ReplayCorpus.DATA_HEADER_SIZE;
+        if (count > 0) {
+            entry.clear();
+            index.read(entry, count * ReplayCorpus.ENTRY_SIZE);
+            dataEnd = ReplayCorpus.entryEnd(entry);
+            if (dataEnd > data.size()) {
+                throw new IOException("录像库已损坏");
+            }
+        }
+        data.truncate(dataEnd);
+    }
+
+    /**
+     * 追加一份录像，先写数据再写索引
+     *
+     * @return 录像在录像库中的序号
+     */
+    public synchronized long append(Replay replay) throws IOException {
+        bytes.reset();
+        replay.writeTo(out);
+        int length = bytes.size();
+        if (length > ReplayCorpus.SEGMENT_SIZE) {
+            throw new IllegalArgumentException("传入了非法的参数");
+        }
+        long offset = dataEnd;
+        if (offset % ReplayCorpus.SEGMENT_SIZE + length > ReplayCorpus.SEGMENT_SIZE) { // 不跨越段的边界
+            offset = (offset / ReplayCorpus.SEGMENT_SIZE + 1) * ReplayCorpus.SEGMENT_SIZE;
+        }
+        writeFully(data, ByteBuffer.wrap(bytes.array(), 0, length), offset);
+        entry.clear();
+        ReplayCorpus.putEntry(entry, replay, offset, length);
+        writeFully(index, entry, ReplayCorpus.ENTRY_SIZE + count * ReplayCorpus.ENTRY_SIZE);
+        dataEnd = offset + length;
+        return count++;
+    }
+
+    public synchronized long size() {
+        return count;
+    }
+
+    // 将已写入的内容刷新到磁盘
+    public synchronized void force() throws IOException {
+        data.force(false);
+        index.force(false);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            index.close();
+        } finally {
+            data.close();
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buf, long position) throws IOException {
+        while (buf.hasRemaining()) {
+            position += channel.write(buf, position);
+        }
+    }
+
+    // 可以直接取出内部数组的ByteArrayOutputStream，避免每次写入都复制
+    private static class Bytes extends ByteArrayOutputStream {
+        byte[] array() {
+            return buf;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.kingyu.flappybird.engine;
+
+import java.util.Arrays;
+
+/**
+ * 录像录制器，由引擎在开局、输入和游戏结束时调用，每局游戏结束时生成一份录像
+ * 输入事件直接编码到可增长的字节数组中，录制过程不产生其他对象
+ *
+ * @author Kingyu
+ */
+public class ReplayRecorder {
+
+    /**
+     * 录像完成时的回调，在调用tick()的线程上执行
+     */
+    public interface Sink {
+        void onReplay(Replay replay);
+    }
+
+    private final Sink sink;
+
+    private byte[] buffer = new byte[256]; // 编码后的输入事件
+    private int length; // 已写入的字节数
+    private int eventCount; // 已录制的事件数量
+    private long gameSeed;
+    private int flags;
+    private long startTick; // 开局时引擎的帧序号
+    private long lastTick; // 上一个事件的帧序号，从开局时算起
+    private boolean recording;
+
+    public ReplayRecorder(Sink sink) {
+        if (sink == null) {
+            throw new IllegalArgumentException("传入了非法的参数");
+        }
+        this.sink = sink;
+    }
+
+    // 开始录制新的一局
+    void begin(long gameSeed, boolean keyReleased, long ticks) {
+        this.gameSeed = gameSeed;
+        this.flags = keyReleased ? Replay.FLAG_KEY_RELEASED : 0;
+        this.startTick = ticks;
+        this.lastTick = 0;
+        this.length = 0;
+        this.eventCount = 0;
+        this.recording = true;
+    }
+
+    // 记录一次按下或松开
+    void record(boolean released, long ticks) {
+        if (!recording) {
+            return;
+        }
+        long tick = ticks - startTick;
+        writeVarLong(((tick - lastTick) << 1) | (released ? 1 : 0));
+        lastTick = tick;
+        eventCount++;
+    }
+
+    // 游戏结束，生成这局的录像
+    void finish(long score, long ticks) {
+        if (!recording) {
+            return;
+        }
+        recording = false;
+        sink.onReplay(new Replay(gameSeed, flags, score, ticks - startTick, eventCount,
+                Arrays.copyOf(buffer, length)));
+    }
+
+    private void writeVarLong(long value) {
+        if (length + 10 > buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length << 1);
+        }
+        while ((value & ~0x7FL) != 0) {
+            buffer[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[length++] = (byte) value;
+    }
+}
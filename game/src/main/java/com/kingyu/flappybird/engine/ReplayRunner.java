@@ -0,0 +1,219 @@
+package com.kingyu.flappybird.engine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 录像重放器，在没有窗口的环境中全速重新模拟录像，校验分数和游戏结束的帧序号
+ * 一个重放器复用同一个引擎，只能在一个线程中使用；verify()为每个线程创建各自的重放器，并行校验整个录像库
+ *
+ * @author Kingyu
+ */
+public class ReplayRunner {
+    // 超过录像的结束帧序号后继续模拟的最大帧数，用于报告出现偏差的录像实际在哪一帧结束
+    public static final int MAX_EXTRA_TICKS = 10_000;
+    public static final int MAX_REPORTED_FAILURES = 100; // 校验录像库时最多记录的失败录像数
+    private static final int VERIFY_BATCH = 256; // 并行校验时每个线程每次领取的录像数
+
+    private final GameEngine engine = new GameEngine(0);
+
+    /**
+     * 重放的结果
+     */
+    public static class Result {
+        private final Replay replay;
+        private final long score; // 重放得到的分数
+        private final long deathTick; // 重放得到的结束帧序号，没有结束时为-1
+
+        Result(Replay replay, long score, long deathTick) {
+            this.replay = replay;
+            this.score = score;
+            this.deathTick = deathTick;
+        }
+
+        public Replay getReplay() {
+            return replay;
+        }
+
+        public long getScore() {
+            return score;
+        }
+
+        public long getDeathTick() {
+            return deathTick;
+        }
+
+        // 分数和结束的帧序号都与录像一致
+        public boolean isMatched() {
+            return score == replay.getScore() && deathTick == replay.getDeathTick();
+        }
+
+        @Override
+        public String toString() {
+            return (isMatched() ? "OK  " : "FAIL") + " seed=" + replay.getGameSeed()
+                    + " score=" + score + "/" + replay.getScore()
+                    + " deathTick=" + deathTick + "/" + replay.getDeathTick();
+        }
+    }
+
+    /**
+     * 校验录像库的结果
+     */
+    public static class Report {
+        private final long total; // 校验的录像数量
+        private final long failed; // 分数或结束帧序号不一致，以及已损坏的录像数量
+        private final long ticks; // 重放的总帧数
+        private final long nanos; // 耗时，单位为纳秒
+        private final List<Long> failures; // 失败的录像的序号，最多MAX_REPORTED_FAILURES个
+
+        Report(long total, long failed, long ticks, long nanos, List<Long> failures) {
+            this.total = total;
+            this.failed = failed;
+            this.ticks = ticks;
+            this.nanos = nanos;
+            this.failures = failures;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        public long getTicks() {
+            return ticks;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        public List<Long> getFailures() {
+            return failures;
+        }
+
+        @Override
+        public String toString() {
+            long time = Math.max(nanos, 1);
+            return String.format("%d replays, %d failed, %d ticks in %.1f ms (%.0f ticks/s)", total, failed, ticks,
+                    time / 1e6, ticks * 1e9 / time);
+        }
+    }
+
+    /**
+     * 在多个线程中并行重放录像库中的所有录像，每个线程每次领取一批连续的录像
+     *
+     * @param corpus  录像库
+     * @param threads 线程数，不小于1
+     */
+    public static Report verify(ReplayCorpus corpus, int threads) throws InterruptedException {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("传入了非法的参数");
+        }
+        long size = corpus.size();
+        AtomicLong next = new AtomicLong();
+        LongAdder failed = new LongAdder();
+        LongAdder ticks = new LongAdder();
+        List<Long> failures = new ArrayList<>();
+        Runnable worker = () -> {
+            ReplayRunner runner = new ReplayRunner();
+            long start;
+            while ((start = next.getAndAdd(VERIFY_BATCH)) < size) {
+                long end = Math.min(start + VERIFY_BATCH, size);
+                for (long i = start; i < end; i++) {
+                    boolean matched;
+                    try {
+                        Result result = runner.run(corpus.get(i));
+                        ticks.add(Math.max(result.getDeathTick(), 0));
+                        matched = result.isMatched();
+                    } catch (RuntimeException e) { // 录像已损坏
+                        matched = false;
+                    }
+                    if (!matched) {
+                        failed.increment();
+                        synchronized (failures) {
+                            if (failures.size() < MAX_REPORTED_FAILURES) {
+                                failures.add(i);
+                            }
+                        }
+                    }
+                }
+            }
+        };
+        long begin = System.nanoTime();
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(worker, "ReplayVerifier-" + i);
+            workers[i].start();
+        }
+        for (Thread t : workers) {
+            t.join();
+        }
+        long nanos = System.nanoTime() - begin;
+        Collections.sort(failures);
+        return new Report(size, failed.sum(), ticks.sum(), nanos, failures);
+    }
+
+    /**
+     * 重放一份录像
+     */
+    public Result run(Replay replay) {
+        GameEngine engine = this.engine;
+        engine.reset(replay.getGameSeed());
+        engine.setKeyReleased(replay.isKeyReleasedAtStart());
+        long start = engine.getTicks();
+
+        byte[] events = replay.getEvents();
+        int pos = 0;
+        int remaining = replay.getEventCount();
+        long nextTick = 0; // 下一个事件的帧序号
+        long value = 0; // 下一个事件的编码
+        long[] decoded = new long[1];
+        if (remaining > 0) {
+            pos = readVarLong(events, pos, decoded);
+            value = decoded[0];
+            nextTick = value >>> 1;
+        }
+
+        long limit = replay.getDeathTick() + MAX_EXTRA_TICKS;
+        long tick = 0;
+        while (engine.getGameState() != GameEngine.STATE_OVER && tick <= limit) {
+            // 应用在这一帧之前生效的输入
+            while (remaining > 0 && nextTick == tick) {
+                if ((value & 1) == 0) {
+                    engine.flapPressed();
+                } else {
+                    engine.flapReleased();
+                }
+                if (--remaining > 0) {
+                    pos = readVarLong(events, pos, decoded);
+                    value = decoded[0];
+                    nextTick += value >>> 1;
+                }
+            }
+            engine.tick();
+            tick = engine.getTicks() - start;
+        }
+        long deathTick = engine.getGameState() == GameEngine.STATE_OVER ? tick : -1;
+        return new Result(replay, engine.getCurrentScore(), deathTick);
+    }
+
+    // 从pos开始读取一个varint，结果写入out[0]，返回下一个varint的位置
+    private static int readVarLong(byte[] buf, int pos, long[] out) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = buf[pos++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                out[0] = value;
+                return pos;
+            }
+        }
+        throw new IllegalArgumentException("录像已损坏");
+    }
+}
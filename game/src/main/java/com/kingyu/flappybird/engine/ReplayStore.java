@@ -0,0 +1,136 @@
+package com.kingyu.flappybird.engine;
+
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 录像的后台写入，作为录制器的回调使用，游戏结束时不在推进游戏的线程上读写文件
+ * onReplay()只将录像放入队列，由写入线程按顺序追加到录像库；写入失败时保留录像并退避重试，
+ * 等待写入的录像超过上限时丢弃新的录像。退出时等待队列中的录像写入完成
+ *
+ * @author Kingyu
+ */
+public class ReplayStore implements ReplayRecorder.Sink {
+    private static final int MAX_PENDING = 256; // 等待写入的录像的上限
+    private static final long MIN_BACKOFF = TimeUnit.MILLISECONDS.toNanos(100); // 写入失败后第一次重试的等待时间
+    private static final long MAX_BACKOFF = TimeUnit.SECONDS.toNanos(5);
+
+    private final ReplayCorpusWriter corpus;
+    private final Thread writer;
+
+    private final Object lock = new Object();
+    private final ArrayDeque<Replay> pending = new ArrayDeque<>(); // 等待写入的录像，队首在写入成功后才移除，由lock保护
+
+    // 统计数据，在持有lock时写入
+    private volatile long submitted; // 登记的录像数
+    private volatile long written; // 写入的录像数
+    private volatile long dropped; // 队列已满而丢弃的录像数
+    private volatile long failures; // 写入失败的次数
+
+    /**
+     * @param corpus 录像库，之后只由写入线程访问
+     */
+    public ReplayStore(ReplayCorpusWriter corpus) {
+        if (corpus == null) {
+            throw new IllegalArgumentException("传入了非法的参数");
+        }
+        this.corpus = corpus;
+        writer = new Thread(this::writeLoop, "ReplayWriter");
+        writer.setDaemon(true);
+        writer.start();
+        // 退出时写入尚未保存的录像
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "ReplayFlush"));
+    }
+
+    /**
+     * 登记一份录像，不读写文件，由写入线程稍后写入
+     */
+    @Override
+    public void onReplay(Replay replay) {
+        synchronized (lock) {
+            if (pending.size() >= MAX_PENDING) {
+                dropped++;
+                return;
+            }
+            pending.add(replay);
+            submitted++;
+        }
+        LockSupport.unpark(writer);
+    }
+
+    /**
+     * 等待已登记的录像写入完成，最多等待一秒
+     */
+    public void flush() {
+        long deadline = System.nanoTime() + 1_000_000_000L;
+        synchronized (lock) {
+            while (!pending.isEmpty() && System.nanoTime() - deadline < 0) {
+                LockSupport.unpark(writer);
+                try {
+                    lock.wait(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+        try {
+            corpus.force();
+        } catch (ClosedChannelException ignored) { // 录像库已关闭
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // 写入线程，队列为空时休眠，写入失败时按指数退避重试同一份录像
+    private void writeLoop() {
+        long backoff = MIN_BACKOFF;
+        while (true) {
+            Replay replay;
+            synchronized (lock) {
+                replay = pending.peek();
+                if (replay == null) {
+                    lock.notifyAll();
+                }
+            }
+            if (replay == null) {
+                LockSupport.park(this);
+                continue;
+            }
+            try {
+                corpus.append(replay);
+                synchronized (lock) {
+                    pending.poll();
+                    written++;
+                }
+                backoff = MIN_BACKOFF;
+            } catch (IOException e) {
+                synchronized (lock) {
+                    failures++;
+                }
+                e.printStackTrace();
+                LockSupport.parkNanos(this, backoff);
+                backoff = Math.min(backoff * 2, MAX_BACKOFF);
+            }
+        }
+    }
+
+    public long getSubmitted() {
+        return submitted;
+    }
+
+    public long getWritten() {
+        return written;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+}
@@ -0,0 +1,184 @@
+package com.kingyu.flappybird.util;
+
+import java.awt.Graphics2D;
+import java.awt.AlphaComposite;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 资源管理器，使用静态内部类实现了单例模式
+ * 每个图片路径只解码一次，所有使用者共享同一个图片对象；可选地将图片目录中的所有图片打包为图集，
+ * 图片作为图集的子图片返回；并统计每个资源解码后占用的堆内存
+ *
+ * @author Kingyu
+ */
+public class AssetManager {
+
+    private static class AssetManagerHolder {
+        private static final AssetManager assetManager = new AssetManager(Constant.USE_TEXTURE_ATLAS);
+    }
+
+    public static AssetManager getInstance() {
+        return AssetManagerHolder.assetManager;
+    }
+
+    private final boolean useAtlas; // 是否使用图集
+    private final Map<String, BufferedImage> images = new ConcurrentHashMap<>(); // 已加载的图片，键为图片路径
+    private final List<BufferedImage> atlases = new ArrayList<>(); // 图集
+    private final AtomicInteger decodeCount = new AtomicInteger(); // 解码图片文件的次数
+
+    AssetManager(boolean useAtlas) {
+        this.useAtlas = useAtlas;
+        if (useAtlas) {
+            packAtlas();
+        }
+    }
+
+    /**
+     * 获取图片，首次获取时解码，之后返回同一个对象；返回的图片为共享资源，不可修改
+     *
+     * @param imgPath 图片路径
+     * @return 图片资源，加载失败返回null
+     */
+    public BufferedImage getImage(String imgPath) {
+        BufferedImage image = images.get(imgPath);
+        if (image == null) {
+            image = images.computeIfAbsent(imgPath, this::decode);
+        }
+        return image;
+    }
+
+    private BufferedImage decode(String imgPath) {
+        decodeCount.incrementAndGet();
+        return GameUtil.loadBufferedImage(imgPath);
+    }
+
+    /**
+     * 将图片目录中的所有图片打包为图集，不透明和透明的图片分别打包，使不透明的图片保持最快的绘制方式
+     * 图片按高度从高到低依次排成一行，超出宽度后换行
+     */
+    private void packAtlas() {
+        File[] files = new File(Constant.IMG_DIR).listFiles((dir, name) -> name.endsWith(".png"));
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files);
+        List<String> opaque = new ArrayList<>();
+        List<String> translucent = new ArrayList<>();
+        Map<String, BufferedImage> decoded = new TreeMap<>();
+        for (File file : files) {
+            String path = Constant.IMG_DIR + "/" + file.getName();
+            BufferedImage image = decode(path);
+            if (image == null) {
+                continue;
+            }
+            decoded.put(path, image);
+            if (image.getColorModel().getTransparency() == Transparency.OPAQUE) {
+                opaque.add(path);
+            } else {
+                translucent.add(path);
+            }
+        }
+        packAtlas(opaque, decoded, Transparency.OPAQUE);
+        packAtlas(translucent, decoded, Transparency.TRANSLUCENT);
+    }
+
+    private void packAtlas(List<String> paths, Map<String, BufferedImage> decoded, int transparency) {
+        if (paths.isEmpty()) {
+            return;
+        }
+        paths.sort((a, b) -> decoded.get(b).getHeight() - decoded.get(a).getHeight());
+        int atlasWidth = 0;
+        for (String path : paths) {
+            atlasWidth = Math.max(atlasWidth, decoded.get(path).getWidth());
+        }
+        atlasWidth = Math.max(atlasWidth, Constant.ATLAS_WIDTH);
+
+        // 计算每张图片在图集中的位置
+        int[][] positions = new int[paths.size()][];
+        int x = 0, y = 0, rowHeight = 0;
+        for (int i = 0; i < paths.size(); i++) {
+            BufferedImage image = decoded.get(paths.get(i));
+            if (x + image.getWidth() > atlasWidth) { // 换行
+                x = 0;
+                y += rowHeight;
+                rowHeight = 0;
+            }
+            positions[i] = new int[] { x, y };
+            x += image.getWidth();
+            rowHeight = Math.max(rowHeight, image.getHeight());
+        }
+
+        BufferedImage atlas = GameUtil.createCompatibleImage(atlasWidth, y + rowHeight, transparency);
+        Graphics2D g = atlas.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        for (int i = 0; i < paths.size(); i++) {
+            String path = paths.get(i);
+            BufferedImage image = decoded.get(path);
+            g.drawImage(image, positions[i][0], positions[i][1], null);
+            images.put(path, atlas.getSubimage(positions[i][0], positions[i][1], image.getWidth(), image.getHeight()));
+        }
+        g.dispose();
+        atlases.add(atlas);
+    }
+
+    /**
+     * 图片解码后占用的堆内存，图集中的图片按所占区域计算
+     *
+     * @param image 图片
+     * @return 字节数
+     */
+    public static long getImageBytes(BufferedImage image) {
+        DataBuffer buffer = image.getRaster().getDataBuffer();
+        int bytesPerElement = DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+        if (image.getRaster().getParent() != null) { // 子图片与图集共享数据
+            int pixelBytes = image.getColorModel().getPixelSize() / 8;
+            return (long) image.getWidth() * image.getHeight() * Math.max(pixelBytes, bytesPerElement);
+        }
+        return (long) buffer.getSize() * buffer.getNumBanks() * bytesPerElement;
+    }
+
+    // 每个资源解码后占用的堆内存，键为图片路径，按路径排序
+    public Map<String, Long> getAssetBytes() {
+        Map<String, Long> bytes = new TreeMap<>();
+        for (Map.Entry<String, BufferedImage> entry : images.entrySet()) {
+            if (entry.getValue() != null) {
+                bytes.put(entry.getKey(), getImageBytes(entry.getValue()));
+            }
+        }
+        return Collections.unmodifiableMap(bytes);
+    }
+
+    // 所有资源占用的堆内存，使用图集时为图集的大小
+    public long getTotalBytes() {
+        long total = 0;
+        if (useAtlas) {
+            for (BufferedImage atlas : atlases) {
+                total += getImageBytes(atlas);
+            }
+            return total;
+        }
+        for (long bytes : getAssetBytes().values()) {
+            total += bytes;
+        }
+        return total;
+    }
+
+    public int getDecodeCount() {
+        return decodeCount.get();
+    }
+
+    public boolean isUsingAtlas() {
+        return useAtlas;
+    }
+}
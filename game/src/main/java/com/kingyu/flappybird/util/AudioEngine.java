@@ -0,0 +1,267 @@
+package com.kingyu.flappybird.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+/**
+ * 音频引擎，使用静态内部类实现了单例模式
+ * 启动时将所有音效解码到内存，由单独的混音线程将正在播放的音效混合后写入音频输出；
+ * 同时播放的音效数量有上限，超出时替换最早开始播放的音效。play()只登记播放请求，不会读取文件或阻塞
+ *
+ * @author Kingyu
+ */
+public class AudioEngine {
+
+    private static class AudioEngineHolder {
+        private static final AudioEngine audioEngine = new AudioEngine(Constant.WAV_PATH);
+    }
+
+    public static AudioEngine getInstance() {
+        return AudioEngineHolder.audioEngine;
+    }
+
+    // 音效的编号，与Constant.WAV_PATH的顺序一致
+    public static final int SOUND_FLY = 0;
+    public static final int SOUND_CRASH = 1;
+    public static final int SOUND_SCORE = 2;
+
+    // 混音的格式：44.1kHz，16位，双声道
+    private static final AudioFormat FORMAT = new AudioFormat(44100f, 16, 2, true, false);
+    private static final int CHANNELS = 2;
+    private static final int CHUNK_FRAMES = 512; // 每次混音的帧数，约11.6ms
+
+    private final short[][] samples; // 解码后的音效，双声道交错排列
+
+    // 等待混音线程处理的播放请求，环形队列
+    private final int[] pendingSounds = new int[Constant.MAX_PENDING_SOUNDS];
+    private final long[] pendingTimes = new long[Constant.MAX_PENDING_SOUNDS];
+    private int pendingHead, pendingSize;
+
+    // 正在播放的音效，只由混音线程访问
+    private final int[] voiceSounds = new int[Constant.MAX_VOICES];
+    private final int[] voicePositions = new int[Constant.MAX_VOICES];
+    private final long[] voiceTimes = new long[Constant.MAX_VOICES]; // 播放请求的时间，尚未开始播放时大于0
+    private int voiceCount;
+
+    private final int[] mixBuffer = new int[CHUNK_FRAMES * CHANNELS];
+    private final byte[] outBuffer = new byte[CHUNK_FRAMES * CHANNELS * 2];
+
+    private final Thread mixer; // 混音线程，没有可用的音频输出时为null
+
+    // 统计数据，播放请求的计数可由多个线程写入，其余只由混音线程写入
+    private final AtomicLong triggered = new AtomicLong(); // 播放请求的次数
+    private final AtomicLong dropped = new AtomicLong(); // 因队列已满或没有音频输出而丢弃的请求数
+    private volatile long stolen; // 因达到同时播放上限而被替换的音效数
+    private volatile long started; // 开始播放的音效数
+    private volatile long totalLatency; // 从请求到开始写入音频输出的延迟总和，单位为纳秒
+    private volatile long maxLatency; // 最大延迟，单位为纳秒
+
+    AudioEngine(String[] paths) {
+        samples = new short[paths.length][];
+        for (int i = 0; i < paths.length; i++) {
+            samples[i] = decode(paths[i]);
+        }
+        SourceDataLine line = openLine();
+        if (line == null) {
+            mixer = null;
+            return;
+        }
+        mixer = new Thread(() -> mix(line), "AudioMixer");
+        mixer.setDaemon(true);
+        mixer.setPriority(Thread.MAX_PRIORITY);
+        mixer.start();
+    }
+
+    /**
+     * 将wav文件解码为混音格式的采样，单声道复制为双声道
+     *
+     * @param path 文件路径
+     * @return 双声道交错排列的采样，解码失败返回空数组
+     */
+    private static short[] decode(String path) {
+        try (AudioInputStream source = AudioSystem.getAudioInputStream(new File(path))) {
+            int channels = source.getFormat().getChannels();
+            AudioFormat pcm = new AudioFormat(FORMAT.getSampleRate(), 16, channels, true, false);
+            try (AudioInputStream in = AudioSystem.getAudioInputStream(pcm, source)) {
+                byte[] bytes = readAll(in);
+                int frames = bytes.length / (2 * channels);
+                short[] out = new short[frames * CHANNELS];
+                for (int f = 0; f < frames; f++) {
+                    for (int c = 0; c < CHANNELS; c++) {
+                        int i = (f * channels + Math.min(c, channels - 1)) * 2;
+                        out[f * CHANNELS + c] = (short) ((bytes[i] & 0xff) | bytes[i + 1] << 8);
+                    }
+                }
+                return out;
+            }
+        } catch (UnsupportedAudioFileException | IOException | IllegalArgumentException e) {
+            e.printStackTrace();
+            return new short[0];
+        }
+    }
+
+    private static byte[] readAll(AudioInputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int n;
+        while ((n = in.read(buffer)) > 0) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    // 打开音频输出，缓冲区为两次混音的大小，没有可用的音频输出时返回null
+    private SourceDataLine openLine() {
+        try {
+            SourceDataLine line = AudioSystem.getSourceDataLine(FORMAT);
+            line.open(FORMAT, outBuffer.length * 2);
+            line.start();
+            return line;
+        } catch (LineUnavailableException | IllegalArgumentException | SecurityException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 请求播放音效，可在任意线程调用
+     *
+     * @param sound 音效的编号
+     */
+    public void play(int sound) {
+        triggered.incrementAndGet();
+        if (mixer == null || samples[sound].length == 0) {
+            dropped.incrementAndGet();
+            return;
+        }
+        synchronized (pendingSounds) {
+            if (pendingSize == pendingSounds.length) {
+                dropped.incrementAndGet();
+                return;
+            }
+            int tail = (pendingHead + pendingSize) % pendingSounds.length;
+            pendingSounds[tail] = sound;
+            pendingTimes[tail] = System.nanoTime();
+            pendingSize++;
+        }
+        LockSupport.unpark(mixer);
+    }
+
+    // 混音线程的主循环
+    private void mix(SourceDataLine line) {
+        while (true) {
+            acceptPending();
+            if (voiceCount == 0) {
+                LockSupport.park(this); // 没有正在播放的音效，等待播放请求
+                continue;
+            }
+            mixChunk();
+            line.write(outBuffer, 0, outBuffer.length); // 缓冲区满时阻塞，控制混音的节奏
+        }
+    }
+
+    // 将播放请求加入正在播放的音效，达到上限时替换播放进度最多的音效
+    private void acceptPending() {
+        synchronized (pendingSounds) {
+            while (pendingSize > 0) {
+                int voice = voiceCount;
+                if (voiceCount == voiceSounds.length) {
+                    voice = 0;
+                    for (int i = 1; i < voiceCount; i++) {
+                        if (voicePositions[i] > voicePositions[voice]) {
+                            voice = i;
+                        }
+                    }
+                    stolen++;
+                } else {
+                    voiceCount++;
+                }
+                voiceSounds[voice] = pendingSounds[pendingHead];
+                voiceTimes[voice] = pendingTimes[pendingHead];
+                voicePositions[voice] = 0;
+                pendingHead = (pendingHead + 1) % pendingSounds.length;
+                pendingSize--;
+            }
+        }
+    }
+
+    // 混合一段采样到输出缓冲区，移除播放完毕的音效
+    private void mixChunk() {
+        Arrays.fill(mixBuffer, 0);
+        long now = System.nanoTime();
+        for (int v = 0; v < voiceCount; v++) {
+            if (voiceTimes[v] > 0) { // 开始播放，记录延迟
+                long latency = now - voiceTimes[v];
+                totalLatency += latency;
+                if (latency > maxLatency) {
+                    maxLatency = latency;
+                }
+                started++;
+                voiceTimes[v] = 0;
+            }
+            short[] sound = samples[voiceSounds[v]];
+            int pos = voicePositions[v];
+            int n = Math.min(mixBuffer.length, sound.length - pos);
+            for (int i = 0; i < n; i++) {
+                mixBuffer[i] += sound[pos + i];
+            }
+            voicePositions[v] = pos + n;
+        }
+        // 移除播放完毕的音效
+        for (int v = voiceCount - 1; v >= 0; v--) {
+            if (voicePositions[v] >= samples[voiceSounds[v]].length) {
+                voiceCount--;
+                voiceSounds[v] = voiceSounds[voiceCount];
+                voicePositions[v] = voicePositions[voiceCount];
+                voiceTimes[v] = voiceTimes[voiceCount];
+            }
+        }
+        // 限幅后转换为16位小端字节
+        for (int i = 0; i < mixBuffer.length; i++) {
+            int sample = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, mixBuffer[i]));
+            outBuffer[i * 2] = (byte) sample;
+            outBuffer[i * 2 + 1] = (byte) (sample >> 8);
+        }
+    }
+
+    // 是否有可用的音频输出
+    public boolean isAvailable() {
+        return mixer != null;
+    }
+
+    public long getTriggered() {
+        return triggered.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public long getStolen() {
+        return stolen;
+    }
+
+    public long getStarted() {
+        return started;
+    }
+
+    // 从请求到开始写入音频输出的平均延迟，单位为纳秒，不含音频输出缓冲区的延迟
+    public long getAverageLatencyNanos() {
+        long started = this.started;
+        return started == 0 ? 0 : totalLatency / started;
+    }
+
+    public long getMaxLatencyNanos() {
+        return maxLatency;
+    }
+}
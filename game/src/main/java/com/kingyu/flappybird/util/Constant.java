@@ -0,0 +1,117 @@
+package com.kingyu.flappybird.util;
+
+import java.awt.Color;
+import java.awt.Font;
+
+import com.kingyu.flappybird.engine.EngineConstant;
+
+/**
+ * 常量类
+ * 
+ * @author Kingyu 后续优化可写入数据库或文件中，便于修改
+ */
+
+public class Constant {
+	// 窗口尺寸，与模拟引擎的画面尺寸相同
+	public static final int FRAME_WIDTH = EngineConstant.FRAME_WIDTH;
+	public static final int FRAME_HEIGHT = EngineConstant.FRAME_HEIGHT;
+
+	// 游戏标题
+	public static final String GAME_TITLE = "Flappy Bird written by Kingyu";
+
+	// 窗口位置
+	public static final int FRAME_X = 600;
+	public static final int FRAME_Y = 100;
+
+	// 图像资源路径
+	public static final String IMG_DIR = "resources/img"; // 图片目录
+	public static final String BG_IMG_PATH = "resources/img/background.png"; // 背景图片
+
+	// 小鸟图片
+	public static final String[][] BIRDS_IMG_PATH = {
+			{ "resources/img/0.png", "resources/img/1.png", "resources/img/2.png", "resources/img/3.png",
+					"resources/img/4.png", "resources/img/5.png", "resources/img/6.png", "resources/img/7.png" },
+			{ "resources/img/up.png", "resources/img/up.png", "resources/img/up.png", "resources/img/up.png",
+					"resources/img/up.png", "resources/img/up.png", "resources/img/up.png", "resources/img/up.png" },
+			{ "resources/img/down_0.png", "resources/img/down_1.png", "resources/img/down_2.png",
+					"resources/img/down_3.png", "resources/img/down_4.png", "resources/img/down_5.png",
+					"resources/img/down_6.png", "resources/img/down_7.png" },
+			{ "resources/img/dead.png", "resources/img/dead.png", "resources/img/dead.png", "resources/img/dead.png",
+					"resources/img/dead.png", "resources/img/dead.png", "resources/img/dead.png",
+					"resources/img/dead.png", } };
+
+	// 云朵图片
+	public static final String[] CLOUDS_IMG_PATH = { "resources/img/cloud_0.png", "resources/img/cloud_1.png" };
+
+	// 水管图片
+	public static final String[] PIPE_IMG_PATH = { "resources/img/pipe.png", "resources/img/pipe_top.png",
+			"resources/img/pipe_bottom.png" };
+
+	public static final String TITLE_IMG_PATH = "resources/img/title.png";
+	public static final String NOTICE_IMG_PATH = "resources/img/start.png";
+	public static final String SCORE_IMG_PATH = "resources/img/score.png";
+	public static final String OVER_IMG_PATH = "resources/img/over.png";
+	public static final String AGAIN_IMG_PATH = "resources/img/again.png";
+
+	// 音效路径，顺序与AudioEngine中音效的编号一致
+	public static final String[] WAV_PATH = { "resources/wav/fly.wav", "resources/wav/crash.wav",
+			"resources/wav/score.wav" };
+	public static final int MAX_VOICES = 8; // 同时播放的音效的最大数量
+	public static final int MAX_PENDING_SOUNDS = 32; // 等待混音的播放请求的最大数量
+
+	public static final String SCORE_FILE_PATH = "resources/score"; // 分数文件路径
+	public static final String HISTORY_FILE_PATH = "resources/history"; // 游戏记录文件路径
+	public static final int TOP_RUN_COUNT = 10; // 排行榜保留的局数
+	public static final int HISTORY_MAX_SCORE = 4096; // 分数直方图的范围，更高的分数按同分计算排名
+	public static final int HISTORY_COMPACT_THRESHOLD = 1024; // 游戏记录追加多少局后压缩
+	public static final String REPLAY_CORPUS_PATH = "resources/replays/corpus"; // 录像库路径，不含后缀
+	// 是否保存每局游戏的录像，可通过-Dflappybird.replay=false关闭
+	public static final boolean RECORD_REPLAYS = !"false".equalsIgnoreCase(System.getProperty("flappybird.replay"));
+	// 指标服务器的端口，通过-Dflappybird.metrics.port=n开启，只绑定本机回环地址，为null时不启动
+	public static final Integer METRICS_PORT = Integer.getInteger("flappybird.metrics.port");
+
+	// 游戏速度（水管及背景层的移动速度），由模拟引擎决定
+	public static final int GAME_SPEED = EngineConstant.GAME_SPEED;
+
+	// 游戏背景色
+	public static final Color BG_COLOR = new Color(0x4bc4cf);
+
+	// 游戏逻辑的刷新率，每秒推进的逻辑帧数，由模拟引擎决定
+	public static final int TICK_RATE = EngineConstant.TICK_RATE;
+	// 输入队列的容量，两帧之间最多登记的按键次数
+	public static final int INPUT_QUEUE_CAPACITY = 64;
+	// 画面的刷新率，每秒绘制的画面帧数
+	public static final int RENDER_RATE = 30;
+	// 游戏逻辑落后时，每次最多连续补的逻辑帧数
+	public static final int MAX_CATCH_UP_TICKS = 5;
+
+	// 标题栏高度
+	public static final int TOP_BAR_HEIGHT = EngineConstant.TOP_BAR_HEIGHT;
+
+	// 地面高度
+	public static final int GROUND_HEIGHT = 35;
+
+	// 是否将图片目录中的所有图片打包为图集，可通过系统属性flappybird.atlas开启
+	public static final boolean USE_TEXTURE_ATLAS = Boolean.getBoolean("flappybird.atlas");
+	// 游戏的种子，可通过-Dflappybird.seed=n指定以重现游戏过程，为null时使用随机的种子
+	public static final Long SEED = Long.getLong("flappybird.seed");
+	// 图集的宽度
+	public static final int ATLAS_WIDTH = 512;
+
+	// 水管图片缓存的最大数量
+	public static final int PIPE_SPRITE_CACHE_SIZE = 64;
+
+	// 上方管道加长
+	public static final int TOP_PIPE_LENGTHENING = EngineConstant.TOP_PIPE_LENGTHENING;
+
+	public static final int CLOUD_BORN_PERCENT = 6; // 云朵生成的概率，单位为百分比
+	public static final int CLOUD_IMAGE_COUNT = 2; // 云朵图片的个数
+	public static final int MAX_CLOUD_COUNT = 7; // 云朵的最大数量
+	// 云朵缩放比例的档位数，每张云朵图片预先缩放出这么多张图片，可通过-Dflappybird.cloudScales=n修改
+	public static final int CLOUD_SCALE_COUNT = Math.max(1, Integer.getInteger("flappybird.cloudScales", 4));
+
+	public static final Font CURRENT_SCORE_FONT = new Font("华文琥珀", Font.BOLD, 32);// 字体
+	public static final Font SCORE_FONT = new Font("华文琥珀", Font.BOLD, 24);// 字体
+	public static final Font STANDING_FONT = new Font(Font.SANS_SERIF, Font.BOLD, 14);// 结束界面排名的字体
+
+}
@@ -0,0 +1,102 @@
+package com.kingyu.flappybird.util;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.awt.font.FontRenderContext;
+import java.awt.geom.AffineTransform;
+
+import javax.imageio.ImageIO;
+
+/**
+ * 工具类，游戏中用到的工具都在此类
+ *
+ * @author Kingyu
+ */
+public class GameUtil {
+
+    private GameUtil() {
+    } // 私有化，防止其他类实例化此类
+
+    /**
+     * 装载图片的方法，图片被转换为与屏幕兼容的格式，绘制时无需转换格式
+     *
+     * @param imgPath 图片路径
+     * @return 图片资源
+     */
+    public static BufferedImage loadBufferedImage(String imgPath) {
+        try (FileInputStream in = new FileInputStream(imgPath)) {
+            BufferedImage image = ImageIO.read(in);
+            return image == null ? null : toCompatibleImage(image);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * 将图片转换为与屏幕兼容的格式，格式已兼容时返回原图片
+     *
+     * @param image 图片
+     * @return 兼容格式的图片
+     */
+    public static BufferedImage toCompatibleImage(BufferedImage image) {
+        int transparency = image.getColorModel().getTransparency();
+        BufferedImage compatible = createCompatibleImage(image.getWidth(), image.getHeight(), transparency);
+        if (image.getType() != BufferedImage.TYPE_CUSTOM && image.getType() == compatible.getType()) {
+            return image;
+        }
+        Graphics2D g = compatible.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.drawImage(image, 0, 0, null);
+        g.dispose();
+        return compatible;
+    }
+
+    /**
+     * 创建与屏幕格式兼容的图片，绘制到屏幕时无需转换格式；无窗口环境下创建TYPE_INT_ARGB格式的图片
+     *
+     * @param width        图片宽度
+     * @param height       图片高度
+     * @param transparency 透明度类型，取值为Transparency中的常量
+     * @return 空白的图片
+     */
+    public static BufferedImage createCompatibleImage(int width, int height, int transparency) {
+        if (GraphicsEnvironment.isHeadless()) {
+            return new BufferedImage(width, height,
+                    transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        }
+        GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                .getDefaultConfiguration();
+        return gc.createCompatibleImage(width, height, transparency);
+    }
+
+    /**
+     * 获得指定字符串在指定字体的宽高
+     */
+    public static int getStringWidth(Font font, String str) {
+        AffineTransform affinetransform = new AffineTransform();
+        FontRenderContext frc = new FontRenderContext(affinetransform, true, true);
+        return (int) (font.getStringBounds(str, frc).getWidth());
+    }
+
+    public static int getStringHeight(Font font, String str) {
+        AffineTransform affinetransform = new AffineTransform();
+        FontRenderContext frc = new FontRenderContext(affinetransform, true, true);
+        return (int) (font.getStringBounds(str, frc).getHeight());
+    }
+
+
+    /**
+     *
+     * @param image:图片资源
+     * @param x：x坐标
+     * @param y：y坐标
+     * @param g：画笔
+     */
+    public static void drawImage(BufferedImage image, int x, int y, Graphics g) {
+        g.drawImage(image, x, y, null);
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.kingyu.flappybird.util;
+
+/**
+ * 音乐工具类
+ *
+ * @author Kingyu
+ * wav音频：JDK提供的类可直接解码 mp3音频：JDK没有提供支持，需要使用第三方的工具包
+ * 音效在启动时由AudioEngine解码到内存，播放时不再读取文件
+ */
+public class MusicUtil {
+
+    private MusicUtil() {
+    } // 私有化，防止其他类实例化此类
+
+    // 预先加载音效并启动混音线程，应在游戏开始前调用
+    public static void init() {
+        AudioEngine.getInstance();
+    }
+
+    // wav播放
+    public static void playFly() {
+        AudioEngine.getInstance().play(AudioEngine.SOUND_FLY);
+    }
+
+    public static void playCrash() {
+        AudioEngine.getInstance().play(AudioEngine.SOUND_CRASH);
+    }
+
+    public static void playScore() {
+        AudioEngine.getInstance().play(AudioEngine.SOUND_SCORE);
+    }
+}
@@ -0,0 +1,607 @@
+package com.kingyu.flappybird.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * 游戏记录，保存每一局游戏的分数、时长、种子和时间，支持排行榜和百分位查询
+ * 内存中维护分数最高的前K局（最小堆）和分数直方图（树状数组），查询前K局为O(K log K)，查询排名和百分位为O(log n)，不读写文件。
+ * 存档是日志结构的文件：文件头之后是一份快照（总局数、直方图和前K局），之后依次追加每一局的记录，每条记录带CRC32校验和，
+ * 打开时丢弃末尾不完整或损坏的记录。追加的记录达到compactThreshold条时压缩存档：先将快照之后的记录归档到段文件
+ * （存档名.第一局的序号），再将内存中的状态写为新的快照，都是写临时文件并force()后原子地替换，每一局的记录都保留在段文件或存档中，
+ * 可由forEachRun()按顺序读取。写入失败时按指数退避重试，并重写快照而不是在可能不完整的记录之后追加。所有写入都由后台线程完成
+ *
+ * @author Kingyu
+ */
+public class RunHistory {
+    private static final int MAGIC = 0x46425248; // "FBRH"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 12; // 魔数、版本、快照的字节数
+    private static final int RUN_SIZE = 32; // 一局的数据：分数、时长、种子、时间
+    private static final int RECORD_SIZE = RUN_SIZE + 4; // 日志中的一条记录：一局的数据和校验和
+    private static final int MIN_SNAPSHOT_SIZE = 20; // 空的快照：总局数、直方图的格数、前K局的数量和校验和
+    private static final long MIN_BACKOFF = TimeUnit.MILLISECONDS.toNanos(100); // 写入失败后第一次重试的等待时间
+    private static final long MAX_BACKOFF = TimeUnit.SECONDS.toNanos(5);
+
+    /**
+     * 一局游戏的记录
+     */
+    public static final class Run {
+        private final long score; // 分数
+        private final long ticks; // 时长，单位为帧
+        private final long seed; // 这局游戏的种子
+        private final long timestamp; // 结束的时间，单位为毫秒
+
+        public Run(long score, long ticks, long seed, long timestamp) {
+            this.score = score;
+            this.ticks = ticks;
+            this.seed = seed;
+            this.timestamp = timestamp;
+        }
+
+        public long getScore() {
+            return score;
+        }
+
+        public long getTicks() {
+            return ticks;
+        }
+
+        public long getSeed() {
+            return seed;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        @Override
+        public String toString() {
+            return "Run[score=" + score + ", ticks=" + ticks + ", seed=" + seed + ", timestamp=" + timestamp + "]";
+        }
+    }
+
+    /**
+     * 一局游戏在所有记录中的排名，在追加时计算，绘制时直接使用
+     */
+    public static final class Standing {
+        private final Run run;
+        private final long rank; // 排名，分数更高的局数+1
+        private final long total; // 总局数
+        private final double percentile; // 百分位，分数更低的局数加上一半同分的局数，占总局数的百分比
+        private final String label; // 绘制在结束界面的文字
+
+        Standing(Run run, long rank, long total, double percentile) {
+            this.run = run;
+            this.rank = rank;
+            this.total = total;
+            this.percentile = percentile;
+            this.label = String.format("RANK %d / %d   TOP %d%%", rank, total,
+                    Math.max(1, Math.round(100 - percentile)));
+        }
+
+        public Run getRun() {
+            return run;
+        }
+
+        public long getRank() {
+            return rank;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public double getPercentile() {
+            return percentile;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    // 前K局的最小堆按此顺序排列，堆顶是最先被淘汰的局：分数低的先淘汰，同分时较晚的先淘汰
+    private static final Comparator<Run> EVICTION_ORDER = Comparator.comparingLong(Run::getScore)
+            .thenComparing(Comparator.comparingLong(Run::getTimestamp).reversed());
+
+    private final Path path; // 存档，只在内存中记录时为null
+    private final int topCount; // 保留的前K局的数量
+    private final int compactThreshold; // 触发压缩的日志记录数
+    private final Thread writer; // 写入线程，只在内存中记录时为null
+
+    // 内存中的状态，由this保护
+    private final long[] tree; // 分数直方图的树状数组，下标从1开始，分数不小于maxScore的局计入最后一格
+    private final PriorityQueue<Run> top; // 分数最高的前K局
+    private long total; // 总局数
+    private Standing last; // 最近一局的排名
+    private final ArrayDeque<Run> pending = new ArrayDeque<>(); // 等待写入的局
+    private final List<Run> log = new ArrayList<>(); // 快照之后的局，包括等待写入的局，压缩时归档到段文件
+    private long logStart; // log中第一局的序号，即快照中的总局数
+    private int logCount; // 存档中快照之后的记录数，包括等待写入的局
+    private boolean writing; // 写入线程是否正在写入取出的局或快照
+
+    private volatile long compactions; // 压缩的次数
+    private volatile long failures; // 写入失败的次数
+
+    /**
+     * 打开存档并将其中的记录装载到内存，存档不存在时从空的记录开始
+     *
+     * @param file             存档，为null时只在内存中记录，不创建写入线程
+     * @param topCount         保留的前K局的数量
+     * @param maxScore         直方图的分数范围，分数不小于此值的局按同分计算排名
+     * @param compactThreshold 触发压缩的日志记录数
+     */
+    public RunHistory(File file, int topCount, int maxScore, int compactThreshold) {
+        if (topCount <= 0 || maxScore <= 0 || compactThreshold <= 0) {
+            throw new IllegalArgumentException("传入了非法的参数");
+        }
+        this.path = file == null ? null : file.toPath();
+        this.topCount = topCount;
+        this.compactThreshold = compactThreshold;
+        tree = new long[maxScore + 2]; // 格子0到maxScore，下标从1开始
+        top = new PriorityQueue<>(topCount + 1, EVICTION_ORDER);
+        if (file == null) {
+            writer = null;
+            return;
+        }
+        load();
+        writer = new Thread(this::writeLoop, "RunHistoryWriter");
+        writer.setDaemon(true);
+        writer.start();
+        // 退出时写入尚未保存的局
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "RunHistoryFlush"));
+    }
+
+    /**
+     * 记录一局游戏，只更新内存中的状态，存档由后台线程写入
+     *
+     * @return 这一局的排名
+     */
+    public Standing append(Run run) {
+        Standing standing;
+        synchronized (this) {
+            add(run);
+            if (writer != null) {
+                pending.add(run);
+                log.add(run);
+                logCount++;
+            }
+            int bucket = bucket(run.getScore());
+            long below = prefixSum(bucket);
+            long same = prefixSum(bucket + 1) - below;
+            standing = new Standing(run, total - below - same + 1, total, (below + same / 2.0) * 100 / total);
+            last = standing;
+        }
+        if (writer != null) {
+            LockSupport.unpark(writer);
+        }
+        return standing;
+    }
+
+    // 将一局加入直方图和前K局
+    private void add(Run run) {
+        total++;
+        for (int i = bucket(run.getScore()) + 1; i < tree.length; i += i & -i) {
+            tree[i]++;
+        }
+        offerTop(run);
+    }
+
+    private void offerTop(Run run) {
+        top.add(run);
+        if (top.size() > topCount) {
+            top.poll();
+        }
+    }
+
+    // 分数所在的格子，分数不小于maxScore的局都在最后一格（maxScore）
+    private int bucket(long score) {
+        return (int) Math.max(0, Math.min(score, tree.length - 2));
+    }
+
+    // 分数所在格子小于n的局数，即直方图前n格之和
+    private long prefixSum(int n) {
+        long sum = 0;
+        for (int i = n; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * 等待已记录的局写入存档，最多等待一秒
+     */
+    public void flush() {
+        if (writer == null) {
+            return;
+        }
+        long deadline = System.nanoTime() + 1_000_000_000L;
+        synchronized (this) {
+            while ((writing || !pending.isEmpty() || logCount >= compactThreshold)
+                    && System.nanoTime() - deadline < 0) {
+                LockSupport.unpark(writer);
+                try {
+                    wait(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 分数最高的前k局，按分数从高到低排列
+     */
+    public synchronized List<Run> getTop(int k) {
+        List<Run> runs = new ArrayList<>(top);
+        runs.sort(EVICTION_ORDER.reversed());
+        return runs.subList(0, Math.min(k, runs.size()));
+    }
+
+    // 分数低于score的局所占的百分比，同分的局按一半计算
+    public synchronized double percentile(long score) {
+        if (total == 0) {
+            return 0;
+        }
+        int bucket = bucket(score);
+        long below = prefixSum(bucket);
+        long same = prefixSum(bucket + 1) - below;
+        return (below + same / 2.0) * 100 / total;
+    }
+
+    // 最近一局的排名，没有记录时为null
+    public synchronized Standing getLast() {
+        return last;
+    }
+
+    public synchronized long getTotal() {
+        return total;
+    }
+
+    public long getCompactions() {
+        return compactions;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    /**
+     * 按记录的顺序读取每一局：先读取已归档的段文件，再读取快照之后的局。会读取文件，不要在绘制线程调用
+     * 只在内存中记录时只有内存中的局，从存档装载的快照之前且未归档的局不可读取
+     */
+    public void forEachRun(Consumer<? super Run> action) throws IOException {
+        List<Run> tail;
+        long tailStart;
+        synchronized (this) {
+            tail = new ArrayList<>(log);
+            tailStart = logStart;
+        }
+        if (path != null) {
+            List<Long> starts = segmentStarts();
+            for (int i = 0; i < starts.size(); i++) {
+                long start = starts.get(i);
+                if (start >= tailStart) {
+                    break; // 压缩未完成时留下的段，其中的局仍在内存中
+                }
+                long end = i + 1 < starts.size() ? Math.min(starts.get(i + 1), tailStart) : tailStart;
+                readSegment(segment(start), end - start, action);
+            }
+        }
+        for (Run run : tail) {
+            action.accept(run);
+        }
+    }
+
+    // 已归档的段文件中第一局的序号，从小到大排列
+    private List<Long> segmentStarts() throws IOException {
+        String prefix = path.getFileName() + ".";
+        List<Long> starts = new ArrayList<>();
+        try (DirectoryStream<Path> dir = Files.newDirectoryStream(path.toAbsolutePath().getParent(), prefix + "*")) {
+            for (Path file : dir) {
+                String suffix = file.getFileName().toString().substring(prefix.length());
+                if (!suffix.isEmpty() && suffix.chars().allMatch(Character::isDigit)) {
+                    starts.add(Long.parseLong(suffix));
+                }
+            }
+        } catch (NoSuchFileException e) {
+            return starts;
+        }
+        starts.sort(null);
+        return starts;
+    }
+
+    private Path segment(long start) {
+        return path.resolveSibling(path.getFileName() + "." + start);
+    }
+
+    // 读取段文件中最多count条记录，遇到损坏的记录时停止
+    private static void readSegment(Path file, long count, Consumer<? super Run> action) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(file));
+        CRC32 crc = new CRC32();
+        for (int pos = 0; count > 0 && pos + RECORD_SIZE <= buf.capacity(); pos += RECORD_SIZE, count--) {
+            crc.reset();
+            crc.update(buf.array(), pos, RUN_SIZE);
+            if ((int) crc.getValue() != buf.getInt(pos + RUN_SIZE)) {
+                System.err.println("游戏记录的段文件已损坏: " + file);
+                return;
+            }
+            action.accept(readRun(buf, pos));
+        }
+    }
+
+    // 装载存档：快照和之后每一条完整的记录
+    private void load() {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(path);
+        } catch (NoSuchFileException e) {
+            return;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+        int snapshotSize = bytes.length < HEADER_SIZE ? -1 : buf.getInt(8);
+        if (bytes.length < HEADER_SIZE || buf.getInt(0) != MAGIC || buf.getInt(4) != VERSION
+                || snapshotSize != 0 && snapshotSize < MIN_SNAPSHOT_SIZE || snapshotSize > bytes.length - HEADER_SIZE
+                || snapshotSize > 0 && !readSnapshot(buf, snapshotSize)) {
+            System.err.println("游戏记录已损坏，已忽略: " + path);
+            reset();
+            logCount = compactThreshold; // 立即重写存档
+            return;
+        }
+        logStart = total;
+        CRC32 crc = new CRC32();
+        int pos = HEADER_SIZE + snapshotSize;
+        for (; pos + RECORD_SIZE <= bytes.length; pos += RECORD_SIZE) {
+            crc.reset();
+            crc.update(bytes, pos, RUN_SIZE);
+            if ((int) crc.getValue() != buf.getInt(pos + RUN_SIZE)) {
+                break; // 写入中断留下的记录，之后的内容都不可信
+            }
+            Run run = readRun(buf, pos);
+            add(run);
+            log.add(run);
+            logCount++;
+        }
+        if (pos != bytes.length) { // 末尾有不完整或损坏的记录，重写存档后才能继续追加
+            logCount = compactThreshold;
+        }
+    }
+
+    // 快照：总局数、直方图的格数、每一格的局数、前K局的数量、前K局，最后是校验和。size至少为MIN_SNAPSHOT_SIZE
+    private boolean readSnapshot(ByteBuffer buf, int size) {
+        int start = HEADER_SIZE;
+        int end = start + size - 4; // 校验和的位置
+        CRC32 crc = new CRC32();
+        crc.update(buf.array(), start, size - 4);
+        if ((int) crc.getValue() != buf.getInt(end)) {
+            return false;
+        }
+        int pos = start;
+        long count = buf.getLong(pos);
+        int buckets = buf.getInt(pos + 8);
+        pos += 12;
+        if (count < 0 || buckets < 0 || (long) buckets * 8 + 4 > end - pos) {
+            return false;
+        }
+        long[] counts = new long[buckets];
+        for (int i = 0; i < buckets; i++, pos += 8) {
+            counts[i] = buf.getLong(pos);
+        }
+        int runs = buf.getInt(pos);
+        pos += 4;
+        if (runs < 0 || (long) runs * RUN_SIZE != end - pos) {
+            return false;
+        }
+        // 直方图的范围改变时，超出范围的局计入最后一格
+        long[] histogram = new long[tree.length - 1];
+        for (int i = 0; i < buckets; i++) {
+            histogram[Math.min(i, histogram.length - 1)] += counts[i];
+        }
+        for (int i = 0; i < histogram.length; i++) {
+            for (int j = i + 1; j < tree.length; j += j & -j) {
+                tree[j] += histogram[i];
+            }
+        }
+        total = count;
+        for (int i = 0; i < runs; i++, pos += RUN_SIZE) {
+            offerTop(readRun(buf, pos));
+        }
+        return true;
+    }
+
+    // 丢弃装载了一部分的损坏存档
+    private void reset() {
+        Arrays.fill(tree, 0);
+        top.clear();
+        total = 0;
+    }
+
+    private static Run readRun(ByteBuffer buf, int pos) {
+        return new Run(buf.getLong(pos), buf.getLong(pos + 8), buf.getLong(pos + 16), buf.getLong(pos + 24));
+    }
+
+    private static void putRun(ByteBuffer buf, Run run) {
+        buf.putLong(run.getScore()).putLong(run.getTicks()).putLong(run.getSeed()).putLong(run.getTimestamp());
+    }
+
+    // 写入线程：追加等待写入的局，日志过长时归档并压缩存档；写入失败时按指数退避重试，并在下一次重写快照
+    private void writeLoop() {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        CRC32 crc = new CRC32();
+        List<Run> runs = new ArrayList<>();
+        long backoff = MIN_BACKOFF;
+        while (true) {
+            ByteBuffer snapshot = null;
+            ByteBuffer segment = null;
+            long segmentStart = 0;
+            int archived = 0;
+            synchronized (this) {
+                if (logCount >= compactThreshold) { // 快照包含所有已记录的局，等待写入的局不必再追加
+                    snapshot = snapshot();
+                    archived = log.size();
+                    segmentStart = logStart;
+                    segment = records(log, crc);
+                    pending.clear();
+                    logCount = 0;
+                } else {
+                    runs.addAll(pending);
+                    pending.clear();
+                }
+                writing = snapshot != null || !runs.isEmpty();
+            }
+            boolean failed = false;
+            try {
+                if (snapshot != null) {
+                    if (archived > 0) {
+                        replace(segment(segmentStart), segment);
+                    }
+                    replace(path, snapshot);
+                    synchronized (this) {
+                        log.subList(0, archived).clear();
+                        logStart += archived;
+                    }
+                    compactions++;
+                } else if (!runs.isEmpty()) {
+                    appendRuns(runs, record, crc);
+                }
+                backoff = MIN_BACKOFF;
+            } catch (IOException e) {
+                failures++;
+                e.printStackTrace();
+                failed = true;
+            }
+            runs.clear();
+            synchronized (this) {
+                writing = false;
+                if (failed) {
+                    // 存档末尾可能留下了不完整的记录，重写快照而不是在其后追加；写入失败的局仍在log中，会随快照一起写入
+                    logCount = Math.max(logCount, compactThreshold);
+                } else if (!pending.isEmpty() || logCount >= compactThreshold) {
+                    continue;
+                }
+                notifyAll();
+            }
+            if (failed) {
+                LockSupport.parkNanos(this, backoff);
+                backoff = Math.min(backoff * 2, MAX_BACKOFF);
+            } else {
+                LockSupport.park(this);
+            }
+        }
+    }
+
+    // 在存档末尾追加记录，存档不存在时先写入空的快照
+    private void appendRuns(List<Run> runs, ByteBuffer record, CRC32 crc) throws IOException {
+        if (!Files.exists(path)) {
+            replace(path, header(0));
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            for (Run run : runs) {
+                record.clear();
+                putRecord(record, run, crc);
+                record.flip();
+                while (record.hasRemaining()) {
+                    channel.write(record);
+                }
+            }
+        }
+    }
+
+    // 一局的数据和校验和
+    private static void putRecord(ByteBuffer buf, Run run, CRC32 crc) {
+        int start = buf.position();
+        putRun(buf, run);
+        crc.reset();
+        crc.update(buf.array(), start, RUN_SIZE);
+        buf.putInt((int) crc.getValue());
+    }
+
+    // 段文件的内容：依次是每一局的记录
+    private static ByteBuffer records(List<Run> runs, CRC32 crc) {
+        ByteBuffer buf = ByteBuffer.allocate(runs.size() * RECORD_SIZE);
+        for (Run run : runs) {
+            putRecord(buf, run, crc);
+        }
+        buf.flip();
+        return buf;
+    }
+
+    // 由内存中的状态生成只有文件头和快照的存档
+    private ByteBuffer snapshot() {
+        int buckets = tree.length - 1;
+        int size = 12 + buckets * 8 + 4 + top.size() * RUN_SIZE + 4;
+        ByteBuffer buf = header(size);
+        buf.putLong(total).putInt(buckets);
+        for (int i = 0; i < buckets; i++) {
+            buf.putLong(prefixSum(i + 1) - prefixSum(i));
+        }
+        buf.putInt(top.size());
+        for (Run run : top) {
+            putRun(buf, run);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buf.array(), HEADER_SIZE, size - 4);
+        buf.putInt((int) crc.getValue());
+        buf.flip();
+        return buf;
+    }
+
+    private static ByteBuffer header(int snapshotSize) {
+        ByteBuffer buf = ByteBuffer.allocate(HEADER_SIZE + snapshotSize);
+        buf.putInt(MAGIC).putInt(VERSION).putInt(snapshotSize);
+        if (snapshotSize == 0) {
+            buf.flip();
+        }
+        return buf;
+    }
+
+    // 写临时文件并刷新到磁盘，再原子地替换目标文件
+    private static void replace(Path target, ByteBuffer content) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        File dir = target.toAbsolutePath().getParent().toFile();
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("无法创建目录" + dir);
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (content.hasRemaining()) {
+                channel.write(content);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "RunHistory[total=" + total + ", top=" + Arrays.toString(getTop(topCount).toArray()) + "]";
+    }
+}
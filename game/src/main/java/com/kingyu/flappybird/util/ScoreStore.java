@@ -0,0 +1,214 @@
+package com.kingyu.flappybird.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32;
+
+/**
+ * 最高纪录的存档，由后台线程延迟写入
+ * submit()只登记要保存的分数，不会读写文件或阻塞；写入线程只写入最新登记的分数，写入期间的多次登记合并为一次写入。
+ * 每次写入先写临时文件并force()到磁盘，再原子地替换存档，写入中途崩溃时存档仍是上一次完整的记录；写入失败时按指数退避重试。
+ * 记录的格式为：魔数、版本、分数、前16字节的CRC32校验和，读取时校验失败的记录被忽略；也能读取旧版本只有一个long的存档
+ * 没有存档文件时只在内存中记录，不创建写入线程，用于同一进程中大量的无窗口会话
+ *
+ * @author Kingyu
+ */
+public class ScoreStore {
+    private static final int MAGIC = 0x46425343; // "FBSC"
+    private static final int VERSION = 1;
+    private static final int RECORD_SIZE = 20;
+    private static final int LEGACY_RECORD_SIZE = 8; // 旧版本的存档只有一个long
+    private static final long MIN_BACKOFF = TimeUnit.MILLISECONDS.toNanos(100); // 写入失败后第一次重试的等待时间
+    private static final long MAX_BACKOFF = TimeUnit.SECONDS.toNanos(5);
+
+    private final Path path; // 存档，只在内存中记录时为null
+    private final Path temp; // 临时文件
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE); // 只由写入线程使用
+    private final Thread writer; // 写入线程，只在内存中记录时为null
+
+    private final Object lock = new Object();
+    private long pending = -1; // 等待写入的分数，由lock保护
+    private long written = -1; // 已写入的分数，由lock保护
+    private boolean dirty; // 是否有等待写入的分数，由lock保护
+
+    // 统计数据
+    private final AtomicLong submitted = new AtomicLong(); // 登记的次数，可由多个线程登记
+    private volatile long writes; // 实际写入的次数，只由写入线程写入
+    private volatile long failures; // 写入失败的次数
+
+    /**
+     * @param file 存档，为null时只在内存中记录
+     */
+    public ScoreStore(File file) {
+        if (file == null) {
+            path = null;
+            temp = null;
+            writer = null;
+            return;
+        }
+        this.path = file.toPath();
+        this.temp = new File(file.getPath() + ".tmp").toPath();
+        writer = new Thread(this::writeLoop, "ScoreWriter");
+        writer.setDaemon(true);
+        writer.start();
+        // 退出时写入尚未保存的分数
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "ScoreFlush"));
+    }
+
+    /**
+     * 读取存档中的分数，并校验记录
+     *
+     * @return 存档中的分数，存档不存在或已损坏时返回-1
+     */
+    public long load() {
+        if (path == null) {
+            return -1;
+        }
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(path);
+        } catch (NoSuchFileException e) {
+            return -1;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return -1;
+        }
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+        if (bytes.length == LEGACY_RECORD_SIZE) {
+            return Math.max(buf.getLong(0), -1);
+        }
+        if (bytes.length != RECORD_SIZE || buf.getInt(0) != MAGIC || buf.getInt(4) != VERSION
+                || buf.getInt(16) != checksum(bytes)) {
+            System.err.println("分数存档已损坏，已忽略: " + path);
+            return -1;
+        }
+        return Math.max(buf.getLong(8), -1);
+    }
+
+    /**
+     * 登记要保存的分数，可在任意线程调用，由写入线程稍后写入
+     */
+    public void submit(long score) {
+        synchronized (lock) {
+            pending = score;
+            if (writer == null) {
+                written = score;
+            } else {
+                dirty = true;
+            }
+        }
+        submitted.incrementAndGet();
+        if (writer != null) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    /**
+     * 等待已登记的分数写入完成，最多等待一秒
+     */
+    public void flush() {
+        long deadline = System.nanoTime() + 1_000_000_000L;
+        synchronized (lock) {
+            while ((dirty || written != pending) && System.nanoTime() - deadline < 0) {
+                LockSupport.unpark(writer);
+                try {
+                    lock.wait(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    // 写入线程，没有等待写入的分数时休眠；写入失败时保持dirty，按指数退避重试
+    private void writeLoop() {
+        long backoff = MIN_BACKOFF;
+        while (true) {
+            long score;
+            synchronized (lock) {
+                score = pending;
+                dirty = false;
+            }
+            if (score != written) {
+                try {
+                    write(score);
+                    writes++;
+                    synchronized (lock) {
+                        written = score;
+                    }
+                    backoff = MIN_BACKOFF;
+                } catch (IOException e) {
+                    failures++;
+                    e.printStackTrace();
+                    synchronized (lock) {
+                        dirty = true; // 最新登记的分数仍未保存，稍后重试
+                    }
+                    LockSupport.parkNanos(this, backoff);
+                    backoff = Math.min(backoff * 2, MAX_BACKOFF);
+                    continue;
+                }
+            }
+            synchronized (lock) {
+                if (dirty) {
+                    continue;
+                }
+                lock.notifyAll();
+            }
+            LockSupport.park(this);
+        }
+    }
+
+    // 写临时文件并刷新到磁盘，再原子地替换存档
+    private void write(long score) throws IOException {
+        record.putInt(0, MAGIC).putInt(4, VERSION).putLong(8, score);
+        record.putInt(16, checksum(record.array()));
+        File dir = path.toAbsolutePath().getParent().toFile();
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("无法创建目录" + dir);
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buf = record.duplicate();
+            while (buf.hasRemaining()) {
+                channel.write(buf);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // 记录前16字节的CRC32校验和
+    private static int checksum(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, 16);
+        return (int) crc.getValue();
+    }
+
+    public long getSubmitted() {
+        return submitted.get();
+    }
+
+    public long getWrites() {
+        return writes;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+}
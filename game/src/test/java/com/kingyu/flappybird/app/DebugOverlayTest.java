@@ -0,0 +1,38 @@
+package com.kingyu.flappybird.app;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.kingyu.flappybird.engine.GameEngine;
+import com.kingyu.flappybird.engine.InputQueue;
+
+/**
+ * 调试信息层的文字，计数器与导出的指标一致
+ *
+ * @author Kingyu
+ */
+class DebugOverlayTest {
+
+    @Test
+    void showsCountersPerKind() {
+        GameContext context = new GameContext(1L);
+        GameLoop loop = new GameLoop(context::tick, () -> {
+        }, 30, 60, 5); // 不启动，计数器都为0
+        DebugOverlay overlay = new DebugOverlay(new GameRenderer(context.getScoreCounter()), loop, null,
+                new GcMonitor());
+
+        GameEngine engine = context.getEngine();
+        context.getInputQueue().offer(InputQueue.PRESSED, System.nanoTime());
+        for (int i = 0; i < 200; i++) {
+            context.tick();
+        }
+        List<String> lines = Arrays.asList(overlay.format(engine));
+        assertTrue(lines.contains("ticks 0  late 0  dropped 0  missed frames 0"), lines.toString());
+        assertTrue(lines.stream().anyMatch(l -> l.startsWith("pipes spawned ") && !l.startsWith("pipes spawned 0 ")),
+                lines.toString());
+    }
+}
@@ -0,0 +1,104 @@
+package com.kingyu.flappybird.app;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import com.kingyu.flappybird.engine.BirdModel;
+import com.kingyu.flappybird.engine.EntityStore;
+import com.kingyu.flappybird.engine.GameEngine;
+import com.kingyu.flappybird.engine.GameRandom;
+import com.kingyu.flappybird.engine.InputQueue;
+
+/**
+ * 多个会话在不同线程中推进时互不影响：会话的过程只取决于自己的种子和输入
+ *
+ * @author Kingyu
+ */
+class GameContextTest {
+    private static final long SEED = 11L;
+    private static final int TICKS = 5000;
+
+    /**
+     * 推进会话，每帧按inputSeed决定是否振翅，返回每一帧的状态摘要
+     */
+    private static long[] run(GameContext context, long inputSeed) {
+        GameRandom inputs = new GameRandom(inputSeed);
+        GameEngine engine = context.getEngine();
+        long[] trace = new long[TICKS];
+        for (int t = 0; t < TICKS; t++) {
+            if (inputs.isInProbability(1, 15)) {
+                context.getInputQueue().offer(InputQueue.PRESSED, t);
+                context.getInputQueue().offer(InputQueue.RELEASED, t);
+            }
+            context.tick();
+            trace[t] = fingerprint(engine);
+        }
+        return trace;
+    }
+
+    private static long fingerprint(GameEngine engine) {
+        BirdModel bird = engine.getBird();
+        long h = engine.getGameState();
+        h = h * 31 + engine.getCurrentScore();
+        h = h * 31 + engine.getGameSeed();
+        h = h * 31 + bird.getBirdY();
+        h = h * 31 + bird.getState();
+        EntityStore pipes = engine.getCourse().getPipes();
+        for (int i = 0; i < pipes.size(); i++) {
+            h = h * 31 + pipes.getX(i);
+            h = h * 31 + pipes.getY(i) + pipes.getDealtY(i);
+        }
+        return h;
+    }
+
+    @Test
+    void contextsShareNoMutableState() {
+        GameContext a = new GameContext(SEED);
+        GameContext b = new GameContext(SEED);
+        assertNotSame(a.getEngine(), b.getEngine());
+        assertNotSame(a.getEngine().getCourse(), b.getEngine().getCourse());
+        assertNotSame(a.getEngine().getCourse().getPipes(), b.getEngine().getCourse().getPipes());
+        assertNotSame(a.getInputQueue(), b.getInputQueue());
+        assertNotSame(a.getScoreCounter(), b.getScoreCounter());
+    }
+
+    @Test
+    void concurrentContextsMatchSoloRuns() throws Exception {
+        GameContext aloneA = new GameContext(SEED);
+        GameContext aloneB = new GameContext(SEED);
+        long[] soloA = run(aloneA, 1L);
+        long[] soloB = run(aloneB, 2L);
+
+        // 相同的种子、不同的输入，在两个线程中同时推进
+        GameContext a = new GameContext(SEED);
+        GameContext b = new GameContext(SEED);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<long[]> traceA = pool.submit(() -> run(a, 1L));
+            Future<long[]> traceB = pool.submit(() -> run(b, 2L));
+            assertArrayEquals(soloA, traceA.get());
+            assertArrayEquals(soloB, traceB.get());
+        } finally {
+            pool.shutdown();
+        }
+
+        // 两个会话确实走上了不同的过程，各自的计分器只记录自己结束的局
+        assertEquals(TICKS, a.getEngine().getTicks());
+        assertEquals(TICKS, b.getEngine().getTicks());
+        assertFalse(Arrays.equals(soloA, soloB));
+        assertTrue(a.getScoreCounter().getHistory().getTotal() > 0);
+        assertEquals(aloneA.getScoreCounter().getHistory().getTotal(), a.getScoreCounter().getHistory().getTotal());
+        assertEquals(aloneB.getScoreCounter().getHistory().getTotal(), b.getScoreCounter().getHistory().getTotal());
+        assertEquals(aloneA.getScoreCounter().getBestScore(), a.getScoreCounter().getBestScore());
+    }
+}
@@ -0,0 +1,81 @@
+package com.kingyu.flappybird.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+
+import org.junit.jupiter.api.Test;
+
+import com.kingyu.flappybird.engine.GameEngine;
+import com.kingyu.flappybird.util.Constant;
+
+/**
+ * 画面合成器判断画面是否变化，以及绘制和跳过的帧数统计
+ *
+ * @author Kingyu
+ */
+class GameRendererTest {
+
+    private static void draw(GameRenderer renderer, GameEngine engine) {
+        BufferedImage image = new BufferedImage(Constant.FRAME_WIDTH, Constant.FRAME_HEIGHT,
+                BufferedImage.TYPE_INT_RGB);
+        Graphics g = image.createGraphics();
+        renderer.draw(g, engine);
+        g.dispose();
+    }
+
+    @Test
+    void unchangedFrameIsNotDirty() {
+        GameRenderer renderer = new GameRenderer();
+        GameEngine engine = new GameEngine(1L);
+        assertTrue(renderer.isDirty(engine)); // 还没有绘制过
+
+        draw(renderer, engine);
+        assertEquals(1, renderer.getFrames());
+        assertFalse(renderer.isDirty(engine));
+        renderer.skipFrame();
+        assertFalse(renderer.isDirty(engine));
+        renderer.skipFrame();
+        assertEquals(2, renderer.getSkippedFrames());
+        assertEquals(1, renderer.getFrames());
+
+        engine.tick(); // 背景层移动
+        assertTrue(renderer.isDirty(engine));
+        draw(renderer, engine);
+        assertFalse(renderer.isDirty(engine));
+        assertEquals(2, renderer.getFrames());
+        assertEquals(2, renderer.getSkippedFrames());
+    }
+
+    @Test
+    void invalidateForcesRedraw() {
+        GameRenderer renderer = new GameRenderer();
+        GameEngine engine = new GameEngine(1L);
+        draw(renderer, engine);
+        assertFalse(renderer.isDirty(engine));
+
+        renderer.invalidate();
+        assertTrue(renderer.isDirty(engine));
+        draw(renderer, engine);
+        assertFalse(renderer.isDirty(engine));
+    }
+
+    @Test
+    void everyLayerIsTimed() {
+        GameRenderer renderer = new GameRenderer();
+        GameEngine engine = new GameEngine(1L);
+        draw(renderer, engine); // 准备状态绘制启动界面
+        engine.flapPressed();
+        engine.tick();
+        draw(renderer, engine); // 游戏开始后绘制游戏元素层
+        assertEquals(2, renderer.getLayerNanos(GameRenderer.LAYER_BACKGROUND).getCount());
+        assertEquals(2, renderer.getLayerNanos(GameRenderer.LAYER_FOREGROUND).getCount());
+        assertEquals(1, renderer.getLayerNanos(GameRenderer.LAYER_WELCOME).getCount());
+        assertEquals(1, renderer.getLayerNanos(GameRenderer.LAYER_ELEMENT).getCount());
+        assertEquals(2, renderer.getLayerNanos(GameRenderer.LAYER_BIRD).getCount());
+        assertEquals(0, renderer.getLayerNanos(GameRenderer.LAYER_PRESENT).getCount());
+    }
+}
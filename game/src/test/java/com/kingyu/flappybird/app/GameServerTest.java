@@ -0,0 +1,148 @@
+package com.kingyu.flappybird.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.kingyu.flappybird.engine.GameEngine;
+import com.kingyu.flappybird.engine.GameRandom;
+
+/**
+ * 通过本机回环地址连接游戏服务器，检查HELLO、状态的发送和协议错误时关闭会话
+ *
+ * @author Kingyu
+ */
+class GameServerTest {
+    private static final long SEED = 42L;
+    private static final int CLIENTS = 50;
+    private static final int TIMEOUT = 5000; // 读取的超时时间，单位为毫秒
+
+    private GameServer server;
+    private final List<Socket> sockets = new ArrayList<>();
+
+    @BeforeEach
+    void start() throws IOException {
+        server = new GameServer(2, SEED);
+        server.start(0);
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        for (Socket socket : sockets) {
+            socket.close();
+        }
+        server.stop();
+    }
+
+    private Socket connect() throws IOException {
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+        socket.setSoTimeout(TIMEOUT);
+        socket.setTcpNoDelay(true);
+        sockets.add(socket);
+        return socket;
+    }
+
+    // 读取HELLO，检查魔数和版本，返回会话编号和种子
+    private static long[] readHello(DataInputStream in) throws IOException {
+        assertEquals(GameServer.MAGIC, in.readInt());
+        assertEquals(GameServer.VERSION, in.readInt());
+        return new long[]{in.readLong(), in.readLong()};
+    }
+
+    // 读取一个状态，返回帧序号和游戏状态，跳过其余字段
+    private static long[] readState(DataInputStream in) throws IOException {
+        long tick = in.readLong();
+        in.readLong(); // 分数
+        int gameState = in.readInt();
+        in.readFully(new byte[GameServer.STATE_SIZE - 20]);
+        return new long[]{tick, gameState};
+    }
+
+    @Test
+    void greetsEveryClientAndStreamsStates() throws Exception {
+        List<DataInputStream> streams = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            streams.add(new DataInputStream(connect().getInputStream()));
+        }
+
+        // 会话编号按接受连接的顺序分配，种子依次取自服务器的种子
+        GameRandom seeds = new GameRandom(SEED);
+        long[] expectedSeeds = new long[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            expectedSeeds[i] = seeds.nextLong();
+        }
+        Set<Long> ids = new HashSet<>();
+        for (DataInputStream in : streams) {
+            long[] hello = readHello(in);
+            int id = (int) hello[0];
+            assertTrue(id >= 0 && id < CLIENTS);
+            assertTrue(ids.add(hello[0]), "重复的会话编号");
+            assertEquals(expectedSeeds[id], hello[1]);
+        }
+
+        // 没有输入时游戏停留在准备状态，帧序号递增
+        for (DataInputStream in : streams) {
+            long last = -1;
+            for (int i = 0; i < 3; i++) {
+                long[] state = readState(in);
+                assertTrue(state[0] > last);
+                assertEquals(GameEngine.GAME_READY, state[1]);
+                last = state[0];
+            }
+        }
+
+        GameServer.Report report = server.report();
+        assertEquals(CLIENTS, report.getSessions());
+        assertTrue(report.getSessionTicks() > 0);
+        assertTrue(report.getTickNanos().getCount() > 0);
+    }
+
+    @Test
+    void pressStartsTheGame() throws IOException {
+        Socket socket = connect();
+        DataInputStream in = new DataInputStream(socket.getInputStream());
+        readHello(in);
+        socket.getOutputStream().write(new byte[]{GameServer.INPUT_PRESSED, GameServer.INPUT_RELEASED});
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (readState(in)[1] != GameEngine.GAME_START) {
+            assertTrue(System.currentTimeMillis() < deadline, "游戏没有开始");
+        }
+    }
+
+    @Test
+    void protocolErrorClosesSession() throws Exception {
+        Socket socket = connect();
+        DataInputStream in = new DataInputStream(socket.getInputStream());
+        readHello(in);
+        readState(in); // 会话至少推进过一帧
+        socket.getOutputStream().write(7);
+        // 读完已发送的状态后连接被关闭
+        byte[] drain = new byte[GameServer.STATE_SIZE * 16];
+        while (in.read(drain) >= 0) {
+            // 丢弃
+        }
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+        GameServer.Report report = server.report();
+        while (report.getSessions() != 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            report = server.report();
+        }
+        assertEquals(0, report.getSessions());
+        assertEquals(1, report.getClosedSessions());
+        // 关闭的会话只留下编号和耗时
+        assertEquals(0, report.getSlowestSession());
+        assertTrue(report.getSlowestNanos() > 0);
+    }
+}
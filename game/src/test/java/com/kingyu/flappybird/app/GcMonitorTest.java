@@ -0,0 +1,28 @@
+package com.kingyu.flappybird.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 垃圾回收监视器只统计开始监视后、两次采样之间的回收
+ *
+ * @author Kingyu
+ */
+class GcMonitorTest {
+
+    @Test
+    void countsCollectionsBetweenSamples() {
+        System.gc(); // 开始监视前的回收不计入
+        GcMonitor gc = new GcMonitor();
+        assertEquals(0, gc.getCollections());
+        assertEquals(0, gc.getFramesWithGc());
+
+        System.gc();
+        gc.sample();
+        assertTrue(gc.getCollections() >= 1);
+        assertEquals(1, gc.getFramesWithGc());
+        assertTrue(gc.getMaxFrameMillis() <= gc.getPauseMillis());
+    }
+}
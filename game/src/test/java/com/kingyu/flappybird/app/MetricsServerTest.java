@@ -0,0 +1,115 @@
+package com.kingyu.flappybird.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 通过本机回环地址抓取指标，并检查Prometheus文本格式
+ *
+ * @author Kingyu
+ */
+class MetricsServerTest {
+    private static final Pattern HELP = Pattern.compile("# HELP ([a-zA-Z_:][a-zA-Z0-9_:]*) .+");
+    private static final Pattern TYPE = Pattern.compile("# TYPE ([a-zA-Z_:][a-zA-Z0-9_:]*) (counter|gauge)");
+    private static final Pattern SAMPLE = Pattern.compile(
+            "([a-zA-Z_:][a-zA-Z0-9_:]*)(\\{[a-zA-Z_][a-zA-Z0-9_]*=\"(?:[^\"\\\\\\n]|\\\\.)*\"})? (-?[0-9]+(\\.[0-9]+)?)");
+
+    private MetricsServer server;
+
+    @BeforeEach
+    void start() throws IOException {
+        GameContext context = new GameContext(1L);
+        GameLoop loop = new GameLoop(context::tick, () -> {
+        }, 30, 60, 5); // 不启动，计数器都为0
+        server = new MetricsServer(context, new GameRenderer(context.getScoreCounter()), loop);
+        server.start(0);
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop();
+    }
+
+    private HttpURLConnection open(String method) throws IOException {
+        URL url = new URL("http://127.0.0.1:" + server.getPort() + "/metrics");
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod(method);
+        return connection;
+    }
+
+    @Test
+    void scrapeReturnsPrometheusTextFormat() throws IOException {
+        assertTrue(server.getPort() > 0);
+        HttpURLConnection connection = open("GET");
+        assertEquals(200, connection.getResponseCode());
+        assertTrue(connection.getContentType().startsWith("text/plain; version=0.0.4"));
+        String body;
+        try (InputStream in = connection.getInputStream()) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buf = new byte[4096];
+            for (int n; (n = in.read(buf)) > 0; ) {
+                bytes.write(buf, 0, n);
+            }
+            body = new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+        }
+        assertTrue(body.endsWith("\n"));
+
+        Set<String> helped = new HashSet<>();
+        Map<String, String> types = new HashMap<>();
+        Map<String, String> values = new HashMap<>();
+        for (String line : body.split("\n")) {
+            Matcher m;
+            if ((m = HELP.matcher(line)).matches()) {
+                assertTrue(helped.add(m.group(1)), "duplicate HELP: " + line);
+            } else if ((m = TYPE.matcher(line)).matches()) {
+                assertTrue(helped.contains(m.group(1)), "TYPE before HELP: " + line);
+                assertTrue(types.put(m.group(1), m.group(2)) == null, "duplicate TYPE: " + line);
+            } else if ((m = SAMPLE.matcher(line)).matches()) {
+                assertTrue(types.containsKey(m.group(1)), "sample without TYPE: " + line);
+                if ("counter".equals(types.get(m.group(1)))) {
+                    assertTrue(m.group(1).endsWith("_total"), "counter not named _total: " + line);
+                    assertFalse(m.group(3).startsWith("-"), "negative counter: " + line);
+                }
+                values.put(m.group(1), m.group(3));
+            } else {
+                throw new AssertionError("malformed line: " + line);
+            }
+        }
+        assertEquals("0", values.get("flappybird_missed_frames_total"));
+        assertEquals("0", values.get("flappybird_late_ticks_total"));
+        assertEquals("0", values.get("flappybird_game_state"));
+        assertFalse(types.containsKey("flappybird_missed_deadlines_total")); // 与晚执行、丢弃的逻辑帧重复计数
+    }
+
+    @Test
+    void headHasNoBodyAndPostIsRejected() throws IOException {
+        HttpURLConnection head = open("HEAD");
+        assertEquals(200, head.getResponseCode());
+
+        HttpURLConnection post = open("POST");
+        post.setDoOutput(true);
+        try (OutputStream out = post.getOutputStream()) {
+            out.write('x');
+        }
+        assertEquals(405, post.getResponseCode());
+    }
+}
@@ -0,0 +1,66 @@
+package com.kingyu.flappybird.component;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+
+import org.junit.jupiter.api.Test;
+
+import com.kingyu.flappybird.util.AssetManager;
+import com.kingyu.flappybird.util.Constant;
+
+/**
+ * 云朵缩放比例的档位，以及按档位预先缩放的图片
+ *
+ * @author Kingyu
+ */
+class GameForegroundTest {
+    private static final int LAST = Constant.CLOUD_SCALE_COUNT - 1;
+
+    @Test
+    void scaleIsRoundedToNearestBucket() {
+        assertEquals(0, GameForeground.scaleBucket(1.0));
+        assertEquals(LAST, GameForeground.scaleBucket(2.0));
+        // 超出1.0~2.0的比例归入两端的档位
+        assertEquals(0, GameForeground.scaleBucket(0.5));
+        assertEquals(LAST, GameForeground.scaleBucket(3.0));
+
+        double halfStep = LAST == 0 ? 0.5 : 0.5 / LAST;
+        for (int i = 0; i <= 1000; i++) {
+            double scale = 1 + i / 1000.0;
+            int bucket = GameForeground.scaleBucket(scale);
+            assertTrue(bucket >= 0 && bucket <= LAST);
+            assertTrue(Math.abs(GameForeground.bucketScale(bucket) - scale) <= halfStep + 1e-9, "比例" + scale);
+        }
+    }
+
+    @Test
+    void bucketScalesAreEvenlySpaced() {
+        if (LAST == 0) {
+            assertEquals(1.5, GameForeground.bucketScale(0));
+            return;
+        }
+        assertEquals(1.0, GameForeground.bucketScale(0));
+        assertEquals(2.0, GameForeground.bucketScale(LAST));
+        for (int b = 0; b <= LAST; b++) {
+            assertEquals(b, GameForeground.scaleBucket(GameForeground.bucketScale(b)));
+        }
+    }
+
+    @Test
+    void cloudUsesThePrescaledImageOfItsBucket() {
+        GameForeground foreground = new GameForeground();
+        BufferedImage img = AssetManager.getInstance().getImage(Constant.CLOUDS_IMG_PATH[1]);
+        long version = foreground.version();
+        foreground.addCloud(1, 100, 50, 1.99);
+        assertEquals(version + 1, foreground.version());
+
+        // 云朵的大小取自档位的缩放比例，而不是传入的比例
+        double scale = GameForeground.bucketScale(GameForeground.scaleBucket(1.99));
+        foreground.moveClouds(100 + (int) (scale * img.getWidth()));
+        assertEquals(0, foreground.recycleClouds()); // 右边缘刚好在屏幕左侧
+        foreground.moveClouds(1);
+        assertEquals(1, foreground.recycleClouds());
+    }
+}
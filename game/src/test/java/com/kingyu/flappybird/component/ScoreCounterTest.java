@@ -0,0 +1,38 @@
+package com.kingyu.flappybird.component;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+import com.kingyu.flappybird.util.RunHistory;
+
+/**
+ * 只在内存中记录的计分器，以及服务器会话使用的不记录每一局的计分器
+ *
+ * @author Kingyu
+ */
+class ScoreCounterTest {
+
+    @Test
+    void inMemoryCounterRanksRuns() {
+        ScoreCounter counter = new ScoreCounter();
+        assertEquals(-1, counter.getBestScore());
+        counter.recordRun(5, 100, 1L);
+        RunHistory.Standing standing = counter.recordRun(3, 80, 2L);
+        assertNotNull(standing);
+        assertEquals(2, standing.getRank());
+        assertEquals(2, standing.getTotal());
+        assertEquals(5, counter.getBestScore());
+    }
+
+    @Test
+    void counterWithoutHistoryKeepsOnlyTheBestScore() {
+        ScoreCounter counter = ScoreCounter.withoutHistory();
+        assertNull(counter.getHistory());
+        assertNull(counter.recordRun(5, 100, 1L));
+        assertNull(counter.recordRun(3, 80, 2L));
+        assertEquals(5, counter.getBestScore());
+    }
+}
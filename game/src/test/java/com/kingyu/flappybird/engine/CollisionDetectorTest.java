@@ -0,0 +1,106 @@
+package com.kingyu.flappybird.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 水管赛道的粗检测（二分查找）与细检测（扫掠检测）
+ *
+ * @author Kingyu
+ */
+class CollisionDetectorTest {
+    private static final int PIPE_WIDTH = 52;
+
+    // 从x=0开始，每隔interval放置一根水管
+    private static EntityStore course(int count, int interval) {
+        EntityStore pipes = new EntityStore(4);
+        for (int i = 0; i < count; i++) {
+            pipes.add(i * interval, 0, PIPE_WIDTH, 300, PipeCourse.TYPE_TOP_NORMAL);
+        }
+        return pipes;
+    }
+
+    @Test
+    void emptyStore() {
+        EntityStore pipes = new EntityStore(4);
+        assertEquals(0, CollisionDetector.firstInColumn(pipes, 0));
+        assertEquals(-1, CollisionDetector.findCollision(pipes, new Rect(100, 100, 20, 20), 4, 10));
+    }
+
+    @Test
+    void birdTunnellingThroughThinPipe() {
+        EntityStore pipes = new EntityStore(4);
+        pipes.add(70, 0, 4, 640, PipeCourse.TYPE_TOP_NORMAL);
+        Rect bird = new Rect(100, 200, 20, 20);
+        assertFalse(bird.intersects(new Rect(70, 0, 4, 640)));
+        assertEquals(0, CollisionDetector.findCollision(pipes, bird, 60, 0));
+    }
+
+    @Test
+    void grazingCornerContact() {
+        // 以水管为参照，小鸟从(96, 190)移动到(100, 200)，右上角从(116, 190)移动到(120, 200)
+        Rect bird = new Rect(100, 200, 20, 20);
+        EntityStore pipes = new EntityStore(4);
+        pipes.add(118, 0, PIPE_WIDTH, 196, PipeCourse.TYPE_TOP_NORMAL); // 左下角在(118, 196)
+        assertFalse(new Rect(96, 190, 20, 20).intersects(new Rect(118, 0, PIPE_WIDTH, 196)));
+        assertFalse(bird.intersects(new Rect(118, 0, PIPE_WIDTH, 196)));
+        assertEquals(0, CollisionDetector.findCollision(pipes, bird, 4, 10)); // 途中擦过水管的角
+
+        pipes.clear();
+        pipes.add(118, 0, PIPE_WIDTH, 195, PipeCourse.TYPE_TOP_NORMAL); // 只在一瞬间与水管的角接触
+        assertEquals(-1, CollisionDetector.findCollision(pipes, bird, 4, 10));
+    }
+
+    @Test
+    void pipesExactlyAtBoundary() {
+        Rect bird = new Rect(100, 100, 20, 20); // 一帧内扫过的列为[96, 120)
+        EntityStore pipes = new EntityStore(4);
+        pipes.add(96 - PIPE_WIDTH, 0, PIPE_WIDTH, 640, PipeCourse.TYPE_TOP_NORMAL); // 右边缘恰好在96
+        pipes.add(120, 0, PIPE_WIDTH, 640, PipeCourse.TYPE_TOP_NORMAL); // 左边缘恰好在120
+        assertEquals(1, CollisionDetector.firstInColumn(pipes, 96));
+        assertEquals(-1, CollisionDetector.findCollision(pipes, bird, 4, 0));
+
+        pipes.translateX(-1); // 第二根水管进入小鸟所在的列
+        assertEquals(1, CollisionDetector.findCollision(pipes, bird, 4, 0));
+    }
+
+    @Test
+    void binarySearchEdges() {
+        EntityStore pipes = course(10, 100);
+        assertEquals(0, CollisionDetector.firstInColumn(pipes, -100)); // 所有水管都在右侧
+        assertEquals(0, CollisionDetector.firstInColumn(pipes, PIPE_WIDTH - 1)); // 第一根水管的右边缘
+        assertEquals(1, CollisionDetector.firstInColumn(pipes, PIPE_WIDTH));
+        assertEquals(9, CollisionDetector.firstInColumn(pipes, 900 + PIPE_WIDTH - 1)); // 最后一根水管的右边缘
+        assertEquals(10, CollisionDetector.firstInColumn(pipes, 900 + PIPE_WIDTH)); // 所有水管都在左侧
+
+        assertEquals(0, CollisionDetector.findCollision(pipes, new Rect(10, 100, 20, 20), 4, 0));
+        assertEquals(9, CollisionDetector.findCollision(pipes, new Rect(910, 100, 20, 20), 4, 0));
+        assertEquals(-1, CollisionDetector.findCollision(pipes, new Rect(960, 100, 20, 20), 4, 0));
+    }
+
+    @Test
+    void binarySearchAcrossRingBufferWrap() {
+        EntityStore pipes = new EntityStore(8);
+        for (int i = 0; i < 6; i++) {
+            pipes.add(i * 100, 0, PIPE_WIDTH, 300, PipeCourse.TYPE_TOP_NORMAL);
+        }
+        for (int i = 0; i < 4; i++) {
+            pipes.removeFirst();
+        }
+        for (int i = 6; i < 11; i++) { // 队列跨过数组末尾
+            pipes.add(i * 100, 0, PIPE_WIDTH, 300, PipeCourse.TYPE_TOP_NORMAL);
+        }
+        assertEquals(8, pipes.getCapacity());
+        for (int minX = 300; minX <= 1100; minX++) {
+            int expected = 0;
+            while (expected < pipes.size() && pipes.getX(expected) + pipes.getWidth(expected) <= minX) {
+                expected++;
+            }
+            assertEquals(expected, CollisionDetector.firstInColumn(pipes, minX), "minX=" + minX);
+        }
+        assertEquals(0, CollisionDetector.findCollision(pipes, new Rect(410, 100, 20, 20), 4, 0));
+        assertEquals(6, CollisionDetector.findCollision(pipes, new Rect(1010, 100, 20, 20), 4, 0));
+    }
+}
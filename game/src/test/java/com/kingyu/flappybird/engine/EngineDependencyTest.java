@@ -0,0 +1,44 @@
+package com.kingyu.flappybird.engine;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 模拟引擎不依赖AWT和游戏的其他包，可以在没有图形环境的机器上运行
+ *
+ * @author Kingyu
+ */
+class EngineDependencyTest {
+    // 类文件常量池中引用的类名
+    private static final Pattern FORBIDDEN = Pattern.compile(
+            "java/awt/|javax/swing/|javax/imageio/|javax/sound/|com/kingyu/flappybird/(?!engine/)\\w+/");
+
+    @Test
+    void engineClassesReferenceOnlyTheJdkAndTheEngine() throws IOException, URISyntaxException {
+        Path dir = Paths.get(GameEngine.class.getResource("GameEngine.class").toURI()).getParent();
+        List<Path> classes;
+        try (Stream<Path> files = Files.list(dir)) {
+            classes = files.filter(f -> f.toString().endsWith(".class")).collect(Collectors.toList());
+        }
+        assertTrue(classes.size() > 10);
+        for (Path file : classes) {
+            String constants = new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1);
+            Matcher m = FORBIDDEN.matcher(constants);
+            assertFalse(m.find(), () -> file.getFileName() + " 引用了 " + m.group());
+        }
+    }
+}
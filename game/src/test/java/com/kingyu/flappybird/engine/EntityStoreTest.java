@@ -0,0 +1,91 @@
+package com.kingyu.flappybird.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 实体存储的先进先出顺序、扩容时的整理以及命中、未命中的统计
+ *
+ * @author Kingyu
+ */
+class EntityStoreTest {
+
+    @Test
+    void capacityIsRoundedUpToPowerOfTwo() {
+        assertEquals(1, new EntityStore(1).getCapacity());
+        assertEquals(8, new EntityStore(5).getCapacity());
+        assertEquals(8, new EntityStore(8).getCapacity());
+        assertThrows(IllegalArgumentException.class, () -> new EntityStore(0));
+    }
+
+    @Test
+    void reusesSlotsWithoutGrowing() {
+        EntityStore store = new EntityStore(4);
+        for (int i = 0; i < 1000; i++) {
+            store.add(i, 0, 1, 1, 0);
+            if (store.size() == 4) {
+                store.removeFirst();
+            }
+        }
+        assertEquals(4, store.getCapacity());
+        assertEquals(1, store.getFree());
+        assertEquals(1000, store.getSpawned());
+        assertEquals(1000, store.getHits());
+        assertEquals(0, store.getMisses());
+        for (int i = 0; i < store.size(); i++) {
+            assertEquals(997 + i, store.getX(i));
+        }
+    }
+
+    @Test
+    void growKeepsQueueOrder() {
+        EntityStore store = new EntityStore(4);
+        // 让队首绕到数组中间，扩容时需要把绕回开头的部分接到后面
+        for (int i = 0; i < 3; i++) {
+            store.add(-1, 0, 1, 1, 0);
+            store.removeFirst();
+        }
+        for (int i = 0; i < 11; i++) {
+            store.add(i, i * 2, 10 + i, 20 + i, i % 3);
+        }
+        assertEquals(16, store.getCapacity());
+        assertEquals(5, store.getFree());
+        assertEquals(2, store.getMisses()); // 4扩容到8，8扩容到16
+        assertEquals(12, store.getHits());
+        assertEquals(14, store.getSpawned());
+        for (int i = 0; i < 11; i++) {
+            assertEquals(i, store.getX(i));
+            assertEquals(i * 2, store.getY(i));
+            assertEquals(10 + i, store.getWidth(i));
+            assertEquals(20 + i, store.getHeight(i));
+            assertEquals(i % 3, store.getType(i));
+            assertEquals(0, store.getDealtY(i));
+            assertEquals(0, store.getDirection(i));
+        }
+        // 扩容后队首从第一个槽位开始
+        assertEquals(0, store.slot(0));
+    }
+
+    @Test
+    void removeTranslateAndClear() {
+        EntityStore store = new EntityStore(4);
+        store.removeFirst(); // 空的存储不受影响
+        assertEquals(0, store.size());
+        for (int i = 0; i < 4; i++) {
+            store.add(i * 100, 0, 1, 1, 0);
+        }
+        store.removeFirst();
+        store.translateX(-5);
+        assertEquals(3, store.size());
+        assertEquals(95, store.getX(0));
+        assertEquals(295, store.getX(2));
+        store.clear();
+        assertEquals(0, store.size());
+        assertEquals(4, store.getFree());
+        assertEquals(0, store.add(7, 0, 1, 1, 0));
+        assertEquals(7, store.getX(0));
+        assertEquals(0, store.getMisses());
+    }
+}
@@ -0,0 +1,95 @@
+package com.kingyu.flappybird.engine;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 随机数的可重现性，以及split()分出的随机序列互不影响
+ *
+ * @author Kingyu
+ */
+class GameRandomTest {
+    private static final int COUNT = 1000;
+
+    private static long[] draw(GameRandom random) {
+        long[] values = new long[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            values[i] = random.nextLong();
+        }
+        return values;
+    }
+
+    @Test
+    void sameSeedSameSequence() {
+        assertArrayEquals(draw(new GameRandom(5L)), draw(new GameRandom(5L)));
+        assertNotEquals(draw(new GameRandom(5L))[0], draw(new GameRandom(6L))[0]);
+    }
+
+    @Test
+    void splitIsReproducibleAndIndependent() {
+        GameRandom a = new GameRandom(5L);
+        GameRandom aChild = a.split();
+        GameRandom b = new GameRandom(5L);
+        GameRandom bChild = b.split();
+
+        // 分出的序列由种子决定
+        long[] childValues = draw(aChild);
+        for (long v : childValues) {
+            assertEquals(v, bChild.nextLong());
+        }
+        // 使用分出的序列不影响原来的序列
+        long[] parentValues = draw(a);
+        for (long v : parentValues) {
+            assertEquals(v, b.nextLong());
+        }
+        assertNotEquals(childValues[0], parentValues[0]);
+    }
+
+    @Test
+    void cosmeticDrawsDoNotChangeTheCourse() {
+        GameEngine quiet = new GameEngine(9L);
+        GameEngine noisy = new GameEngine(9L);
+        for (int t = 0; t < 300; t++) {
+            if (t % 18 == 0) {
+                quiet.flapPressed();
+                noisy.flapPressed();
+                quiet.flapReleased();
+                noisy.flapReleased();
+            }
+            quiet.tick();
+            noisy.tick();
+            noisy.getCosmeticRandom().nextLong(); // 绘制画面的线程消耗装饰用的随机数
+        }
+        EntityStore a = quiet.getCourse().getPipes();
+        EntityStore b = noisy.getCourse().getPipes();
+        assertTrue(a.size() > 0);
+        assertEquals(a.size(), b.size());
+        for (int i = 0; i < a.size(); i++) {
+            assertEquals(a.getX(i), b.getX(i));
+            assertEquals(a.getY(i), b.getY(i));
+            assertEquals(a.getHeight(i), b.getHeight(i));
+            assertEquals(a.getType(i), b.getType(i));
+        }
+        assertEquals(quiet.getGameSeed(), noisy.getGameSeed());
+    }
+
+    @Test
+    void boundsAndProbabilities() {
+        GameRandom random = new GameRandom(1L);
+        assertEquals(3, random.nextInt(3, 3));
+        assertEquals(2.5, random.nextDouble(2.5, 1));
+        for (int i = 0; i < COUNT; i++) {
+            int v = random.nextInt(-2, 5);
+            assertTrue(v >= -2 && v < 5);
+            double d = random.nextDouble(1, 2);
+            assertTrue(d >= 1 && d < 2);
+        }
+        assertFalse(random.isInProbability(0, 10));
+        assertTrue(random.isInProbability(10, 10));
+    }
+}
@@ -0,0 +1,94 @@
+package com.kingyu.flappybird.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 直方图的分桶、百分位数和合并
+ *
+ * @author Kingyu
+ */
+class HistogramTest {
+
+    @Test
+    void smallValuesHaveTheirOwnBucket() {
+        for (long v = 0; v < 64; v++) {
+            assertEquals(v, Histogram.index(v));
+            assertEquals(v, Histogram.highestValue((int) v));
+        }
+        // 64开始每个2的幂区间分为32个桶
+        assertEquals(64, Histogram.index(64));
+        assertEquals(64, Histogram.index(65));
+        assertEquals(65, Histogram.highestValue(64));
+        assertEquals(65, Histogram.index(66));
+        assertEquals(127, Histogram.highestValue(Histogram.index(127)));
+        assertEquals(Histogram.index(127) + 1, Histogram.index(128));
+    }
+
+    @Test
+    void bucketsCoverEveryValueWithBoundedError() {
+        int last = -1;
+        for (long v = 0; v < 1L << 40; v = v < 1000 ? v + 1 : v + v / 7) {
+            int index = Histogram.index(v);
+            assertTrue(index >= last);
+            long high = Histogram.highestValue(index);
+            assertTrue(high >= v);
+            assertTrue(high - v <= v / 32, "相对误差过大: " + v);
+            last = index;
+        }
+    }
+
+    @Test
+    void valuesBeyondTheRangeShareTheLastBucket() {
+        int lastBucket = Histogram.index((1L << 40) - 1);
+        assertEquals(lastBucket, Histogram.index(1L << 40));
+        assertEquals(lastBucket, Histogram.index(Long.MAX_VALUE));
+
+        Histogram h = new Histogram();
+        h.record(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, h.getMax());
+        assertEquals(Long.MAX_VALUE, h.getPercentile(50)); // 不超过记录的最大值
+    }
+
+    @Test
+    void percentiles() {
+        Histogram h = new Histogram();
+        assertEquals(0, h.getPercentile(50));
+        for (int v = 1; v <= 100; v++) {
+            h.record(v);
+        }
+        h.record(-5); // 按0计算
+        assertEquals(101, h.getCount());
+        assertEquals(0, h.getPercentile(0));
+        assertEquals(50, h.getPercentile(50));
+        assertEquals(99, h.getPercentile(99));
+        assertEquals(100, h.getPercentile(100));
+        assertEquals(100, h.getMax());
+        assertEquals(5050.0 / 101, h.getMean());
+    }
+
+    @Test
+    void addMergesRecords() {
+        Histogram a = new Histogram();
+        Histogram b = new Histogram();
+        Histogram all = new Histogram();
+        for (int v = 0; v < 10_000; v += 3) {
+            (v % 2 == 0 ? a : b).record(v);
+            all.record(v);
+        }
+        a.add(b);
+        assertEquals(all.getCount(), a.getCount());
+        assertEquals(all.getMax(), a.getMax());
+        assertEquals(all.getMean(), a.getMean());
+        for (double p : new double[]{1, 25, 50, 90, 99, 100}) {
+            assertEquals(all.getPercentile(p), a.getPercentile(p));
+        }
+
+        a.reset();
+        assertEquals(0, a.getCount());
+        assertEquals(0, a.getMax());
+        assertEquals(0, a.getPercentile(99));
+    }
+}
@@ -0,0 +1,137 @@
+package com.kingyu.flappybird.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 输入队列的先进先出顺序、队列已满时的丢弃，以及生产者和消费者在不同线程中的交接
+ *
+ * @author Kingyu
+ */
+class InputQueueTest {
+
+    // 按顺序记下应用的输入，不推进游戏
+    private static class RecordingEngine extends GameEngine {
+        final List<Integer> inputs = new ArrayList<>();
+
+        RecordingEngine() {
+            super(1L);
+        }
+
+        @Override
+        public void flapPressed() {
+            inputs.add(InputQueue.PRESSED);
+        }
+
+        @Override
+        public void flapReleased() {
+            inputs.add(InputQueue.RELEASED);
+        }
+    }
+
+    // 第i个输入的种类，由种子决定的随机序列，丢失或乱序都会改变收到的序列
+    private static int[] inputs(long seed, int count) {
+        GameRandom random = new GameRandom(seed);
+        int[] types = new int[count];
+        for (int i = 0; i < count; i++) {
+            types[i] = random.isInProbability(1, 2) ? InputQueue.PRESSED : InputQueue.RELEASED;
+        }
+        return types;
+    }
+
+    @Test
+    void capacityIsRoundedUpToPowerOfTwo() {
+        assertEquals(8, new InputQueue(5).getCapacity());
+        assertThrows(IllegalArgumentException.class, () -> new InputQueue(0));
+    }
+
+    @Test
+    void drainsInOfferOrder() {
+        InputQueue queue = new InputQueue(8);
+        RecordingEngine engine = new RecordingEngine();
+        int[] types = inputs(7L, 6);
+        for (int i = 0; i < types.length; i++) {
+            assertTrue(queue.offer(types[i], 100 + i));
+        }
+        assertEquals(types.length, queue.drain(engine));
+        for (int i = 0; i < types.length; i++) {
+            assertEquals(types[i], engine.inputs.get(i));
+        }
+        assertEquals(0, queue.drain(engine));
+
+        // 每个已应用的输入记录一次到画面显示的延迟
+        Histogram latencies = new Histogram();
+        queue.presented(latencies, 200);
+        assertEquals(types.length, latencies.getCount());
+        assertEquals(100, latencies.getMax());
+        queue.presented(latencies, 300);
+        assertEquals(types.length, latencies.getCount());
+    }
+
+    @Test
+    void dropsWhenFull() {
+        InputQueue queue = new InputQueue(4);
+        RecordingEngine engine = new RecordingEngine();
+        for (int i = 0; i < 4; i++) {
+            assertTrue(queue.offer(InputQueue.PRESSED, i));
+        }
+        assertFalse(queue.offer(InputQueue.RELEASED, 4));
+        assertFalse(queue.offer(InputQueue.RELEASED, 5));
+        assertEquals(2, queue.getDropped());
+
+        // 丢弃的是新的输入，已登记的输入不受影响
+        assertEquals(4, queue.drain(engine));
+        for (int type : engine.inputs) {
+            assertEquals(InputQueue.PRESSED, type);
+        }
+        assertTrue(queue.offer(InputQueue.RELEASED, 6));
+        assertEquals(1, queue.drain(engine));
+        assertEquals(InputQueue.RELEASED, engine.inputs.get(4));
+        assertEquals(2, queue.getDropped());
+    }
+
+    @Test
+    void producerAndConsumerOnDifferentThreads() throws InterruptedException {
+        int count = 200_000;
+        int[] types = inputs(42L, count);
+        InputQueue queue = new InputQueue(64);
+        AtomicLong rejected = new AtomicLong();
+        Thread producer = new Thread(() -> {
+            long failed = 0;
+            for (int i = 0; i < count; i++) {
+                // 队列已满时等待消费者，保证队列中的输入不超过容量
+                while (!queue.offer(types[i], i)) {
+                    failed++;
+                    Thread.yield();
+                }
+            }
+            rejected.set(failed);
+        }, "InputProducer");
+        producer.setDaemon(true); // 失败时不会卡住测试
+
+        RecordingEngine engine = new RecordingEngine();
+        producer.start();
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (engine.inputs.size() < count && System.nanoTime() - deadline < 0) {
+            if (queue.drain(engine) == 0) {
+                Thread.yield(); // 只有一个CPU核心时让生产者运行
+            }
+        }
+        producer.join(1000);
+
+        assertEquals(count, engine.inputs.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals(types[i], engine.inputs.get(i), "第" + i + "个输入");
+        }
+        // 只有被拒绝后重试的输入计为丢弃
+        assertEquals(rejected.get(), queue.getDropped());
+    }
+}
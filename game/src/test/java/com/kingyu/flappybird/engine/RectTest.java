@@ -0,0 +1,74 @@
+package com.kingyu.flappybird.engine;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Rect的离散与扫掠相交检测
+ *
+ * @author Kingyu
+ */
+class RectTest {
+
+    @Test
+    void sweptDetectsTunnellingThroughThinPipe() {
+        Rect bird = new Rect(100, 200, 20, 20); // 一帧内从x=40移动到x=100
+        Rect pipe = new Rect(70, 150, 4, 200);
+        assertFalse(bird.intersects(pipe)); // 离散检测漏掉了穿越
+        assertFalse(new Rect(40, 200, 20, 20).intersects(pipe));
+        assertTrue(bird.sweptIntersects(60, 0, pipe));
+    }
+
+    @Test
+    void sweptDetectsVerticalTunnelling() {
+        Rect bird = new Rect(100, 280, 20, 20); // 一帧内从y=200下落到y=280
+        Rect ledge = new Rect(90, 230, 40, 5);
+        assertFalse(bird.intersects(ledge));
+        assertTrue(bird.sweptIntersects(0, 80, ledge));
+    }
+
+    @Test
+    void grazingCornerCollides() {
+        Rect bird = new Rect(10, 10, 10, 10); // 沿对角线从(0, 0)移动到(10, 10)
+        Rect pipe = new Rect(15, 0, 5, 10);
+        assertFalse(bird.intersects(pipe)); // 起点和终点都不相交，只在途中擦过水管的角
+        assertFalse(new Rect(0, 0, 10, 10).intersects(pipe));
+        assertTrue(bird.sweptIntersects(10, 10, pipe));
+    }
+
+    @Test
+    void touchingCornerDoesNotCollide() {
+        Rect bird = new Rect(10, 10, 10, 10);
+        assertFalse(bird.sweptIntersects(10, 10, new Rect(20, 0, 5, 10))); // 终点只与水管的角接触
+        assertFalse(bird.sweptIntersects(10, 10, new Rect(19, 0, 5, 5))); // 从角的外侧经过
+    }
+
+    @Test
+    void pipeExactlyAtBoundary() {
+        Rect bird = new Rect(100, 0, 20, 20);
+        assertFalse(bird.sweptIntersects(10, 0, new Rect(120, 0, 52, 100))); // 终点恰好与水管左边缘接触
+        assertTrue(bird.sweptIntersects(10, 0, new Rect(119, 0, 52, 100))); // 重叠一个像素
+        assertFalse(bird.sweptIntersects(10, 0, new Rect(38, 0, 52, 100))); // 起点恰好与水管右边缘接触
+        assertTrue(bird.sweptIntersects(10, 0, new Rect(39, 0, 52, 100)));
+    }
+
+    @Test
+    void stationarySweepMatchesIntersects() {
+        Rect bird = new Rect(100, 100, 20, 20);
+        Rect[] pipes = { new Rect(120, 100, 5, 5), new Rect(119, 119, 5, 5), new Rect(80, 80, 20, 20),
+                new Rect(90, 90, 20, 20), new Rect(0, 0, 300, 300) };
+        for (Rect pipe : pipes) {
+            assertTrue(bird.intersects(pipe) == bird.sweptIntersects(0, 0, pipe));
+        }
+    }
+
+    @Test
+    void emptyRectNeverIntersects() {
+        Rect pipe = new Rect(0, 0, 100, 100);
+        assertFalse(new Rect(10, 10, 0, 10).intersects(pipe));
+        assertFalse(new Rect(10, 10, 10, 0).sweptIntersects(20, 20, pipe));
+        assertFalse(new Rect(10, 10, 10, 10).sweptIntersects(20, 20, 0, 0, 0, 100));
+    }
+}
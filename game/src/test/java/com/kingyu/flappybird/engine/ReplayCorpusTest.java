@@ -0,0 +1,110 @@
+package com.kingyu.flappybird.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * 录像库在写入中断后的恢复，以及并行校验整个录像库
+ *
+ * @author Kingyu
+ */
+class ReplayCorpusTest {
+
+    private static Replay replay(int i) {
+        return new Replay(i, 0, i % 7, 100 + i, 1, new byte[] { (byte) (i & 0x7F) });
+    }
+
+    private static void write(File base, int from, int to) throws IOException {
+        try (ReplayCorpusWriter writer = new ReplayCorpusWriter(base)) {
+            for (int i = from; i < to; i++) {
+                assertEquals(i, writer.append(replay(i)));
+            }
+        }
+    }
+
+    // 截断文件或在末尾追加字节，模拟写入中断
+    private static void truncate(File file, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            channel.truncate(size);
+        }
+    }
+
+    private static void appendGarbage(File file, int bytes) throws IOException {
+        Files.write(file.toPath(), new byte[bytes], StandardOpenOption.APPEND);
+    }
+
+    @Test
+    void tornIndexEntryIsDropped(@TempDir Path dir) throws IOException {
+        File base = dir.resolve("corpus").toFile();
+        write(base, 0, 10);
+        File index = ReplayCorpus.indexFile(base);
+        truncate(index, index.length() - ReplayCorpus.ENTRY_SIZE / 2); // 最后一个索引项只写入了一半
+        appendGarbage(ReplayCorpus.dataFile(base), 100);
+
+        try (ReplayCorpusWriter writer = new ReplayCorpusWriter(base)) {
+            assertEquals(9, writer.size());
+            assertEquals(9, writer.append(replay(100)));
+        }
+        try (ReplayCorpus corpus = ReplayCorpus.open(base)) {
+            assertEquals(10, corpus.size());
+            for (int i = 0; i < 9; i++) {
+                assertEquals(replay(i), corpus.get(i));
+            }
+            assertEquals(replay(100), corpus.get(9));
+        }
+    }
+
+    @Test
+    void dataWithoutIndexIsDropped(@TempDir Path dir) throws IOException {
+        File base = dir.resolve("corpus").toFile();
+        write(base, 0, 3);
+        File data = ReplayCorpus.dataFile(base);
+        long end = data.length();
+        appendGarbage(data, 37); // 数据已写入，索引项尚未写入
+
+        write(base, 3, 5);
+        try (ReplayCorpus corpus = ReplayCorpus.open(base)) {
+            assertEquals(5, corpus.size());
+            assertEquals(end, corpus.getOffset(3)); // 没有索引的数据被丢弃，新的录像紧接在后面
+            for (int i = 0; i < 5; i++) {
+                assertEquals(replay(i), corpus.get(i));
+            }
+        }
+    }
+
+    @Test
+    void parallelVerifyReportsTheCorruptReplay(@TempDir Path dir) throws IOException, InterruptedException {
+        File base = dir.resolve("corpus").toFile();
+        List<Replay> games = ReplayRunnerTest.record(3L, 8);
+        int total = 1000; // 多于每个线程每次领取的录像数，使多个线程都参与校验
+        int corrupt = 777;
+        try (ReplayCorpusWriter writer = new ReplayCorpusWriter(base)) {
+            for (int i = 0; i < total; i++) {
+                writer.append(games.get(i % games.size()));
+            }
+        }
+        try (ReplayCorpus corpus = ReplayCorpus.open(base);
+             FileChannel data = FileChannel.open(ReplayCorpus.dataFile(base).toPath(), StandardOpenOption.WRITE)) {
+            data.write(ByteBuffer.allocate(4), corpus.getOffset(corrupt)); // 破坏这份录像的魔数
+        }
+
+        try (ReplayCorpus corpus = ReplayCorpus.open(base)) {
+            ReplayRunner.Report report = ReplayRunner.verify(corpus, 4);
+            assertEquals(total, report.getTotal());
+            assertEquals(1, report.getFailed());
+            assertEquals(Collections.singletonList((long) corrupt), report.getFailures());
+        }
+    }
+}
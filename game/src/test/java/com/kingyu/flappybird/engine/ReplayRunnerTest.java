@@ -0,0 +1,73 @@
+package com.kingyu.flappybird.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 录制的游戏重放后得到相同的分数和结束帧序号
+ *
+ * @author Kingyu
+ */
+class ReplayRunnerTest {
+    private static final int GAMES = 8;
+    private static final int MAX_TICKS = 500_000;
+
+    // 由自动驾驶操作，偶尔漏掉一次振翅，录制若干局游戏
+    static List<Replay> record(long seed, int games) {
+        List<Replay> replays = new ArrayList<>();
+        GameEngine engine = new GameEngine(seed);
+        engine.setRecorder(new ReplayRecorder(replays::add));
+        Autopilot autopilot = new Autopilot();
+        GameRandom noise = new GameRandom(seed + 1);
+        for (int i = 0; i < MAX_TICKS && replays.size() < games; i++) {
+            if (engine.getGameState() == GameEngine.STATE_OVER) {
+                engine.flapReleased();
+                engine.flapPressed(); // 开始下一局
+            } else if (!noise.isInProbability(1, 40)) {
+                autopilot.control(engine);
+            }
+            engine.tick();
+        }
+        assertEquals(games, replays.size());
+        return replays;
+    }
+
+    @Test
+    void recordedGamesReplayIdentically() {
+        List<Replay> replays = record(7L, GAMES);
+        ReplayRunner runner = new ReplayRunner();
+        long scored = 0;
+        for (Replay replay : replays) {
+            assertTrue(replay.getEventCount() > 0);
+            ReplayRunner.Result result = runner.run(replay);
+            assertTrue(result.isMatched(), result.toString());
+            scored += replay.getScore();
+        }
+        assertTrue(scored > 0); // 不只是开局就坠地的局
+    }
+
+    @Test
+    void tamperedScoreFails() {
+        Replay replay = record(11L, 1).get(0);
+        Replay tampered = new Replay(replay.getGameSeed(), replay.getFlags(), replay.getScore() + 1,
+                replay.getDeathTick(), replay.getEventCount(), replay.getEvents());
+        ReplayRunner.Result result = new ReplayRunner().run(tampered);
+        assertFalse(result.isMatched());
+        assertEquals(replay.getScore(), result.getScore());
+        assertEquals(replay.getDeathTick(), result.getDeathTick());
+    }
+
+    @Test
+    void differentSeedDiverges() {
+        Replay replay = record(13L, 1).get(0);
+        Replay reseeded = new Replay(replay.getGameSeed() + 1, replay.getFlags(), replay.getScore(),
+                replay.getDeathTick(), replay.getEventCount(), replay.getEvents());
+        assertFalse(new ReplayRunner().run(reseeded).isMatched());
+    }
+}
@@ -0,0 +1,43 @@
+package com.kingyu.flappybird.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * 录像的后台写入
+ *
+ * @author Kingyu
+ */
+class ReplayStoreTest {
+
+    @Test
+    void writesReplaysInOrderOffTheCallerThread(@TempDir Path dir) throws IOException {
+        File base = dir.resolve("corpus").toFile();
+        ReplayCorpusWriter writer = new ReplayCorpusWriter(base);
+        ReplayStore store = new ReplayStore(writer);
+        for (int i = 0; i < 100; i++) {
+            store.onReplay(new Replay(i, 0, i % 7, 100 + i, 1, new byte[] { (byte) (i & 0x7F) }));
+        }
+        store.flush();
+        assertEquals(100, store.getSubmitted());
+        assertEquals(100, store.getWritten());
+        assertEquals(0, store.getDropped());
+        assertEquals(0, store.getFailures());
+        writer.close();
+
+        try (ReplayCorpus corpus = ReplayCorpus.open(base)) {
+            assertEquals(100, corpus.size());
+            for (int i = 0; i < 100; i++) {
+                Replay replay = corpus.get(i);
+                assertEquals(i, replay.getGameSeed());
+                assertEquals(100 + i, replay.getDeathTick());
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.kingyu.flappybird.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 录像的编码、解码，以及损坏的录像
+ *
+ * @author Kingyu
+ */
+class ReplayTest {
+    private static final Replay REPLAY = new Replay(42L, Replay.FLAG_KEY_RELEASED, 7, 1234, 3,
+            new byte[] { 2, 21, 40 });
+
+    private static byte[] encode(Replay replay) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        replay.writeTo(new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+
+    // 魔数、版本、种子、开局状态、分数、结束帧序号之后，依次写入事件数量和事件的字节数
+    private static byte[] header(long eventCount, long length) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        byte[] valid = encode(REPLAY);
+        out.write(valid, 0, 4 + 1 + 8 + 1 + 1 + 2); // 分数7占1字节，结束帧序号1234占2字节
+        Replay.writeVarLong(out, eventCount);
+        Replay.writeVarLong(out, length);
+        return bytes.toByteArray();
+    }
+
+    private static Replay read(byte[] data) throws IOException {
+        return Replay.readFrom(new DataInputStream(new ByteArrayInputStream(data)));
+    }
+
+    @Test
+    void roundTrip() throws IOException {
+        byte[] data = encode(REPLAY);
+        assertEquals(REPLAY, read(data));
+        assertEquals(REPLAY, Replay.decode(ByteBuffer.wrap(data), 0, data.length));
+    }
+
+    @Test
+    void hugeLengthIsCorruptNotOutOfMemory() throws IOException {
+        byte[] data = header(3, Integer.MAX_VALUE); // 声明了2GB的事件，实际只有几个字节
+        IOException e = assertThrows(IOException.class, () -> read(data));
+        assertEquals("录像已损坏", e.getMessage());
+        assertThrows(IOException.class, () -> Replay.decode(ByteBuffer.wrap(data), 0, data.length));
+    }
+
+    @Test
+    void lengthBeyondIntIsCorrupt() throws IOException {
+        byte[] data = header(3, 1L << 40);
+        assertThrows(IOException.class, () -> read(data));
+        assertThrows(IOException.class, () -> read(header(3, -1L))); // 10字节的varint解码为负数
+    }
+
+    @Test
+    void moreEventsThanBytesIsCorrupt() throws IOException {
+        byte[] data = header(1000, 3);
+        assertThrows(IOException.class, () -> read(data));
+        assertThrows(IOException.class, () -> read(header(-1L, 3)));
+    }
+
+    @Test
+    void truncatedReplayIsCorrupt() throws IOException {
+        byte[] data = encode(REPLAY);
+        for (int n = 0; n < data.length; n++) {
+            byte[] truncated = Arrays.copyOf(data, n);
+            assertThrows(IOException.class, () -> read(truncated), "length=" + n);
+            assertThrows(IOException.class, () -> Replay.decode(ByteBuffer.wrap(truncated), 0, truncated.length),
+                    "length=" + n);
+        }
+    }
+}
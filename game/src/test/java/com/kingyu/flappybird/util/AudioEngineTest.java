@@ -0,0 +1,32 @@
+package com.kingyu.flappybird.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 音频引擎的播放请求计数
+ *
+ * @author Kingyu
+ */
+class AudioEngineTest {
+
+    @Test
+    void concurrentPlaysAreAllCounted() throws InterruptedException {
+        AudioEngine audio = new AudioEngine(new String[]{"missing.wav"}); // 音效解码失败，每个请求都被丢弃
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    audio.play(0);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(40_000, audio.getTriggered());
+        assertEquals(40_000, audio.getDropped());
+    }
+}
@@ -0,0 +1,170 @@
+package com.kingyu.flappybird.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * 游戏记录的排名与存档
+ *
+ * @author Kingyu
+ */
+class RunHistoryTest {
+
+    private static RunHistory.Run run(long score) {
+        return new RunHistory.Run(score, 100, 1, 0);
+    }
+
+    @Test
+    void scoresBelowMaxScoreHaveTheirOwnBucket() {
+        RunHistory history = new RunHistory(null, 10, 10, 100);
+        history.append(run(9));
+        history.append(run(10));
+        history.append(run(15));
+        assertEquals(3, history.append(run(9)).getRank()); // 分数不小于10的两局排在前面
+        assertEquals(25.0, history.percentile(9)); // 9与10不同分
+        assertEquals(75.0, history.percentile(10)); // 不小于maxScore的局按同分计算
+        assertEquals(75.0, history.percentile(100));
+    }
+
+    @Test
+    void flushWritesPendingRuns(@TempDir Path dir) {
+        File file = dir.resolve("history").toFile();
+        RunHistory history = new RunHistory(file, 10, 100, 1000);
+        for (int i = 0; i < 50; i++) {
+            history.append(run(i));
+        }
+        history.flush();
+
+        RunHistory reopened = new RunHistory(file, 10, 100, 1000);
+        assertEquals(50, reopened.getTotal());
+        assertEquals(49, reopened.getTop(1).get(0).getScore());
+    }
+
+    private static List<Long> scores(RunHistory history) throws IOException {
+        List<Long> scores = new ArrayList<>();
+        history.forEachRun(run -> scores.add(run.getScore()));
+        return scores;
+    }
+
+    private static List<Long> range(int n) {
+        List<Long> scores = new ArrayList<>();
+        for (long i = 0; i < n; i++) {
+            scores.add(i);
+        }
+        return scores;
+    }
+
+    @Test
+    void compactionKeepsEveryRun(@TempDir Path dir) throws IOException {
+        File file = dir.resolve("history").toFile();
+        RunHistory history = new RunHistory(file, 3, 100, 8);
+        for (int i = 0; i < 30; i++) {
+            history.append(run(i));
+            history.flush(); // 每一局单独追加，使日志达到压缩的阈值
+        }
+        assertTrue(history.getCompactions() >= 3);
+        assertEquals(range(30), scores(history));
+
+        RunHistory reopened = new RunHistory(file, 3, 100, 8);
+        assertEquals(30, reopened.getTotal());
+        assertEquals(29, reopened.getTop(1).get(0).getScore());
+        assertEquals(range(30), scores(reopened));
+        assertEquals(15.5 * 100 / 30, reopened.percentile(15));
+    }
+
+    @Test
+    void tornTailIsDroppedAndRewritten(@TempDir Path dir) throws IOException {
+        File file = dir.resolve("history").toFile();
+        RunHistory history = new RunHistory(file, 10, 100, 1000);
+        for (int i = 0; i < 5; i++) {
+            history.append(run(i));
+        }
+        history.flush();
+        Files.write(file.toPath(), new byte[]{1, 2, 3, 4, 5, 6, 7}, StandardOpenOption.APPEND); // 写入中断的记录
+
+        RunHistory reopened = new RunHistory(file, 10, 100, 1000);
+        assertEquals(5, reopened.getTotal());
+        reopened.append(run(5));
+        reopened.flush();
+        assertEquals(1, reopened.getCompactions()); // 重写存档，而不是在不完整的记录之后追加
+
+        RunHistory again = new RunHistory(file, 10, 100, 1000);
+        assertEquals(range(6), scores(again));
+    }
+
+    // 文件头和给定内容的快照，校验和正确
+    private static void writeSnapshot(File file, ByteBuffer content) throws IOException {
+        content.flip();
+        int size = content.remaining() + 4;
+        ByteBuffer buf = ByteBuffer.allocate(12 + size);
+        buf.putInt(0x46425248).putInt(1).putInt(size).put(content);
+        CRC32 crc = new CRC32();
+        crc.update(buf.array(), 12, size - 4);
+        buf.putInt((int) crc.getValue());
+        Files.write(file.toPath(), buf.array());
+    }
+
+    @Test
+    void corruptSnapshotIsIgnored(@TempDir Path dir) throws IOException {
+        File shortSnapshot = dir.resolve("short").toFile();
+        ByteBuffer header = ByteBuffer.allocate(15);
+        header.putInt(0x46425248).putInt(1).putInt(3).put(new byte[3]); // 快照短于校验和
+        Files.write(shortSnapshot.toPath(), header.array());
+        RunHistory history = new RunHistory(shortSnapshot, 10, 100, 1000);
+        assertEquals(0, history.getTotal());
+        history.flush();
+
+        File tooManyBuckets = dir.resolve("buckets").toFile();
+        ByteBuffer buckets = ByteBuffer.allocate(16);
+        buckets.putLong(5).putInt(Integer.MAX_VALUE).putInt(0); // 校验和正确，但格数超出快照的长度
+        writeSnapshot(tooManyBuckets, buckets);
+        history = new RunHistory(tooManyBuckets, 10, 100, 1000);
+        assertEquals(0, history.getTotal());
+        history.flush();
+
+        File tooManyRuns = dir.resolve("runs").toFile();
+        ByteBuffer runs = ByteBuffer.allocate(16);
+        runs.putLong(5).putInt(0).putInt(1_000_000); // 前K局的数量超出快照的长度
+        writeSnapshot(tooManyRuns, runs);
+        history = new RunHistory(tooManyRuns, 10, 100, 1000);
+        assertEquals(0, history.getTotal());
+        history.append(run(7)); // 损坏的存档被重写
+        history.flush();
+        assertEquals(List.of(7L), scores(new RunHistory(tooManyRuns, 10, 100, 1000)));
+    }
+
+    @Test
+    void failedWritesAreRetried(@TempDir Path dir) throws IOException, InterruptedException {
+        Path blocker = dir.resolve("runs");
+        Files.createFile(blocker); // 存档所在的目录被同名文件占用，写入失败
+        File file = blocker.resolve("history").toFile();
+        RunHistory history = new RunHistory(file, 10, 100, 1000);
+        for (int i = 0; i < 5; i++) {
+            history.append(run(i));
+        }
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (history.getFailures() == 0 && System.nanoTime() - deadline < 0) {
+            Thread.sleep(10);
+        }
+        assertTrue(history.getFailures() > 0);
+
+        Files.delete(blocker); // 故障排除后，写入失败的局随新的快照一起写入
+        history.flush();
+        RunHistory reopened = new RunHistory(file, 10, 100, 1000);
+        assertEquals(5, reopened.getTotal());
+        assertEquals(range(5), scores(reopened));
+    }
+}
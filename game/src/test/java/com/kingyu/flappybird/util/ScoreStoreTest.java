@@ -0,0 +1,57 @@
+package com.kingyu.flappybird.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * 最高纪录存档的后台写入
+ *
+ * @author Kingyu
+ */
+class ScoreStoreTest {
+
+    @Test
+    void failedWriteIsRetried(@TempDir Path dir) throws IOException, InterruptedException {
+        Path blocker = dir.resolve("scores");
+        Files.createFile(blocker); // 存档所在的目录被同名文件占用，写入失败
+        File file = blocker.resolve("score").toFile();
+        ScoreStore store = new ScoreStore(file);
+        store.submit(42);
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (store.getFailures() == 0 && System.nanoTime() - deadline < 0) {
+            Thread.sleep(10);
+        }
+        assertTrue(store.getFailures() > 0);
+
+        Files.delete(blocker); // 故障排除后，没有新的登记也会重试
+        store.flush();
+        assertEquals(42, store.load());
+        assertEquals(1, store.getWrites());
+    }
+
+    @Test
+    void concurrentSubmitsAreAllCounted() throws InterruptedException {
+        ScoreStore store = new ScoreStore(null);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    store.submit(i);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(40_000, store.getSubmitted());
+    }
+}